@@ -0,0 +1,148 @@
+package com.bank.loan.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Small bounded cache where every entry carries its own expiry.
+ * Expired entries are dropped lazily on read and in bulk when the cache is full.
+ */
+public class TtlCache<K, V> {
+
+    private final Map<K, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final int maxSize;
+    private final Clock clock;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public TtlCache(int maxSize) {
+        this(maxSize, Clock.systemUTC());
+    }
+
+    public TtlCache(int maxSize, Clock clock) {
+        if (maxSize <= 0)
+            throw new IllegalArgumentException("maxSize must be positive");
+        this.maxSize = maxSize;
+        this.clock = clock;
+    }
+
+    public V get(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        if (entry.expiresAtMs <= clock.millis()) {
+            entries.remove(key, entry);
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.value;
+    }
+
+    public V get(K key, Function<K, V> loader, Duration ttl) {
+        V value = get(key);
+        if (value == null) {
+            value = loader.apply(key);
+            if (value != null) {
+                put(key, value, ttl);
+            }
+        }
+        return value;
+    }
+
+    public void put(K key, V value, Duration ttl) {
+        put(key, value, clock.millis() + ttl.toMillis());
+    }
+
+    public void put(K key, V value, Instant expiresAt) {
+        put(key, value, expiresAt.toEpochMilli());
+    }
+
+    private void put(K key, V value, long expiresAtMs) {
+        if (expiresAtMs <= clock.millis()) {
+            return;
+        }
+        if (entries.size() >= maxSize && !entries.containsKey(key)) {
+            makeRoom();
+        }
+        entries.put(key, new Entry<>(value, expiresAtMs));
+    }
+
+    public void invalidate(K key) {
+        entries.remove(key);
+    }
+
+    public void invalidateAll() {
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    public long missCount() {
+        return misses.sum();
+    }
+
+    public long evictionCount() {
+        return evictions.sum();
+    }
+
+    /**
+     * Registers the standard cache.gets / cache.evictions / cache.size meters.
+     */
+    public TtlCache<K, V> bindTo(MeterRegistry registry, String name) {
+        FunctionCounter.builder("cache.gets", this, TtlCache::hitCount)
+                .tag("cache", name).tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("cache.gets", this, TtlCache::missCount)
+                .tag("cache", name).tag("result", "miss")
+                .register(registry);
+        FunctionCounter.builder("cache.evictions", this, TtlCache::evictionCount)
+                .tag("cache", name)
+                .register(registry);
+        Gauge.builder("cache.size", this, TtlCache::size)
+                .tag("cache", name)
+                .register(registry);
+        return this;
+    }
+
+    // Drop everything expired; if the cache is still full, shed ~10% of it.
+    private void makeRoom() {
+        long now = clock.millis();
+        entries.entrySet().removeIf(e -> {
+            boolean expired = e.getValue().expiresAtMs <= now;
+            if (expired) evictions.increment();
+            return expired;
+        });
+
+        int target = maxSize - Math.max(1, maxSize / 10);
+        Iterator<K> it = entries.keySet().iterator();
+        while (entries.size() > target && it.hasNext()) {
+            it.next();
+            it.remove();
+            evictions.increment();
+        }
+    }
+
+    private record Entry<V>(V value, long expiresAtMs) {
+    }
+}
@@ -0,0 +1,122 @@
+package com.bank.loan.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * One-off, idempotent fix-ups for loan documents written by older versions.
+ * Runs at startup when app.migrations.enabled=true.
+ */
+@Slf4j
+@Component
+@Order(1)
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.migrations.enabled", havingValue = "true")
+public class LoanDocumentMigrations implements ApplicationRunner {
+
+    private static final int DUPLICATE_KEY = 11000;
+    private static final int MIGRATION_BATCH = 100;
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        splitEmbeddedActions();
+        backfillVersion();
+    }
+
+    // Loans without a version would be treated as new by save() and re-inserted.
+    void backfillVersion() {
+        long updated = mongoTemplate.updateMulti(
+                new Query(Criteria.where("version").exists(false)),
+                new Update().set("version", 0L),
+                "loans").getModifiedCount();
+
+        if (updated > 0) {
+            log.info("Initialised version on {} loans", updated);
+        }
+    }
+
+    // Moves legacy embedded "actions" arrays into loan_actions and keeps only count + last action.
+    // Each moved action gets the id "<loanId>:<index>", so a run interrupted between the insert
+    // and the unset re-inserts nothing: the duplicates are rejected and the unset is retried.
+    void splitEmbeddedActions() {
+
+        Query legacy = new Query(Criteria.where("actions").exists(true)).cursorBatchSize(MIGRATION_BATCH);
+        legacy.fields().include("_id").include("actions");
+
+        int migrated = 0;
+
+        try (Stream<Document> loans = mongoTemplate.stream(legacy, Document.class, "loans")) {
+            Iterator<Document> it = loans.iterator();
+            while (it.hasNext()) {
+                moveActions(it.next());
+                migrated++;
+            }
+        }
+
+        if (migrated > 0) {
+            log.info("Moved embedded actions of {} loans to loan_actions", migrated);
+        }
+    }
+
+    private void moveActions(Document loan) {
+
+        Object loanId = loan.get("_id");
+        List<Document> actions = loan.getList("actions", Document.class, List.of());
+
+        List<Document> entries = new ArrayList<>(actions.size());
+        for (int i = 0; i < actions.size(); i++) {
+            Document entry = new Document(actions.get(i));
+            entry.put("_id", loanId + ":" + i);
+            entry.put("loanId", loanId.toString());
+            entries.add(entry);
+        }
+        insertIgnoringDuplicates(entries);
+
+        Update update = new Update()
+                .unset("actions")
+                .set("actionCount", (long) actions.size());
+        if (!actions.isEmpty()) {
+            update.set("lastAction", actions.get(actions.size() - 1));
+        }
+
+        mongoTemplate.updateFirst(
+                new Query(Criteria.where("_id").is(loanId)), update, "loans");
+    }
+
+    private void insertIgnoringDuplicates(List<Document> entries) {
+
+        if (entries.isEmpty()) {
+            return;
+        }
+
+        try {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, "loan_actions")
+                    .insert(entries)
+                    .execute();
+        } catch (BulkOperationException e) {
+            // Duplicates were moved by an earlier, interrupted run; anything else is a real failure.
+            if (e.getErrors().stream().anyMatch(err -> err.getCode() != DUPLICATE_KEY)) {
+                throw e;
+            }
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.bank.loan.config;
+
+import com.bank.loan.model.Loan;
+import com.bank.loan.model.LoanAction;
+import com.bank.loan.model.LoanSummary;
+import com.bank.loan.model.OutboxEvent;
+import com.bank.loan.model.ProcessedEvent;
+import com.bank.loan.model.PublishedRateGrid;
+import com.bank.loan.model.RefreshToken;
+import com.bank.loan.model.RepricingCheckpoint;
+import com.bank.loan.model.User;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexField;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+/**
+ * Creates the indexes declared on our documents at startup and checks that every
+ * repository query shape has an index that serves both its filter and its sort.
+ *
+ * Runs once all singletons exist, which is before the web server, Kafka listeners and
+ * schedulers start: list queries hint these indexes by name and would fail without them.
+ *
+ * app.mongo.index-check=fail aborts startup on a missing index; "warn" only logs.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MongoIndexBootstrapper implements SmartInitializingSingleton {
+
+    static final List<Class<?>> INDEXED_TYPES =
+            List.of(Loan.class, LoanAction.class, User.class, OutboxEvent.class,
+                    ProcessedEvent.class, LoanSummary.class, RefreshToken.class, RepricingCheckpoint.class,
+                    PublishedRateGrid.class);
+
+    static final List<QueryShape> QUERY_SHAPES = List.of(
+            // LoanRepository.search / searchAfter, one per LoanSearchCriteria.indexHint()
+            new QueryShape(Loan.class, "loans",
+                    List.of("deleted"), "createdAt"),
+            new QueryShape(Loan.class, "loans by status",
+                    List.of("deleted", "status"), "createdAt"),
+            new QueryShape(Loan.class, "loans by createdBy",
+                    List.of("deleted", "createdBy"), "createdAt"),
+            new QueryShape(Loan.class, "loans by loanType",
+                    List.of("deleted", "loanType"), "createdAt"),
+            new QueryShape(Loan.class, "loans by rating",
+                    List.of("deleted", "financials.rating"), "createdAt"),
+            new QueryShape(Loan.class, "LoanRepository.findOpenAfter",
+                    List.of("deleted", "status"), "_id"),
+            new QueryShape(Loan.class, "LoanRepository.exposureByRating",
+                    List.of("deleted"), "financials.rating"),
+            new QueryShape(Loan.class, "LoanRepository.averageRateByLoanType / requestedAmountHistogram",
+                    List.of("deleted"), "loanType"),
+            new QueryShape(LoanAction.class, "LoanActionRepository.findByLoanId",
+                    List.of("loanId"), "timestamp"),
+            new QueryShape(User.class, "UserRepository.findByEmail",
+                    List.of("email"), null),
+            new QueryShape(User.class, "UserRepository.existsByEmail",
+                    List.of("email"), null),
+            new QueryShape(User.class, "UserRepository.findByAccountVersionGreaterThan",
+                    List.of(), "accountVersion"),
+            new QueryShape(User.class, "UserRepository.findByUpdatedAtAfter",
+                    List.of(), "updatedAt"),
+            new QueryShape(OutboxEvent.class, "LoanOutboxRelay pending",
+                    List.of("publishedAt", "parkedAt"), "_id"),
+            new QueryShape(RefreshToken.class, "RefreshTokenRepository.findByRevokedAtAfter",
+                    List.of(), "revokedAt"),
+            new QueryShape(RepricingCheckpoint.class, "RepricingCheckpointRepository.findTopByOrderByStartedAtDesc",
+                    List.of(), "startedAt"),
+            new QueryShape(PublishedRateGrid.class, "PublishedRateGridRepository.findTopByOrderByPublishedAtDesc",
+                    List.of(), "publishedAt")
+    );
+
+    private final MongoTemplate mongoTemplate;
+    private final MongoMappingContext mappingContext;
+
+    @Value("${app.mongo.index-check:warn}")
+    private String indexCheck;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        INDEXED_TYPES.forEach(this::ensureIndexes);
+        verifyQueryShapes();
+    }
+
+    private void ensureIndexes(Class<?> type) {
+        IndexOperations ops = mongoTemplate.indexOps(type);
+        IndexResolver resolver = new MongoPersistentEntityIndexResolver(mappingContext);
+        resolver.resolveIndexFor(type).forEach(ops::ensureIndex);
+    }
+
+    void verifyQueryShapes() {
+
+        List<String> unsupported = new ArrayList<>();
+
+        for (QueryShape shape : QUERY_SHAPES) {
+            List<IndexInfo> indexes = mongoTemplate.indexOps(shape.type()).getIndexInfo();
+            if (indexes.stream().noneMatch(shape::isServedBy)) {
+                unsupported.add(shape.name());
+            }
+        }
+
+        if (unsupported.isEmpty()) {
+            log.info("All {} query shapes have a supporting index", QUERY_SHAPES.size());
+            return;
+        }
+
+        String message = "No supporting index for: " + String.join(", ", unsupported);
+        if ("fail".equalsIgnoreCase(indexCheck)) {
+            throw new IllegalStateException(message);
+        }
+        log.warn(message);
+    }
+
+    /**
+     * Equality fields (any order) followed by the sort field, as an index prefix.
+     * A range-only query (e.g. findByUpdatedAtAfter) puts its range field in the sort slot.
+     * Derived repository queries are named "Repository.method"; MongoIndexBootstrapperTest
+     * fails when one has no shape.
+     */
+    record QueryShape(Class<?> type, String name, List<String> equality, String sort) {
+
+        boolean isServedBy(IndexInfo index) {
+            List<String> keys = index.getIndexFields().stream().map(IndexField::getKey).toList();
+
+            int needed = equality.size() + (sort != null ? 1 : 0);
+            if (keys.size() < needed)
+                return false;
+
+            if (!new HashSet<>(keys.subList(0, equality.size())).equals(new HashSet<>(equality)))
+                return false;
+
+            return sort == null || sort.equals(keys.get(equality.size()));
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.bank.loan.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.data.mongodb.MongoTransactionManager;
+
+/**
+ * Turns the @Transactional service methods into Mongo multi-document transactions, so
+ * a loan change and its outbox event commit together. Requires a replica set (a
+ * single-node one is enough); without this bean @Transactional is not applied.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.mongo.transactions.enabled", havingValue = "true")
+public class MongoTransactionConfig {
+
+    @Bean
+    public MongoTransactionManager transactionManager(MongoDatabaseFactory databaseFactory) {
+        return new MongoTransactionManager(databaseFactory);
+    }
+}
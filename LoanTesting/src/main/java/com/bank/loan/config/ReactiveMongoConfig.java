@@ -0,0 +1,22 @@
+package com.bank.loan.config;
+
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.data.mongo.MongoReactiveDataAutoConfiguration;
+import org.springframework.boot.autoconfigure.data.mongo.MongoReactiveRepositoriesAutoConfiguration;
+import org.springframework.boot.autoconfigure.mongo.MongoReactiveAutoConfiguration;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * The reactive Mongo client, template and repositories for the opt-in reactive read
+ * path. Their auto-configurations are excluded in LoanPricingApprovalApplication and imported
+ * here, so unless app.reactive.enabled=true no second driver pool is started.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.reactive.enabled", havingValue = "true")
+@ImportAutoConfiguration({
+        MongoReactiveAutoConfiguration.class,
+        MongoReactiveDataAutoConfiguration.class,
+        MongoReactiveRepositoriesAutoConfiguration.class})
+public class ReactiveMongoConfig {
+}
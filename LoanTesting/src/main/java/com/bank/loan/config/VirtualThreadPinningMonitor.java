@@ -0,0 +1,151 @@
+package com.bank.loan.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Deque;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+/**
+ * Watches for virtual threads pinned to their carrier (blocking inside synchronized
+ * or native code), which silently turns virtual-thread mode back into a small
+ * platform-thread pool.
+ *
+ * Listens to the JFR jdk.VirtualThreadPinned event in-process. Every pin longer than
+ * the threshold is logged at ERROR with the blocking stack and counted in
+ * jvm.threads.virtual.pinned. With app.threads.pinning.fail-health=true the health
+ * endpoint also reports DOWN while more than {@code maxPins} pins happened within the
+ * last {@code window}, so sustained pinning fails load tests and readiness checks but a
+ * single pin does not take the node out of rotation for good.
+ */
+@Slf4j
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadPinningMonitor implements HealthIndicator {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final int STACK_DEPTH = 12;
+
+    private final Duration threshold;
+    private final boolean failHealth;
+    private final Duration window;
+    private final int maxPins;
+    private final Clock clock;
+    private final Counter pinnedCounter;
+    private final AtomicReference<Pin> lastPin = new AtomicReference<>();
+    private final Deque<Instant> recentPins = new ConcurrentLinkedDeque<>();
+
+    private RecordingStream stream;
+
+    @Autowired
+    public VirtualThreadPinningMonitor(
+            @Value("${app.threads.pinning.threshold-ms:20}") long thresholdMs,
+            @Value("${app.threads.pinning.fail-health:true}") boolean failHealth,
+            @Value("${app.threads.pinning.health-window-ms:60000}") long windowMs,
+            @Value("${app.threads.pinning.health-max-pins:10}") int maxPins,
+            MeterRegistry meterRegistry) {
+        this(thresholdMs, failHealth, windowMs, maxPins, meterRegistry, Clock.systemUTC());
+    }
+
+    VirtualThreadPinningMonitor(long thresholdMs, boolean failHealth, long windowMs, int maxPins,
+                                MeterRegistry meterRegistry, Clock clock) {
+
+        if (windowMs <= 0 || maxPins < 0)
+            throw new IllegalArgumentException("Pinning health window must be positive and max pins not negative");
+
+        this.threshold = Duration.ofMillis(thresholdMs);
+        this.failHealth = failHealth;
+        this.window = Duration.ofMillis(windowMs);
+        this.maxPins = maxPins;
+        this.clock = clock;
+        this.pinnedCounter = Counter.builder("jvm.threads.virtual.pinned")
+                .description("Virtual threads pinned to their carrier longer than the threshold")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        stream = new RecordingStream();
+        stream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        stream.onEvent(PINNED_EVENT, this::pinned);
+        stream.startAsync();
+        log.info("Virtual threads enabled; reporting carrier pinning over {} ms", threshold.toMillis());
+    }
+
+    @PreDestroy
+    void stop() {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+
+    private void pinned(RecordedEvent event) {
+
+        String stack = event.getStackTrace() == null ? "(no stack)" :
+                event.getStackTrace().getFrames().stream()
+                        .limit(STACK_DEPTH)
+                        .map(VirtualThreadPinningMonitor::frame)
+                        .collect(Collectors.joining("\n\tat ", "\tat ", ""));
+
+        record(event.getStartTime(), event.getDuration(), stack);
+    }
+
+    void record(Instant at, Duration duration, String stack) {
+
+        pinnedCounter.increment();
+        recentPins.addLast(clock.instant());
+        lastPin.set(new Pin(at, duration, stack));
+        log.error("Virtual thread pinned to carrier for {} ms:\n{}", duration.toMillis(), stack);
+    }
+
+    private static String frame(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                + ":" + frame.getLineNumber();
+    }
+
+    @Override
+    public Health health() {
+
+        Pin pin = lastPin.get();
+        if (pin == null) {
+            return Health.up().build();
+        }
+
+        Instant cutoff = clock.instant().minus(window);
+        while (!recentPins.isEmpty() && recentPins.peekFirst().isBefore(cutoff)) {
+            recentPins.pollFirst();
+        }
+        int recent = recentPins.size();
+
+        Health.Builder health = failHealth && recent > maxPins ? Health.down() : Health.up();
+        return health
+                .withDetail("pinnedCount", (long) pinnedCounter.count())
+                .withDetail("recentPinnedCount", recent)
+                .withDetail("recentWindowMs", window.toMillis())
+                .withDetail("lastPinnedAt", pin.at())
+                .withDetail("lastPinnedMs", pin.duration().toMillis())
+                .withDetail("lastPinnedStack", pin.stack())
+                .build();
+    }
+
+    private record Pin(Instant at, Duration duration, String stack) {
+    }
+}
@@ -3,13 +3,18 @@ package com.bank.loan.controller;
 import com.bank.loan.dto.LoanStatusUpdateRequest;
 import com.bank.loan.model.LoanStatus;
 import com.bank.loan.model.Role;
+import com.bank.loan.repository.LoanSearchCriteria;
 import com.bank.loan.security.CustomUserDetails;
 import com.bank.loan.service.LoanService;
+import com.bank.loan.service.LoanSummaryService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+
+import java.time.Instant;
 /*
 @RestController
 @RequestMapping("/api/admin/loans")
@@ -69,15 +74,42 @@ public class AdminLoanController {
 public class AdminLoanController {
 
     private final LoanService loanService;
+    private final LoanSummaryService loanSummaryService;
 
     @GetMapping
     public ResponseEntity<?> getAllLoans(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
-            @RequestParam(required = false) LoanStatus status) {
+            @RequestParam(required = false) LoanStatus status,
+            @RequestParam(required = false) String createdBy,
+            @RequestParam(required = false) String loanType,
+            @RequestParam(required = false) String rating,
+            @RequestParam(required = false) Long minAmount,
+            @RequestParam(required = false) Long maxAmount,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant createdFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant createdTo,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") boolean withTotal) {
+
+        LoanSearchCriteria filter = LoanSearchCriteria.builder()
+                .status(status)
+                .createdBy(createdBy)
+                .loanType(loanType)
+                .rating(rating)
+                .minAmount(minAmount)
+                .maxAmount(maxAmount)
+                .createdFrom(createdFrom)
+                .createdTo(createdTo)
+                .build();
+
+        if (cursor != null) {
+            return ResponseEntity.ok(
+                    loanService.listLoansByCursor(cursor, size, filter, withTotal)
+            );
+        }
 
         return ResponseEntity.ok(
-                loanService.listLoans(page, size, status, null)
+                loanService.listLoans(filter, page, size)
         );
     }
 
@@ -110,4 +142,10 @@ public class AdminLoanController {
 
         return ResponseEntity.noContent().build();
     }
+
+    // Recomputes loan_summaries from the loans collection
+    @PostMapping("/summary/rebuild")
+    public ResponseEntity<Integer> rebuildSummary() {
+        return ResponseEntity.ok(loanSummaryService.rebuild());
+    }
 }
@@ -0,0 +1,43 @@
+package com.bank.loan.controller;
+
+import com.bank.loan.repository.PortfolioGroup;
+import com.bank.loan.service.PortfolioService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * Portfolio breakdowns over all live loans. Results may be up to
+ * app.portfolio.cache-ttl-ms old.
+ */
+@RestController
+@RequestMapping("/api/admin/portfolio")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+public class AdminPortfolioController {
+
+    private final PortfolioService portfolioService;
+
+    // Sanctioned amount per rating
+    @GetMapping("/exposure")
+    public ResponseEntity<List<PortfolioGroup>> exposureByRating() {
+        return ResponseEntity.ok(portfolioService.exposureByRating());
+    }
+
+    // Average approved interest rate per loan type
+    @GetMapping("/rates")
+    public ResponseEntity<List<PortfolioGroup>> averageRateByLoanType() {
+        return ResponseEntity.ok(portfolioService.averageRateByLoanType());
+    }
+
+    // Requested amount histogram, e.g. ?boundaries=0,100000,1000000&loanType=TermLoan
+    @GetMapping("/amounts")
+    public ResponseEntity<List<PortfolioGroup>> amountHistogram(
+            @RequestParam(required = false) long[] boundaries,
+            @RequestParam(required = false) String loanType) {
+        return ResponseEntity.ok(portfolioService.amountHistogram(boundaries, loanType));
+    }
+}
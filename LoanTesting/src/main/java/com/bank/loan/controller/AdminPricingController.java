@@ -0,0 +1,54 @@
+package com.bank.loan.controller;
+
+import com.bank.loan.model.RepricingCheckpoint;
+import com.bank.loan.pricing.PricingEngine;
+import com.bank.loan.pricing.RateGridDefinition;
+import com.bank.loan.pricing.RateGridStore;
+import com.bank.loan.security.CustomUserDetails;
+import com.bank.loan.service.RepricingJob;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Rate grid administration. A published grid is stored in Mongo and reaches
+ * every node within app.pricing.grid-sync-ms (see {@link RateGridStore}).
+ */
+@RestController
+@RequestMapping("/api/admin/pricing")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+public class AdminPricingController {
+
+    private final PricingEngine pricingEngine;
+    private final RateGridStore rateGridStore;
+    private final RepricingJob repricingJob;
+
+    @GetMapping("/grid")
+    public ResponseEntity<RateGridDefinition> getGrid() {
+        return ResponseEntity.ok(pricingEngine.currentGrid().getDefinition());
+    }
+
+    @PutMapping("/grid")
+    public ResponseEntity<RateGridDefinition> publishGrid(
+            @RequestBody RateGridDefinition definition,
+            Authentication authentication) {
+        var principal = (CustomUserDetails) authentication.getPrincipal();
+        return ResponseEntity.ok(rateGridStore.publish(definition, principal.getId()).getDefinition());
+    }
+
+    // Re-prices all open loans with the current grid; resumes an unfinished run
+    @PostMapping("/repricing")
+    public ResponseEntity<RepricingCheckpoint> startRepricing() {
+        return ResponseEntity.accepted().body(repricingJob.start());
+    }
+
+    @GetMapping("/repricing")
+    public ResponseEntity<RepricingCheckpoint> repricingStatus() {
+        return repricingJob.latest()
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.noContent().build());
+    }
+}
@@ -1,49 +1,70 @@
 package com.bank.loan.controller;
 
 import com.bank.loan.dto.*;
+import com.bank.loan.security.CustomUserDetails;
 import com.bank.loan.security.JwtTokenProvider;
+import com.bank.loan.security.LoginAuthenticator;
+import com.bank.loan.security.RefreshTokenService;
 import com.bank.loan.service.UserService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.authentication.*;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.concurrent.CompletableFuture;
+
 @RestController
 @RequestMapping("/api/auth")
 @RequiredArgsConstructor
 public class AuthController {
 
-    private final AuthenticationManager authenticationManager;
+    private final LoginAuthenticator loginAuthenticator;
     private final JwtTokenProvider tokenProvider;
+    private final RefreshTokenService refreshTokenService;
     private final UserService userService;
+
+    // Password hashing runs on LoginAuthenticator's pool; this request thread is released meanwhile
     @PostMapping("/login")
-    public ResponseEntity<AuthResponse> login(@Valid @RequestBody AuthRequest request) {
-
-        Authentication auth = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(
-                        request.getEmail(), request.getPassword()
-                )
-        );
-
-        SecurityContextHolder.getContext().setAuthentication(auth);
-
-        String role = auth.getAuthorities()
-                .iterator()
-                .next()
-                .getAuthority()
-                .replace("ROLE_", "");
-
-        String token = tokenProvider.generateToken(
-                auth.getName(),
-                role
-        );
-
-        return ResponseEntity.ok(
-                new AuthResponse(token, "Bearer", role)
-        );
+    public CompletableFuture<ResponseEntity<AuthResponse>> login(
+            @Valid @RequestBody AuthRequest request,
+            HttpServletRequest httpRequest) {
+
+        return loginAuthenticator.authenticate(request.getEmail(), request.getPassword(), httpRequest.getRemoteAddr())
+                .thenApply(auth -> {
+
+                    String role = auth.getAuthorities()
+                            .iterator()
+                            .next()
+                            .getAuthority()
+                            .replace("ROLE_", "");
+
+                    if (auth.getPrincipal() instanceof CustomUserDetails user) {
+                        return ResponseEntity.ok(new AuthResponse(
+                                tokenProvider.generateToken(user), "Bearer", role,
+                                refreshTokenService.issue(user)));
+                    }
+
+                    return ResponseEntity.ok(new AuthResponse(
+                            tokenProvider.generateToken(auth.getName(), role), "Bearer", role, null));
+                });
+    }
+
+    // No password check: the refresh token is verified locally and checked against revocations
+    @PostMapping("/refresh")
+    public ResponseEntity<AuthResponse> refresh(@Valid @RequestBody RefreshTokenRequest request) {
+        CustomUserDetails user = refreshTokenService.refresh(request.getRefreshToken());
+
+        return ResponseEntity.ok(new AuthResponse(
+                tokenProvider.generateToken(user), "Bearer", user.getRole().name(),
+                request.getRefreshToken()));
+    }
+
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@Valid @RequestBody RefreshTokenRequest request) {
+        refreshTokenService.revoke(request.getRefreshToken());
+        return ResponseEntity.noContent().build();
     }
 
 
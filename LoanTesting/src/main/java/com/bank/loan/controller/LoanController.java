@@ -3,14 +3,32 @@ package com.bank.loan.controller;
 import com.bank.loan.dto.*;
 import com.bank.loan.model.LoanStatus;
 import com.bank.loan.model.Role;
+import com.bank.loan.repository.LoanSearchCriteria;
 import com.bank.loan.security.CustomUserDetails;
+import com.bank.loan.service.LoanBulkImportService;
+import com.bank.loan.service.LoanExportService;
+import com.bank.loan.service.LoanQuoteService;
 import com.bank.loan.service.LoanService;
+import com.bank.loan.service.LoanSummaryService;
 import com.bank.loan.service.UserService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/loans")
@@ -19,6 +37,16 @@ public class LoanController {
 
     private final LoanService loanService;
     private final UserService userService;
+    private final LoanQuoteService loanQuoteService;
+    private final LoanBulkImportService loanBulkImportService;
+    private final LoanExportService loanExportService;
+    private final LoanSummaryService loanSummaryService;
+
+    @Value("${app.bulk.request-timeout-ms:600000}")
+    private long bulkRequestTimeoutMs;
+
+    @Value("${app.export.request-timeout-ms:600000}")
+    private long exportRequestTimeoutMs;
 
     @PostMapping
     public ResponseEntity<LoanResponseDto> createLoan(
@@ -28,33 +56,142 @@ public class LoanController {
         return ResponseEntity.ok(loanService.createLoan(request, principal.getId()));
     }
 
+    // JSON array or NDJSON in, one NDJSON result per item out; neither side is buffered
+    @PostMapping("/bulk")
+    public ResponseEntity<StreamingResponseBody> bulkCreate(
+            HttpServletRequest request,
+            Authentication authentication) throws IOException {
+        var principal = (CustomUserDetails) authentication.getPrincipal();
+        String userId = principal.getId();
+        InputStream body = request.getInputStream();
+
+        StreamingResponseBody results = out -> loanBulkImportService.importLoans(body, out, userId);
+        asyncTimeout(request, bulkRequestTimeoutMs);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(results);
+    }
+
+    // What-if pricing; nothing is saved
+    @PostMapping("/quote")
+    public ResponseEntity<LoanQuoteDto> quote(@RequestBody LoanCreateRequest request) {
+        return ResponseEntity.ok(loanQuoteService.quote(request));
+    }
+
+    // Read element by element, so an oversized batch is refused before it is all in memory
+    @PostMapping("/quote/batch")
+    public ResponseEntity<List<LoanQuoteDto>> quoteBatch(HttpServletRequest request) throws IOException {
+        return ResponseEntity.ok(loanQuoteService.quoteBatch(request.getInputStream()));
+    }
+
     @GetMapping
     public ResponseEntity<PagedResponse<LoanResponseDto>> listLoans(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(required = false) LoanStatus status,
             @RequestParam(required = false) Boolean my,
+            @RequestParam(required = false) String loanType,
+            @RequestParam(required = false) String rating,
+            @RequestParam(required = false) Long minAmount,
+            @RequestParam(required = false) Long maxAmount,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant createdFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant createdTo,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") boolean withTotal,
             Authentication authentication
     ) {
-        String createdBy = null;
+        String createdBy = createdBy(my, authentication);
 
-        if (Boolean.TRUE.equals(my) && authentication != null) {
-            CustomUserDetails principal =
-                    (CustomUserDetails) authentication.getPrincipal();
-            createdBy = principal.getId(); // ✅ only this user's loans
+        // All filters combine; e.g. my=true&status=SUBMITTED returns my submitted loans.
+        LoanSearchCriteria filter = filter(status, createdBy, loanType, rating,
+                minAmount, maxAmount, createdFrom, createdTo);
+
+        // Any cursor parameter (even empty) switches to keyset paging.
+        if (cursor != null) {
+            return ResponseEntity.ok(
+                    loanService.listLoansByCursor(cursor, size, filter, withTotal)
+            );
         }
 
         return ResponseEntity.ok(
-                loanService.listLoans(page, size, status, createdBy)
+                loanService.listLoans(filter, page, size)
         );
     }
 
+    // Whole result set in one response, streamed from a Mongo cursor (format=ndjson|csv)
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportLoans(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(required = false) LoanStatus status,
+            @RequestParam(required = false) Boolean my,
+            @RequestParam(required = false) String loanType,
+            @RequestParam(required = false) String rating,
+            @RequestParam(required = false) Long minAmount,
+            @RequestParam(required = false) Long maxAmount,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant createdFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant createdTo,
+            HttpServletRequest request,
+            Authentication authentication
+    ) {
+        ExportFormat exportFormat = ExportFormat.from(format);
+        LoanSearchCriteria filter = filter(status, createdBy(my, authentication), loanType, rating,
+                minAmount, maxAmount, createdFrom, createdTo);
+
+        StreamingResponseBody rows = out -> loanExportService.export(filter, exportFormat, out);
+        asyncTimeout(request, exportRequestTimeoutMs);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"loans." + exportFormat.getExtension() + "\"")
+                .body(rows);
+    }
+
+    // Counts and amounts per status / loan type (plus the caller's own with my=true), from the read model
+    @GetMapping("/summary")
+    public ResponseEntity<LoanSummaryDto> summary(
+            @RequestParam(required = false) Boolean my,
+            Authentication authentication) {
+        return ResponseEntity.ok(loanSummaryService.summary(createdBy(my, authentication)));
+    }
+
+    private static String createdBy(Boolean my, Authentication authentication) {
+        if (Boolean.TRUE.equals(my) && authentication != null) {
+            CustomUserDetails principal =
+                    (CustomUserDetails) authentication.getPrincipal();
+            return principal.getId(); // ✅ only this user's loans
+        }
+        return null;
+    }
+
+    private static LoanSearchCriteria filter(LoanStatus status, String createdBy, String loanType, String rating,
+                                             Long minAmount, Long maxAmount, Instant createdFrom, Instant createdTo) {
+        return LoanSearchCriteria.builder()
+                .status(status)
+                .createdBy(createdBy)
+                .loanType(loanType)
+                .rating(rating)
+                .minAmount(minAmount)
+                .maxAmount(maxAmount)
+                .createdFrom(createdFrom)
+                .createdTo(createdTo)
+                .build();
+    }
 
     @GetMapping("/{id}")
     public ResponseEntity<LoanResponseDto> getLoan(@PathVariable String id) {
         return ResponseEntity.ok(loanService.getLoan(id));
     }
 
+    @GetMapping("/{id}/actions")
+    public ResponseEntity<PagedResponse<LoanActionDto>> getLoanActions(
+            @PathVariable String id,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(loanService.getLoanActions(id, page, size));
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<LoanResponseDto> updateLoan(
             @PathVariable String id,
@@ -76,4 +213,13 @@ public class LoanController {
         return ResponseEntity.ok(
                 loanService.changeStatus(id, request, principal.getId(), role));
     }
+
+    // A streamed body is written after the handler returns, under the async request timeout
+    // (30 s by default); long-running streams raise it for their own request only.
+    private static void asyncTimeout(HttpServletRequest request, long timeoutMs) {
+        AsyncWebRequest async = WebAsyncUtils.getAsyncManager(request).getAsyncWebRequest();
+        if (async != null) {
+            async.setTimeout(timeoutMs);
+        }
+    }
 }
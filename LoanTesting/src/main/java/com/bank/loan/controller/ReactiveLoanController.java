@@ -0,0 +1,67 @@
+package com.bank.loan.controller;
+
+import com.bank.loan.dto.LoanResponseDto;
+import com.bank.loan.model.LoanStatus;
+import com.bank.loan.repository.LoanSearchCriteria;
+import com.bank.loan.security.CustomUserDetails;
+import com.bank.loan.service.ReactiveLoanService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+
+/**
+ * Opt-in non-blocking read path (app.reactive.enabled=true). Spring MVC subscribes to
+ * the returned publishers and releases the request thread while Mongo works; list
+ * results are streamed as NDJSON, one loan per line, at the pace the client reads.
+ */
+@RestController
+@RequestMapping("/api/reactive/loans")
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.reactive.enabled", havingValue = "true")
+public class ReactiveLoanController {
+
+    private final ReactiveLoanService reactiveLoanService;
+
+    @GetMapping(produces = "application/x-ndjson")
+    public Flux<LoanResponseDto> listLoans(
+            @RequestParam(defaultValue = "0") int limit,
+            @RequestParam(required = false) LoanStatus status,
+            @RequestParam(required = false) Boolean my,
+            @RequestParam(required = false) String loanType,
+            @RequestParam(required = false) String rating,
+            @RequestParam(required = false) Long minAmount,
+            @RequestParam(required = false) Long maxAmount,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant createdFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant createdTo,
+            Authentication authentication
+    ) {
+        String createdBy = null;
+        if (Boolean.TRUE.equals(my) && authentication != null) {
+            createdBy = ((CustomUserDetails) authentication.getPrincipal()).getId();
+        }
+
+        LoanSearchCriteria filter = LoanSearchCriteria.builder()
+                .status(status)
+                .createdBy(createdBy)
+                .loanType(loanType)
+                .rating(rating)
+                .minAmount(minAmount)
+                .maxAmount(maxAmount)
+                .createdFrom(createdFrom)
+                .createdTo(createdTo)
+                .build();
+
+        return reactiveLoanService.search(filter, limit);
+    }
+
+    @GetMapping("/{id}")
+    public Mono<LoanResponseDto> getLoan(@PathVariable String id) {
+        return reactiveLoanService.getLoan(id);
+    }
+}
@@ -11,4 +11,7 @@ public class AuthResponse {
 
     private String tokenType;
     private String role;
+
+    // Exchanged at /api/auth/refresh for a new access token without re-entering the password
+    private String refreshToken;
 }
@@ -0,0 +1,24 @@
+package com.bank.loan.dto;
+
+import com.bank.loan.model.LoanStatus;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * One line of the bulk import response: the created loan, or why the item was rejected.
+ * A line without an index reports a failure of the input stream itself.
+ */
+@Data
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BulkLoanResultDto {
+
+    private Integer index;       // position of the item in the input, from 0
+
+    private String id;
+
+    private LoanStatus status;
+
+    private String error;
+}
@@ -0,0 +1,15 @@
+package com.bank.loan.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class LoanQuoteDto {
+
+    private Double proposedInterestRate;   // null when the scenario is invalid
+
+    private String gridVersion;
+
+    private String error;                  // validation message, batch quotes only
+}
@@ -5,7 +5,6 @@ import lombok.Builder;
 import lombok.Data;
 
 import java.time.Instant;
-import java.util.List;
 
 @Data
 @Builder
@@ -39,7 +38,9 @@ public class LoanResponseDto {
 
     private Instant approvedAt;
 
-    private List<LoanActionDto> actions;
+    private long actionCount;
+
+    private LoanActionDto lastAction;
 
     private boolean deleted;
 }
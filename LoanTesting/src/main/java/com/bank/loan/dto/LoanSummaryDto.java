@@ -0,0 +1,33 @@
+package com.bank.loan.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class LoanSummaryDto {
+
+    private Map<String, Totals> byStatus;
+
+    private Map<String, Totals> byLoanType;
+
+    private Totals mine;                   // only with my=true
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Totals {
+
+        private long count;
+
+        private long requestedAmount;
+
+        private long sanctionedAmount;
+    }
+}
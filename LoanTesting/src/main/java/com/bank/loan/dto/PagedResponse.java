@@ -11,6 +11,7 @@ public class PagedResponse<T> {
 
     private List<T> content;
 
+    // -1 when the total was not requested (cursor mode without withTotal)
     private long totalElements;
 
     private int totalPages;
@@ -18,4 +19,7 @@ public class PagedResponse<T> {
     private int page;
 
     private int size;
+
+    // Cursor mode only: pass back as ?cursor= to get the next page; null on the last page.
+    private String nextCursor;
 }
@@ -0,0 +1,11 @@
+package com.bank.loan.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.Data;
+
+@Data
+public class RefreshTokenRequest {
+
+    @NotBlank
+    private String refreshToken;
+}
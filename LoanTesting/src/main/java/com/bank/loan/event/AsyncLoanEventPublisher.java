@@ -0,0 +1,118 @@
+package com.bank.loan.event;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded hand-off between request threads and a single publisher thread.
+ *
+ * {@link #publish} only offers to the queue; when the queue is full the event is
+ * dropped and counted rather than slowing the request down. The publisher thread
+ * delivers events in batches of up to {@code maxBatch}.
+ */
+@Slf4j
+public abstract class AsyncLoanEventPublisher implements LoanEventPublisher {
+
+    private final BlockingQueue<LoanEvent> queue;
+    private final int maxBatch;
+    private final String name;
+
+    private final Counter publishedCounter;
+    private final Counter droppedCounter;
+    private final Counter failedCounter;
+
+    private volatile boolean running;
+    private Thread worker;
+
+    protected AsyncLoanEventPublisher(String name, int capacity, int maxBatch, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.maxBatch = maxBatch;
+
+        this.publishedCounter = Counter.builder("loan.events")
+                .tag("publisher", name).tag("result", "published")
+                .register(meterRegistry);
+        this.droppedCounter = Counter.builder("loan.events")
+                .tag("publisher", name).tag("result", "dropped")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("loan.events")
+                .tag("publisher", name).tag("result", "failed")
+                .register(meterRegistry);
+        Gauge.builder("loan.events.queue.size", queue, BlockingQueue::size)
+                .tag("publisher", name)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Delivers one batch, in publish order. Called only from the publisher thread.
+     */
+    protected abstract void deliver(List<LoanEvent> batch) throws Exception;
+
+    /**
+     * For implementations whose delivery completes asynchronously after {@link #deliver} returns.
+     */
+    protected void deliveryFailed(LoanEvent event, Throwable error) {
+        failedCounter.increment();
+        log.error("Failed to deliver {} for loan {}", event.getType(), event.getLoanId(), error);
+    }
+
+    @Override
+    public void publish(LoanEvent event) {
+        if (!queue.offer(event)) {
+            droppedCounter.increment();
+            log.warn("Event queue full, dropped {} for loan {}", event.getType(), event.getLoanId());
+        }
+    }
+
+    @PostConstruct
+    public synchronized void start() {
+        if (running) return;
+        running = true;
+        worker = new Thread(this::run, name + "-event-publisher");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    // Stops taking new batches after draining what is queued (bounded by the join timeout).
+    @PreDestroy
+    public synchronized void stop() throws InterruptedException {
+        if (!running) return;
+        running = false;
+        worker.join(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    private void run() {
+        List<LoanEvent> batch = new ArrayList<>(maxBatch);
+        while (running || !queue.isEmpty()) {
+            try {
+                LoanEvent first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) continue;
+
+                batch.add(first);
+                queue.drainTo(batch, maxBatch - 1);
+
+                deliver(batch);
+                publishedCounter.increment(batch.size());
+
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                failedCounter.increment(batch.size());
+                log.error("Failed to deliver {} loan events", batch.size(), e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.bank.loan.event;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Default transport when Kafka is off (local runs, tests): same asynchronous hand-off
+ * as the Kafka producer, delivering to in-process subscribers and keeping the most
+ * recent events for inspection.
+ */
+@Component
+@ConditionalOnProperty(name = "app.events.kafka.enabled", havingValue = "false", matchIfMissing = true)
+public class InMemoryLoanEventPublisher extends AsyncLoanEventPublisher implements LoanEventSender {
+
+    private static final int RETAINED = 1_000;
+
+    private final List<Consumer<List<LoanEvent>>> subscribers = new CopyOnWriteArrayList<>();
+    private final Deque<LoanEvent> recent = new ArrayDeque<>();
+
+    public InMemoryLoanEventPublisher(
+            @Value("${app.events.queue-capacity:10000}") int capacity,
+            @Value("${app.events.max-batch:500}") int maxBatch,
+            MeterRegistry meterRegistry) {
+        super("in-memory", capacity, maxBatch, meterRegistry);
+    }
+
+    public void subscribe(Consumer<List<LoanEvent>> subscriber) {
+        subscribers.add(subscriber);
+    }
+
+    public synchronized List<LoanEvent> recent() {
+        return new ArrayList<>(recent);
+    }
+
+    // Outbox relay path: delivered synchronously on the relay thread.
+    @Override
+    public CompletableFuture<?> send(LoanEvent event) {
+        try {
+            deliver(List.of(event));
+            return CompletableFuture.completedFuture(null);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    @Override
+    protected void deliver(List<LoanEvent> batch) {
+        synchronized (this) {
+            for (LoanEvent event : batch) {
+                if (recent.size() == RETAINED) recent.removeFirst();
+                recent.addLast(event);
+            }
+        }
+        subscribers.forEach(s -> s.accept(batch));
+    }
+}
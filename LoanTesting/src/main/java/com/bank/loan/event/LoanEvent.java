@@ -0,0 +1,48 @@
+package com.bank.loan.event;
+
+import lombok.Builder;
+import lombok.Value;
+import lombok.extern.jackson.Jacksonized;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * One state change of a loan. {@code before} is null for CREATED; both snapshots
+ * are present otherwise, so consumers can apply the change as a delta.
+ */
+@Value
+@Builder
+@Jacksonized
+public class LoanEvent {
+
+    String eventId;
+
+    LoanEventType type;
+
+    String loanId;
+
+    String by;
+
+    Instant occurredAt;
+
+    LoanSnapshot before;
+
+    LoanSnapshot after;
+
+    public static LoanEvent of(LoanEventType type,
+                               String loanId,
+                               String by,
+                               LoanSnapshot before,
+                               LoanSnapshot after) {
+        return LoanEvent.builder()
+                .eventId(UUID.randomUUID().toString())
+                .type(type)
+                .loanId(loanId)
+                .by(by)
+                .occurredAt(Instant.now())
+                .before(before)
+                .after(after)
+                .build();
+    }
+}
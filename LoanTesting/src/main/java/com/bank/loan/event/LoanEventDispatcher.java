@@ -0,0 +1,226 @@
+package com.bank.loan.event;
+
+import com.bank.loan.cache.TtlCache;
+import com.bank.loan.model.ProcessedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Runs every {@link LoanEventHandler} over a batch of events.
+ *
+ * <ul>
+ *   <li>Events already processed (recent in-memory set, then processed_events) are skipped.</li>
+ *   <li>Each event is claimed in processed_events before its handlers run, so a batch
+ *       redelivered after a crash never applies an effect twice (handlers such as the
+ *       summary $inc are not idempotent). Claims of events that failed, or were not
+ *       reached, are removed again so redelivery retries them.</li>
+ *   <li>Events are grouped by loan id; groups run in parallel, events within a group in order.</li>
+ * </ul>
+ *
+ * A node that dies while handlers run leaves those events claimed but possibly not
+ * applied: at most once, rather than twice. LoanSummaryService#rebuild repairs the drift.
+ */
+@Slf4j
+@Component
+public class LoanEventDispatcher {
+
+    private static final Duration RECENT_TTL = Duration.ofHours(1);
+    private static final int DUPLICATE_KEY = 11000;
+
+    private final List<LoanEventHandler> handlers;
+    private final MongoTemplate mongoTemplate;
+    private final ObjectProvider<InMemoryLoanEventPublisher> inMemoryPublisher;
+    private final ExecutorService workers;
+    private final TtlCache<String, Boolean> recent;
+
+    private final Counter processedCounter;
+    private final Counter duplicateCounter;
+    private final Counter failedCounter;
+
+    public LoanEventDispatcher(
+            List<LoanEventHandler> handlers,
+            MongoTemplate mongoTemplate,
+            ObjectProvider<InMemoryLoanEventPublisher> inMemoryPublisher,
+            @Value("${app.events.consumer.workers:4}") int workers,
+            @Value("${app.events.consumer.dedup-cache-size:100000}") int dedupCacheSize,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+            MeterRegistry meterRegistry) {
+        this.handlers = handlers;
+        this.mongoTemplate = mongoTemplate;
+        this.inMemoryPublisher = inMemoryPublisher;
+        this.workers = new ThreadPoolExecutor(
+                workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(workers * 4),
+                threadFactory("loan-event-worker-", virtualThreads),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        this.recent = new TtlCache<String, Boolean>(dedupCacheSize)
+                .bindTo(meterRegistry, "processed-events");
+
+        this.processedCounter = Counter.builder("loan.events.consumed")
+                .tag("result", "processed")
+                .register(meterRegistry);
+        this.duplicateCounter = Counter.builder("loan.events.consumed")
+                .tag("result", "duplicate")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("loan.events.consumed")
+                .tag("result", "failed")
+                .register(meterRegistry);
+    }
+
+    // Handlers mostly wait on Mongo, so in virtual-thread mode the workers are virtual;
+    // the pool size still caps how many groups run at once.
+    private static ThreadFactory threadFactory(String prefix, boolean virtualThreads) {
+        return virtualThreads
+                ? new VirtualThreadTaskExecutor(prefix).getVirtualThreadFactory()
+                : new CustomizableThreadFactory(prefix);
+    }
+
+    // Without Kafka the in-process transport feeds the dispatcher directly.
+    @PostConstruct
+    void subscribeInMemory() {
+        inMemoryPublisher.ifAvailable(publisher -> publisher.subscribe(this::dispatch));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        workers.shutdownNow();
+    }
+
+    public void dispatch(List<LoanEvent> batch) {
+
+        List<LoanEvent> fresh = claim(withoutDuplicates(batch));
+        duplicateCounter.increment(batch.size() - fresh.size());
+        if (fresh.isEmpty()) {
+            return;
+        }
+
+        Map<String, List<LoanEvent>> byLoan = new LinkedHashMap<>();
+        for (LoanEvent event : fresh) {
+            byLoan.computeIfAbsent(event.getLoanId(), k -> new ArrayList<>()).add(event);
+        }
+
+        Set<String> done = ConcurrentHashMap.newKeySet(fresh.size());
+        List<Future<?>> futures = new ArrayList<>(byLoan.size());
+        for (List<LoanEvent> group : byLoan.values()) {
+            futures.add(workers.submit(() -> {
+                for (LoanEvent event : group) {
+                    handlers.forEach(h -> h.handle(event));
+                    done.add(event.getEventId());
+                    recent.put(event.getEventId(), Boolean.TRUE, RECENT_TTL);
+                }
+            }));
+        }
+
+        RuntimeException failure = null;
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failure = new IllegalStateException("Event dispatch interrupted", e);
+            } catch (ExecutionException e) {
+                failure = e.getCause() instanceof RuntimeException re
+                        ? re
+                        : new IllegalStateException("Event handler failed", e.getCause());
+            }
+        }
+
+        processedCounter.increment(done.size());
+
+        if (failure != null) {
+            List<String> unfinished = fresh.stream()
+                    .map(LoanEvent::getEventId)
+                    .filter(id -> !done.contains(id))
+                    .toList();
+            failedCounter.increment(unfinished.size());
+            release(unfinished);
+            throw failure;
+        }
+    }
+
+    private List<LoanEvent> withoutDuplicates(List<LoanEvent> batch) {
+
+        Map<String, LoanEvent> unseen = new LinkedHashMap<>();
+        for (LoanEvent event : batch) {
+            if (recent.get(event.getEventId()) == null) {
+                unseen.putIfAbsent(event.getEventId(), event);
+            }
+        }
+        if (unseen.isEmpty()) {
+            return List.of();
+        }
+
+        Query seen = new Query(Criteria.where("eventId").in(unseen.keySet()));
+        seen.fields().include("eventId");
+        for (ProcessedEvent processed : mongoTemplate.find(seen, ProcessedEvent.class)) {
+            unseen.remove(processed.getEventId());
+            recent.put(processed.getEventId(), Boolean.TRUE, RECENT_TTL);
+        }
+        return new ArrayList<>(unseen.values());
+    }
+
+    // Inserts a processed_events marker per event; events another consumer has claimed are dropped.
+    private List<LoanEvent> claim(List<LoanEvent> events) {
+
+        if (events.isEmpty()) {
+            return events;
+        }
+
+        Instant now = Instant.now();
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ProcessedEvent.class);
+        events.forEach(event -> bulk.insert(new ProcessedEvent(event.getEventId(), now)));
+        try {
+            bulk.execute();
+            return events;
+        } catch (BulkOperationException e) {
+            if (e.getErrors().stream().anyMatch(err -> err.getCode() != DUPLICATE_KEY)) {
+                throw e;
+            }
+            Set<Integer> taken = new HashSet<>();
+            e.getErrors().forEach(err -> taken.add(err.getIndex()));
+            log.debug("{} events already claimed by another consumer", taken.size());
+
+            List<LoanEvent> claimed = new ArrayList<>(events.size() - taken.size());
+            for (int i = 0; i < events.size(); i++) {
+                if (taken.contains(i)) {
+                    recent.put(events.get(i).getEventId(), Boolean.TRUE, RECENT_TTL);
+                } else {
+                    claimed.add(events.get(i));
+                }
+            }
+            return claimed;
+        }
+    }
+
+    private void release(List<String> eventIds) {
+
+        if (eventIds.isEmpty()) {
+            return;
+        }
+
+        try {
+            mongoTemplate.remove(new Query(Criteria.where("eventId").in(eventIds)), ProcessedEvent.class);
+        } catch (RuntimeException e) {
+            log.error("Could not release {} claimed events, they will not be redelivered: {}",
+                    eventIds.size(), eventIds, e);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.bank.loan.event;
+
+/**
+ * Consumer-side processing of one loan event (read models, notifications, ...).
+ *
+ * Called by {@link LoanEventDispatcher} at most once per event id under normal
+ * operation, and in order for events of the same loan. Handlers for different
+ * loans run concurrently.
+ */
+public interface LoanEventHandler {
+
+    void handle(LoanEvent event);
+}
@@ -0,0 +1,15 @@
+package com.bank.loan.event;
+
+import java.util.List;
+
+/**
+ * Hands loan events to the event pipeline. Implementations must not block the caller.
+ */
+public interface LoanEventPublisher {
+
+    void publish(LoanEvent event);
+
+    default void publishAll(List<LoanEvent> events) {
+        events.forEach(this::publish);
+    }
+}
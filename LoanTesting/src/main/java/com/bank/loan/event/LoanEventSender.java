@@ -0,0 +1,12 @@
+package com.bank.loan.event;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Delivers one event and reports when the transport has accepted it.
+ * Used by the outbox relay, which only marks an event published once the future completes.
+ */
+public interface LoanEventSender {
+
+    CompletableFuture<?> send(LoanEvent event);
+}
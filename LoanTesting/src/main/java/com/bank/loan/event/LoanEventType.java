@@ -0,0 +1,8 @@
+package com.bank.loan.event;
+
+public enum LoanEventType {
+    CREATED,
+    UPDATED,
+    STATUS_CHANGED,
+    DELETED
+}
@@ -0,0 +1,215 @@
+package com.bank.loan.event;
+
+import com.bank.loan.model.OutboxEvent;
+import com.bank.loan.model.OutboxRelayLease;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drains loan_outbox in insertion order and hands each batch to the event transport.
+ *
+ * An event is marked published only after the transport acknowledges it; failures
+ * stay pending and are retried on the next poll, until max-attempts is reached and the
+ * event is parked for an operator to inspect. Delivery is at-least-once, so consumers
+ * de-duplicate on eventId.
+ *
+ * Only the node holding the relay lease (outbox_leases) drains, which keeps events in
+ * order and stops every node from sending the same batch. The lease is renewed before
+ * each batch; if its holder dies, another node takes over once it expires.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.events.outbox.enabled", havingValue = "true", matchIfMissing = true)
+public class LoanOutboxRelay {
+
+    static final String LEASE_ID = "loan_outbox";
+
+    private final MongoTemplate mongoTemplate;
+    private final LoanEventSender sender;
+    private final int batchSize;
+    private final Duration sendTimeout;
+    private final Duration leaseDuration;
+    private final int maxAttempts;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final Counter relayedCounter;
+    private final Counter failedCounter;
+    private final Counter retriedCounter;
+    private final Counter parkedCounter;
+    private final AtomicLong lagMs = new AtomicLong();
+
+    public LoanOutboxRelay(
+            MongoTemplate mongoTemplate,
+            LoanEventSender sender,
+            @Value("${app.events.outbox.batch-size:500}") int batchSize,
+            @Value("${app.events.outbox.send-timeout-ms:10000}") long sendTimeoutMs,
+            @Value("${app.events.outbox.lease-ms:30000}") long leaseMs,
+            @Value("${app.events.outbox.max-attempts:10}") int maxAttempts,
+            MeterRegistry meterRegistry) {
+
+        if (leaseMs <= sendTimeoutMs)
+            throw new IllegalArgumentException("Outbox lease must outlast the send timeout");
+        if (maxAttempts <= 0)
+            throw new IllegalArgumentException("Outbox max attempts must be positive");
+
+        this.mongoTemplate = mongoTemplate;
+        this.sender = sender;
+        this.batchSize = batchSize;
+        this.sendTimeout = Duration.ofMillis(sendTimeoutMs);
+        this.leaseDuration = Duration.ofMillis(leaseMs);
+        this.maxAttempts = maxAttempts;
+
+        this.relayedCounter = Counter.builder("loan.outbox.events")
+                .tag("result", "relayed")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("loan.outbox.events")
+                .tag("result", "failed")
+                .register(meterRegistry);
+        this.retriedCounter = Counter.builder("loan.outbox.retries")
+                .register(meterRegistry);
+        this.parkedCounter = Counter.builder("loan.outbox.events")
+                .tag("result", "parked")
+                .register(meterRegistry);
+        Gauge.builder("loan.outbox.lag", lagMs, AtomicLong::get)
+                .baseUnit("milliseconds")
+                .description("Age of the oldest event still waiting to be relayed")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.events.outbox.poll-ms:200}")
+    public void drain() {
+        int relayed;
+        do {
+            if (!holdLease()) return;
+            relayed = relayBatch();
+        } while (relayed == batchSize);
+    }
+
+    @PreDestroy
+    void releaseLease() {
+        mongoTemplate.updateFirst(
+                new Query(Criteria.where("id").is(LEASE_ID).and("owner").is(nodeId)),
+                new Update().set("lockedUntil", Instant.EPOCH),
+                OutboxRelayLease.class);
+    }
+
+    /**
+     * Takes or renews the relay lease; false while another node holds it.
+     */
+    boolean holdLease() {
+        Instant now = Instant.now();
+        Query lease = new Query(Criteria.where("id").is(LEASE_ID).orOperator(
+                Criteria.where("owner").is(nodeId),
+                Criteria.where("lockedUntil").lt(now)));
+        try {
+            return mongoTemplate.findAndModify(
+                    lease,
+                    new Update().set("owner", nodeId).set("lockedUntil", now.plus(leaseDuration)),
+                    FindAndModifyOptions.options().upsert(true).returnNew(true),
+                    OutboxRelayLease.class) != null;
+        } catch (DuplicateKeyException e) {
+            return false; // held by another node: the upsert collided with its lease
+        }
+    }
+
+    /**
+     * Relays the oldest pending batch; returns how many events were delivered.
+     */
+    int relayBatch() {
+
+        Query pending = new Query(Criteria.where("publishedAt").is(null).and("parkedAt").is(null))
+                .with(Sort.by(Sort.Direction.ASC, "id"))
+                .limit(batchSize)
+                .withHint("pending_unparked");
+
+        List<OutboxEvent> batch = mongoTemplate.find(pending, OutboxEvent.class);
+
+        if (batch.isEmpty()) {
+            lagMs.set(0);
+            return 0;
+        }
+
+        Instant now = Instant.now();
+        lagMs.set(Duration.between(batch.get(0).getCreatedAt(), now).toMillis());
+
+        List<CompletableFuture<?>> futures = new ArrayList<>(batch.size());
+        for (OutboxEvent entry : batch) {
+            if (entry.getAttempts() > 0) retriedCounter.increment();
+            futures.add(sender.send(entry.getEvent()));
+        }
+
+        long deadline = System.nanoTime() + sendTimeout.toNanos();
+        List<String> delivered = new ArrayList<>(batch.size());
+        List<String> failed = new ArrayList<>();
+        List<String> parked = new ArrayList<>();
+        String lastError = null;
+
+        for (int i = 0; i < batch.size(); i++) {
+            try {
+                futures.get(i).get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                delivered.add(batch.get(i).getId());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (ExecutionException | TimeoutException e) {
+                (batch.get(i).getAttempts() + 1 >= maxAttempts ? parked : failed).add(batch.get(i).getId());
+                lastError = String.valueOf(e instanceof ExecutionException ? e.getCause() : e);
+            }
+        }
+
+        if (!delivered.isEmpty()) {
+            mongoTemplate.updateMulti(
+                    new Query(Criteria.where("id").in(delivered)),
+                    new Update().set("publishedAt", Instant.now()),
+                    OutboxEvent.class);
+            relayedCounter.increment(delivered.size());
+        }
+
+        if (!failed.isEmpty()) {
+            mongoTemplate.updateMulti(
+                    new Query(Criteria.where("id").in(failed)),
+                    new Update().inc("attempts", 1).set("lastError", lastError),
+                    OutboxEvent.class);
+            failedCounter.increment(failed.size());
+            log.warn("Outbox relay: {} of {} events not delivered, will retry: {}",
+                    failed.size(), batch.size(), lastError);
+        }
+
+        if (!parked.isEmpty()) {
+            mongoTemplate.updateMulti(
+                    new Query(Criteria.where("id").in(parked)),
+                    new Update().inc("attempts", 1).set("lastError", lastError).set("parkedAt", Instant.now()),
+                    OutboxEvent.class);
+            parkedCounter.increment(parked.size());
+            log.error("Outbox relay: parked {} events after {} attempts: {} ({})",
+                    parked.size(), maxAttempts, parked, lastError);
+        }
+
+        return delivered.size();
+    }
+}
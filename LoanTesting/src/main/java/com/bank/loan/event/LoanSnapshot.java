@@ -0,0 +1,42 @@
+package com.bank.loan.event;
+
+import com.bank.loan.model.Loan;
+import com.bank.loan.model.LoanStatus;
+import lombok.Builder;
+import lombok.Value;
+import lombok.extern.jackson.Jacksonized;
+
+/**
+ * The handful of loan fields downstream consumers aggregate on; not the whole document.
+ */
+@Value
+@Builder(toBuilder = true)
+@Jacksonized
+public class LoanSnapshot {
+
+    LoanStatus status;
+
+    String loanType;
+
+    String rating;
+
+    String createdBy;
+
+    Long requestedAmount;
+
+    Long sanctionedAmount;
+
+    boolean deleted;
+
+    public static LoanSnapshot of(Loan loan) {
+        return LoanSnapshot.builder()
+                .status(loan.getStatus())
+                .loanType(loan.getLoanType())
+                .rating(loan.getFinancials() != null ? loan.getFinancials().getRating() : null)
+                .createdBy(loan.getCreatedBy())
+                .requestedAmount(loan.getRequestedAmount())
+                .sanctionedAmount(loan.getSanctionedAmount())
+                .deleted(loan.isDeleted())
+                .build();
+    }
+}
@@ -0,0 +1,56 @@
+package com.bank.loan.event;
+
+import com.bank.loan.model.OutboxEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Write side of the outbox: appends events to loan_outbox instead of sending them.
+ *
+ * Inside a Mongo transaction the insert commits or rolls back with the loan change it
+ * describes, so the application refuses to start with the outbox on and
+ * app.mongo.transactions.enabled=false. {@link LoanOutboxRelay} delivers them.
+ */
+@Primary
+@Component
+@ConditionalOnProperty(name = "app.events.outbox.enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxLoanEventPublisher implements LoanEventPublisher {
+
+    private final MongoTemplate mongoTemplate;
+
+    public OutboxLoanEventPublisher(
+            MongoTemplate mongoTemplate,
+            @Value("${app.mongo.transactions.enabled:false}") boolean transactionsEnabled) {
+
+        if (!transactionsEnabled)
+            throw new IllegalStateException("The event outbox needs Mongo transactions: set "
+                    + "app.mongo.transactions.enabled=true (replica set required) or app.events.outbox.enabled=false");
+
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public void publish(LoanEvent event) {
+        mongoTemplate.insert(toOutbox(event));
+    }
+
+    @Override
+    public void publishAll(List<LoanEvent> events) {
+        if (!events.isEmpty()) {
+            mongoTemplate.insert(events.stream().map(OutboxLoanEventPublisher::toOutbox).toList(), OutboxEvent.class);
+        }
+    }
+
+    private static OutboxEvent toOutbox(LoanEvent event) {
+        return OutboxEvent.builder()
+                .event(event)
+                .createdAt(Instant.now())
+                .build();
+    }
+}
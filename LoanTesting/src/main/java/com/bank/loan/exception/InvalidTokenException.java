@@ -0,0 +1,11 @@
+package com.bank.loan.exception;
+
+/**
+ * A presented token is malformed, expired or revoked; mapped to 401.
+ */
+public class InvalidTokenException extends RuntimeException {
+
+    public InvalidTokenException(String message) {
+        super(message);
+    }
+}
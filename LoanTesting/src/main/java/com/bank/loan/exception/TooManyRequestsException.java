@@ -0,0 +1,17 @@
+package com.bank.loan.exception;
+
+import lombok.Getter;
+
+/**
+ * Request refused by rate limiting; mapped to 429 with a Retry-After header.
+ */
+@Getter
+public class TooManyRequestsException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public TooManyRequestsException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
@@ -1,16 +1,81 @@
 package com.bank.loan.kafka;
 
+import com.bank.loan.event.LoanEvent;
+import com.bank.loan.event.LoanEventDispatcher;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Batch listener for loan-events. Records arrive already deserialized to {@link LoanEvent};
+ * the dispatcher de-duplicates and fans out by loan id. A handler failure rethrows, so the
+ * container's error handler redelivers the batch and only unfinished events are re-run.
+ *
+ * Listener concurrency (one consumer per partition, up to app.events.consumer.concurrency)
+ * parallelizes across partitions; the dispatcher parallelizes within a batch.
+ */
+@Slf4j
 @Service
+@ConditionalOnProperty(name = "app.events.kafka.enabled", havingValue = "true")
 public class LoanEventConsumer {
-    /*
 
-    @KafkaListener(topics = "loan-events", groupId = "loan-group")
-    public void consume(String message) {
-        System.out.println("📩 Kafka Event Received: " + message);
+    private final LoanEventDispatcher dispatcher;
+    private final MeterRegistry meterRegistry;
+    private final Map<TopicPartition, AtomicLong> lag = new ConcurrentHashMap<>();
+
+    public LoanEventConsumer(LoanEventDispatcher dispatcher, MeterRegistry meterRegistry) {
+        this.dispatcher = dispatcher;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @KafkaListener(
+            topics = "${app.events.topic:loan-events}",
+            groupId = "${spring.kafka.consumer.group-id:loan-group}",
+            concurrency = "${app.events.consumer.concurrency:3}",
+            batch = "true")
+    public void consume(List<ConsumerRecord<String, LoanEvent>> records, Consumer<?, ?> consumer) {
+
+        List<LoanEvent> events = new ArrayList<>(records.size());
+        for (ConsumerRecord<String, LoanEvent> record : records) {
+            // ErrorHandlingDeserializer hands undeserializable records over as null
+            if (record.value() == null) {
+                log.warn("Skipping undeserializable record {}-{}@{}",
+                        record.topic(), record.partition(), record.offset());
+                continue;
+            }
+            events.add(record.value());
+        }
+
+        dispatcher.dispatch(events);
+        recordLag(consumer);
+    }
+
+    // Lag as last seen by the consumer's own fetch position; no broker round trip.
+    private void recordLag(Consumer<?, ?> consumer) {
+        for (TopicPartition partition : consumer.assignment()) {
+            consumer.currentLag(partition).ifPresent(value ->
+                    lag.computeIfAbsent(partition, this::registerLagGauge).set(value));
+        }
+    }
+
+    private AtomicLong registerLagGauge(TopicPartition partition) {
+        AtomicLong value = new AtomicLong();
+        Gauge.builder("loan.events.consumer.lag", value, AtomicLong::get)
+                .tag("topic", partition.topic())
+                .tag("partition", String.valueOf(partition.partition()))
+                .register(meterRegistry);
+        return value;
     }
-    *
-     */
 }
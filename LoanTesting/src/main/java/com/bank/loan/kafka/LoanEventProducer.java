@@ -1,21 +1,55 @@
 package com.bank.loan.kafka;
 
+import com.bank.loan.event.AsyncLoanEventPublisher;
+import com.bank.loan.event.LoanEvent;
+import com.bank.loan.event.LoanEventSender;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Publishes loan events to Kafka, keyed by loan id so each loan's events stay ordered.
+ *
+ * Request threads only enqueue; this class's publisher thread calls send(), and the
+ * Kafka producer batches records further (linger.ms / batch.size / compression in
+ * application.properties). A slow or unreachable broker fills the queue, not requests.
+ */
 @Service
-public class LoanEventProducer {
-    /*
+@ConditionalOnProperty(name = "app.events.kafka.enabled", havingValue = "true")
+public class LoanEventProducer extends AsyncLoanEventPublisher implements LoanEventSender {
 
-    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final KafkaTemplate<String, LoanEvent> kafkaTemplate;
+    private final String topic;
 
-    public LoanEventProducer(KafkaTemplate<String, String> kafkaTemplate) {
+    public LoanEventProducer(
+            KafkaTemplate<String, LoanEvent> kafkaTemplate,
+            @Value("${app.events.topic:loan-events}") String topic,
+            @Value("${app.events.queue-capacity:10000}") int capacity,
+            @Value("${app.events.max-batch:500}") int maxBatch,
+            MeterRegistry meterRegistry) {
+        super("kafka", capacity, maxBatch, meterRegistry);
         this.kafkaTemplate = kafkaTemplate;
+        this.topic = topic;
     }
 
-    public void sendLoanEvent(String message) {
-        kafkaTemplate.send("loan-events", message);
+    // Outbox relay path: completes when the broker has acknowledged the record.
+    @Override
+    public CompletableFuture<?> send(LoanEvent event) {
+        return kafkaTemplate.send(topic, event.getLoanId(), event);
     }
 
-     */
+    @Override
+    protected void deliver(List<LoanEvent> batch) {
+        for (LoanEvent event : batch) {
+            kafkaTemplate.send(topic, event.getLoanId(), event)
+                    .whenComplete((result, error) -> {
+                        if (error != null) deliveryFailed(event, error);
+                    });
+        }
+    }
 }
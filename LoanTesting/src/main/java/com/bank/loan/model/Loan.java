@@ -2,22 +2,46 @@ package com.bank.loan.model;
 
 import lombok.*;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.Instant;
-import java.util.ArrayList;
-import java.util.List;
 
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 @Document(collection = "loans")
+@CompoundIndexes({
+        @CompoundIndex(name = "deleted_createdAt_id",
+                def = "{'deleted': 1, 'createdAt': -1, '_id': -1}"),
+        @CompoundIndex(name = "deleted_status_createdAt_id",
+                def = "{'deleted': 1, 'status': 1, 'createdAt': -1, '_id': -1}"),
+        @CompoundIndex(name = "deleted_status_id",
+                def = "{'deleted': 1, 'status': 1, '_id': 1}"),
+        @CompoundIndex(name = "deleted_createdBy_createdAt_id",
+                def = "{'deleted': 1, 'createdBy': 1, 'createdAt': -1, '_id': -1}"),
+        @CompoundIndex(name = "deleted_loanType_createdAt_id",
+                def = "{'deleted': 1, 'loanType': 1, 'createdAt': -1, '_id': -1}"),
+        @CompoundIndex(name = "deleted_rating_createdAt_id",
+                def = "{'deleted': 1, 'financials.rating': 1, 'createdAt': -1, '_id': -1}"),
+        // covering indexes for the portfolio aggregations
+        @CompoundIndex(name = "deleted_rating_sanctioned",
+                def = "{'deleted': 1, 'financials.rating': 1, 'sanctionedAmount': 1}"),
+        @CompoundIndex(name = "deleted_loanType_rate_amount",
+                def = "{'deleted': 1, 'loanType': 1, 'approvedInterestRate': 1, 'requestedAmount': 1}")
+})
 public class Loan {
 
     @Id
     private String id;
 
+    // Optimistic lock: save() fails with OptimisticLockingFailureException on a stale copy.
+    @Version
+    private Long version;
+
     private String clientName;
 
     private String loanType;
@@ -44,8 +68,10 @@ public class Loan {
 
     private Instant approvedAt;
 
-    @Builder.Default
-    private List<LoanAction> actions = new ArrayList<>();
+    // Full history lives in loan_actions; the document stays a constant size.
+    private long actionCount;
+
+    private LoanAction lastAction;
 
     private Instant createdAt;
 
@@ -59,6 +85,10 @@ public class Loan {
         return id;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
     public String getClientName() {
         return clientName;
     }
@@ -111,8 +141,12 @@ public class Loan {
         return approvedAt;
     }
 
-    public List<LoanAction> getActions() {
-        return actions;
+    public long getActionCount() {
+        return actionCount;
+    }
+
+    public LoanAction getLastAction() {
+        return lastAction;
     }
 
     public Instant getCreatedAt() {
@@ -135,6 +169,10 @@ public class Loan {
         this.id = id;
     }
 
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public void setClientName(String clientName) {
         this.clientName = clientName;
     }
@@ -187,8 +225,12 @@ public class Loan {
         this.approvedAt = approvedAt;
     }
 
-    public void setActions(List<LoanAction> actions) {
-        this.actions = actions;
+    public void setActionCount(long actionCount) {
+        this.actionCount = actionCount;
+    }
+
+    public void setLastAction(LoanAction lastAction) {
+        this.lastAction = lastAction;
     }
 
     public void setCreatedAt(Instant createdAt) {
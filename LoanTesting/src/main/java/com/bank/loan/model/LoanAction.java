@@ -1,15 +1,29 @@
 package com.bank.loan.model;
 
 import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.Instant;
 
+/**
+ * Append-only audit entry. Stored in its own collection; the loan itself only
+ * keeps a counter and the most recent action.
+ */
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
+@Document(collection = "loan_actions")
+@CompoundIndex(name = "loan_timestamp", def = "{'loanId': 1, 'timestamp': -1}")
 public class LoanAction {
 
+    @Id
+    private String id;
+
+    private String loanId;
+
     private String by;           // user id
 
     private String action;       // e.g. CREATED, SUBMITTED, APPROVED
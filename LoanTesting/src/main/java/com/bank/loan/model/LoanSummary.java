@@ -0,0 +1,44 @@
+package com.bank.loan.model;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * Running totals of live (not deleted) loans for one value of one dimension,
+ * e.g. id "status:SUBMITTED". Maintained from loan events with $inc.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "loan_summaries")
+public class LoanSummary {
+
+    public static final String STATUS = "status";
+    public static final String CREATED_BY = "createdBy";
+    public static final String LOAN_TYPE = "loanType";
+
+    @Id
+    private String id;
+
+    @Indexed(name = "dimension")
+    private String dimension;
+
+    private String key;
+
+    private long count;
+
+    private long requestedAmount;
+
+    private long sanctionedAmount;
+
+    private Instant updatedAt;
+
+    public static String id(String dimension, String key) {
+        return dimension + ":" + key;
+    }
+}
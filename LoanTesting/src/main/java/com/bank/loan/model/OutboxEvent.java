@@ -0,0 +1,41 @@
+package com.bank.loan.model;
+
+import com.bank.loan.event.LoanEvent;
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * A loan event waiting to be relayed to the event pipeline. Written alongside the
+ * loan change; publishedAt is set once the relay has delivered it, after which the
+ * TTL index removes it. An event that still fails after the configured number of
+ * attempts is parked: parkedAt is set and the relay no longer picks it up.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "loan_outbox")
+@CompoundIndex(name = "pending_unparked", def = "{'publishedAt': 1, 'parkedAt': 1, '_id': 1}")
+public class OutboxEvent {
+
+    @Id
+    private String id;
+
+    private LoanEvent event;
+
+    private Instant createdAt;
+
+    @Indexed(name = "published_ttl", expireAfter = "7d")
+    private Instant publishedAt;
+
+    private int attempts;
+
+    private String lastError;
+
+    private Instant parkedAt;
+}
@@ -0,0 +1,26 @@
+package com.bank.loan.model;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * Which node may relay loan_outbox. Held until {@code lockedUntil} and renewed
+ * before every batch, so only one node drains the outbox at a time.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "outbox_leases")
+public class OutboxRelayLease {
+
+    @Id
+    private String id;
+
+    private String owner;
+
+    private Instant lockedUntil;
+}
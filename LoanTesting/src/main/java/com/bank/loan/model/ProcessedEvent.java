@@ -0,0 +1,26 @@
+package com.bank.loan.model;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * Claim on a loan event, keyed by event id, inserted before its handlers run so
+ * redelivered events are skipped. Kept for a week, well past any redelivery window.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "processed_events")
+public class ProcessedEvent {
+
+    @Id
+    private String eventId;
+
+    @Indexed(name = "processed_ttl", expireAfter = "7d")
+    private Instant processedAt;
+}
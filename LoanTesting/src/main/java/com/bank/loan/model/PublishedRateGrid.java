@@ -0,0 +1,32 @@
+package com.bank.loan.model;
+
+import com.bank.loan.pricing.RateGridDefinition;
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * A rate grid published through the admin API. The newest one is in force on every node.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "rate_grids")
+public class PublishedRateGrid {
+
+    @Id
+    private String id;
+
+    private String version;
+
+    private RateGridDefinition definition;
+
+    private String publishedBy;
+
+    @Indexed(name = "publishedAt")
+    private Instant publishedAt;
+}
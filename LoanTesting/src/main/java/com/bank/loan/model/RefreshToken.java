@@ -0,0 +1,34 @@
+package com.bank.loan.model;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * An issued refresh token, keyed by the SHA-256 of its jti so the stored form
+ * cannot be replayed. Mongo drops the entry once the token has expired.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "refresh_tokens")
+public class RefreshToken {
+
+    @Id
+    private String id;
+
+    private String userId;
+
+    private Instant issuedAt;
+
+    @Indexed(name = "refresh_ttl", expireAfter = "0s")
+    private Instant expiresAt;
+
+    // Null while the token is usable; other nodes poll for recent revocations.
+    @Indexed(name = "revokedAt", sparse = true)
+    private Instant revokedAt;
+}
@@ -0,0 +1,42 @@
+package com.bank.loan.model;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * Progress of one re-pricing run. Saved after every chunk so an interrupted
+ * run can resume after {@code lastProcessedId}.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "repricing_checkpoints")
+public class RepricingCheckpoint {
+
+    @Id
+    private String id;
+
+    private String gridVersion;
+
+    private RepricingStatus status;
+
+    private String lastProcessedId;   // loans are processed in _id order
+
+    private long scanned;
+
+    private long updated;
+
+    private String error;
+
+    @Indexed(name = "startedAt")
+    private Instant startedAt;
+
+    private Instant updatedAt;
+
+    private Instant finishedAt;
+}
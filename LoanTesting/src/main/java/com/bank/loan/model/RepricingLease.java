@@ -0,0 +1,26 @@
+package com.bank.loan.model;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * Which node may run the re-pricing job. Held until {@code lockedUntil} and renewed
+ * as every chunk is checkpointed, so only one node writes rates and checkpoints at a time.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "repricing_leases")
+public class RepricingLease {
+
+    @Id
+    private String id;
+
+    private String owner;
+
+    private Instant lockedUntil;
+}
@@ -0,0 +1,7 @@
+package com.bank.loan.model;
+
+public enum RepricingStatus {
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
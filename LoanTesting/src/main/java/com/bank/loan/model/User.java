@@ -2,6 +2,7 @@ package com.bank.loan.model;
 
 import lombok.*;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.Instant;
@@ -16,6 +17,7 @@ public class User {
     @Id
     private String id;
 
+    @Indexed(unique = true)
     private String email;
 
     private String password; // BCrypt hashed
@@ -24,7 +26,13 @@ public class User {
 
     private boolean active;
 
+    // Bumped on every status change; tokens carrying an older version are rejected.
+    @Indexed(name = "accountVersion")
+    private long accountVersion;
+
     private Instant createdAt;
 
+    // RevokedAccountRegistry polls for recently changed users
+    @Indexed(name = "updatedAt")
     private Instant updatedAt;
 }
@@ -0,0 +1,58 @@
+package com.bank.loan.pricing;
+
+import com.bank.loan.model.Loan;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * Prices loans from the current {@link RateGrid}. The grid is an immutable snapshot
+ * behind a volatile reference: readers never lock, and {@link #publish} swaps in a
+ * new version atomically (copy-on-write).
+ */
+@Slf4j
+@Component
+public class PricingEngine {
+
+    private volatile RateGrid grid;
+
+    public PricingEngine(
+            ObjectMapper objectMapper,
+            @Value("${app.pricing.grid-location:classpath:pricing/rate-grid.json}") Resource gridLocation) {
+        this.grid = RateGrid.compile(load(objectMapper, gridLocation));
+        log.info("Loaded rate grid {}", grid.getVersion());
+    }
+
+    public double price(Loan loan) {
+        return grid.rate(loan);
+    }
+
+    public double price(String loanType, String rating, long requestedAmount, int tenureMonths) {
+        return grid.rate(loanType, rating, requestedAmount, tenureMonths);
+    }
+
+    public RateGrid currentGrid() {
+        return grid;
+    }
+
+    public RateGrid publish(RateGridDefinition definition) {
+        RateGrid next = RateGrid.compile(definition);
+        grid = next;
+        log.info("Published rate grid {}", next.getVersion());
+        return next;
+    }
+
+    private static RateGridDefinition load(ObjectMapper objectMapper, Resource location) {
+        try (InputStream in = location.getInputStream()) {
+            return objectMapper.readValue(in, RateGridDefinition.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read rate grid from " + location, e);
+        }
+    }
+}
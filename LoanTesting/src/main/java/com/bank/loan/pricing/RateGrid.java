@@ -0,0 +1,174 @@
+package com.bank.loan.pricing;
+
+import com.bank.loan.model.Loan;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Immutable, compiled rate grid. Rates live in one flat array indexed by
+ * [loanType][ratingBand][amountTier][tenureBucket]; lookups only read arrays and
+ * pre-built maps, so {@link #rate} does not allocate.
+ */
+public final class RateGrid {
+
+    static final String ANY_LOAN_TYPE = "*";
+
+    private final String version;
+    private final RateGridDefinition definition;
+
+    private final Map<String, Integer> loanTypeIndex;
+    private final int defaultLoanType;
+
+    private final Map<String, Integer> ratingBandIndex;
+    private final int unratedBand;
+
+    private final long[] amountFloors;
+    private final long[] tenureFloors;
+
+    private final double[] rates;
+    private final int bands;
+    private final int amountTiers;
+    private final int tenureBuckets;
+
+    private RateGrid(String version,
+                     RateGridDefinition definition,
+                     Map<String, Integer> loanTypeIndex,
+                     int defaultLoanType,
+                     Map<String, Integer> ratingBandIndex,
+                     int unratedBand,
+                     long[] amountFloors,
+                     long[] tenureFloors,
+                     double[] rates) {
+        this.version = version;
+        this.definition = definition;
+        this.loanTypeIndex = loanTypeIndex;
+        this.defaultLoanType = defaultLoanType;
+        this.ratingBandIndex = ratingBandIndex;
+        this.unratedBand = unratedBand;
+        this.amountFloors = amountFloors;
+        this.tenureFloors = tenureFloors;
+        this.rates = rates;
+        this.bands = unratedBand + 1;
+        this.amountTiers = amountFloors.length;
+        this.tenureBuckets = tenureFloors.length;
+    }
+
+    public String getVersion() {
+        return version;
+    }
+
+    public RateGridDefinition getDefinition() {
+        return definition;
+    }
+
+    public double rate(Loan loan) {
+        return rate(
+                loan.getLoanType(),
+                loan.getFinancials() != null ? loan.getFinancials().getRating() : null,
+                loan.getRequestedAmount() != null ? loan.getRequestedAmount() : 0L,
+                loan.getTenureMonths() != null ? loan.getTenureMonths() : 0
+        );
+    }
+
+    public double rate(String loanType, String rating, long requestedAmount, int tenureMonths) {
+
+        Integer type = loanType == null ? null : loanTypeIndex.get(loanType);
+        Integer band = rating == null ? null : ratingBandIndex.get(rating);
+
+        int t = type != null ? type : defaultLoanType;
+        int b = band != null ? band : unratedBand;
+        int a = floorIndex(amountFloors, requestedAmount);
+        int n = floorIndex(tenureFloors, tenureMonths);
+
+        return rates[((t * bands + b) * amountTiers + a) * tenureBuckets + n];
+    }
+
+    private static int floorIndex(long[] floors, long value) {
+        for (int i = floors.length - 1; i > 0; i--) {
+            if (value >= floors[i]) return i;
+        }
+        return 0;
+    }
+
+    public static RateGrid compile(RateGridDefinition def) {
+
+        if (def.getVersion() == null || def.getVersion().isBlank())
+            throw new IllegalArgumentException("Rate grid version required");
+
+        List<RateGridDefinition.LoanTypeRow> types = required(def.getLoanTypes(), "loanTypes");
+        List<RateGridDefinition.RatingBand> ratingBands = required(def.getRatingBands(), "ratingBands");
+        long[] amountFloors = floors(def.getAmountTiers(), "amountTiers");
+        long[] tenureFloors = floors(def.getTenureBuckets(), "tenureBuckets");
+
+        Map<String, Integer> loanTypeIndex = new HashMap<>();
+        for (int i = 0; i < types.size(); i++) {
+            if (types.get(i) == null || types.get(i).getLoanType() == null)
+                throw new IllegalArgumentException("Every loanTypes row needs a loanType");
+            if (loanTypeIndex.put(types.get(i).getLoanType(), i) != null)
+                throw new IllegalArgumentException("Duplicate loan type " + types.get(i).getLoanType());
+        }
+        Integer any = loanTypeIndex.get(ANY_LOAN_TYPE);
+        if (any == null)
+            throw new IllegalArgumentException("Rate grid needs a '*' loan type row");
+
+        Map<String, Integer> ratingBandIndex = new HashMap<>();
+        for (int i = 0; i < ratingBands.size(); i++) {
+            if (ratingBands.get(i) == null || ratingBands.get(i).getRatings() == null)
+                throw new IllegalArgumentException("Every ratingBands entry needs a ratings list");
+            for (String rating : ratingBands.get(i).getRatings()) {
+                if (rating == null)
+                    throw new IllegalArgumentException("Ratings must not be null");
+                if (ratingBandIndex.put(rating, i) != null)
+                    throw new IllegalArgumentException("Rating " + rating + " is in more than one band");
+            }
+        }
+
+        int bands = ratingBands.size() + 1; // last band = unrated
+        double[] rates = new double[types.size() * bands * amountFloors.length * tenureFloors.length];
+
+        int i = 0;
+        for (RateGridDefinition.LoanTypeRow type : types) {
+            for (int b = 0; b < bands; b++) {
+                double bandAdj = b < ratingBands.size()
+                        ? ratingBands.get(b).getAdjustment()
+                        : def.getUnratedAdjustment();
+                for (RateGridDefinition.Tier tier : def.getAmountTiers()) {
+                    for (RateGridDefinition.Tier bucket : def.getTenureBuckets()) {
+                        rates[i++] = def.getBaseRate()
+                                + type.getAdjustment()
+                                + bandAdj
+                                + tier.getAdjustment()
+                                + bucket.getAdjustment();
+                    }
+                }
+            }
+        }
+
+        return new RateGrid(def.getVersion(), def,
+                Map.copyOf(loanTypeIndex), any,
+                Map.copyOf(ratingBandIndex), bands - 1,
+                amountFloors, tenureFloors, rates);
+    }
+
+    private static <T> List<T> required(List<T> list, String name) {
+        if (list == null)
+            throw new IllegalArgumentException(name + " required");
+        return list;
+    }
+
+    private static long[] floors(List<RateGridDefinition.Tier> tiers, String name) {
+        if (tiers == null || tiers.isEmpty() || tiers.stream().anyMatch(Objects::isNull) || tiers.get(0).getFrom() != 0)
+            throw new IllegalArgumentException(name + " must start at 0");
+
+        long[] floors = new long[tiers.size()];
+        for (int i = 0; i < floors.length; i++) {
+            floors[i] = tiers.get(i).getFrom();
+            if (i > 0 && floors[i] <= floors[i - 1])
+                throw new IllegalArgumentException(name + " must be strictly ascending");
+        }
+        return floors;
+    }
+}
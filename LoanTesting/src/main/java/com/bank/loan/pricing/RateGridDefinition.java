@@ -0,0 +1,60 @@
+package com.bank.loan.pricing;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Editable (JSON) form of a rate grid. Each dimension contributes an adjustment
+ * to the base rate; {@link RateGrid#compile} turns it into a flat lookup table.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RateGridDefinition {
+
+    private String version;
+
+    private double baseRate;
+
+    // "*" matches loan types that have no row of their own
+    private List<LoanTypeRow> loanTypes = new ArrayList<>();
+
+    private List<RatingBand> ratingBands = new ArrayList<>();
+
+    // applied to ratings that are missing or not in any band
+    private double unratedAdjustment;
+
+    // ascending by "from"; the first tier must start at 0
+    private List<Tier> amountTiers = new ArrayList<>();
+
+    // ascending by "from" (months); the first bucket must start at 0
+    private List<Tier> tenureBuckets = new ArrayList<>();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class LoanTypeRow {
+        private String loanType;
+        private double adjustment;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RatingBand {
+        private List<String> ratings = new ArrayList<>();
+        private double adjustment;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Tier {
+        private long from;
+        private double adjustment;
+    }
+}
@@ -0,0 +1,67 @@
+package com.bank.loan.pricing;
+
+import com.bank.loan.model.PublishedRateGrid;
+import com.bank.loan.repository.PublishedRateGridRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+
+/**
+ * Shares published rate grids between nodes. A publish is stored in rate_grids and
+ * applied on this node at once; other nodes apply the newest stored grid at startup
+ * and on every poll. Until a grid has been published, the configured file applies.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RateGridStore {
+
+    private final PricingEngine pricingEngine;
+    private final PublishedRateGridRepository repository;
+
+    private Instant applied = Instant.EPOCH;
+
+    @PostConstruct
+    void load() {
+        sync();
+    }
+
+    @Scheduled(fixedDelayString = "${app.pricing.grid-sync-ms:15000}")
+    void sync() {
+        repository.findTopByOrderByPublishedAtDesc().ifPresent(latest -> {
+            try {
+                apply(latest);
+            } catch (IllegalArgumentException e) {
+                log.warn("Ignoring stored rate grid {}: {}", latest.getVersion(), e.getMessage());
+            }
+        });
+    }
+
+    public RateGrid publish(RateGridDefinition definition, String userId) {
+
+        // Reject an invalid grid before it is stored and picked up by other nodes.
+        RateGrid.compile(definition);
+
+        PublishedRateGrid published = repository.save(PublishedRateGrid.builder()
+                .version(definition.getVersion())
+                .definition(definition)
+                .publishedBy(userId)
+                .publishedAt(Instant.now())
+                .build());
+
+        return apply(published);
+    }
+
+    // Only ever moves forward, so a slow poll cannot undo a newer publish.
+    private synchronized RateGrid apply(PublishedRateGrid published) {
+        if (!published.getPublishedAt().isAfter(applied)) {
+            return pricingEngine.currentGrid();
+        }
+        applied = published.getPublishedAt();
+        return pricingEngine.publish(published.getDefinition());
+    }
+}
@@ -0,0 +1,11 @@
+package com.bank.loan.repository;
+
+import com.bank.loan.model.LoanAction;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+public interface LoanActionRepository extends MongoRepository<LoanAction, String> {
+
+    Page<LoanAction> findByLoanId(String loanId, Pageable pageable);
+}
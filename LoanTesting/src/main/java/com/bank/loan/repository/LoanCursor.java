@@ -0,0 +1,36 @@
+package com.bank.loan.repository;
+
+import com.bank.loan.model.Loan;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Position in the (createdAt desc, id desc) ordering of loans, used for keyset paging.
+ * Clients only ever see the opaque encoded form.
+ */
+public record LoanCursor(Instant createdAt, String id) {
+
+    public static LoanCursor of(Loan loan) {
+        return new LoanCursor(loan.getCreatedAt(), loan.getId());
+    }
+
+    public String encode() {
+        String raw = createdAt.toEpochMilli() + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static LoanCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int sep = raw.indexOf(':');
+            return new LoanCursor(
+                    Instant.ofEpochMilli(Long.parseLong(raw.substring(0, sep))),
+                    raw.substring(sep + 1));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.bank.loan.repository;
+
+/**
+ * New proposed rate for one loan, written by {@link LoanRepositoryCustom#updateRates}
+ * only if the loan is still at the version it was priced from.
+ */
+public record LoanRateUpdate(String loanId, Long version, double rate) {
+}
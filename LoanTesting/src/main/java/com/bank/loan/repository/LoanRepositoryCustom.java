@@ -0,0 +1,84 @@
+package com.bank.loan.repository;
+
+import com.bank.loan.model.Loan;
+import com.bank.loan.model.LoanAction;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Loan queries that need MongoTemplate rather than derived repository methods.
+ */
+public interface LoanRepositoryCustom {
+
+    /**
+     * Atomically applies {@code update} to the loan with the given id, but only if it
+     * still matches {@code precondition}. Returns the updated loan, or empty when no
+     * document matched (missing, or precondition no longer holds).
+     */
+    Optional<Loan> updateIfMatches(String id, Criteria precondition, Update update);
+
+    /**
+     * Offset page of loans matching all filters in {@code filter}, newest first.
+     * Results of search/searchAfter are projected to the list fields and must not be saved back.
+     */
+    Page<Loan> search(LoanSearchCriteria filter, Pageable pageable);
+
+    /**
+     * Keyset page of loans matching {@code filter}, ordered by createdAt desc, id desc,
+     * starting strictly after {@code after} (or from the top when null).
+     */
+    List<Loan> searchAfter(LoanSearchCriteria filter, LoanCursor after, int limit);
+
+    long count(LoanSearchCriteria filter);
+
+    /**
+     * All loans matching {@code filter}, newest first, read lazily from a server cursor
+     * and projected like search. The stream holds the cursor open and must be closed.
+     */
+    Stream<Loan> stream(LoanSearchCriteria filter);
+
+    /**
+     * Next chunk of open (SUBMITTED / UNDER_REVIEW) loans in ascending id order,
+     * starting strictly after {@code afterId} (or from the first when null).
+     * Only the fields pricing needs are loaded.
+     */
+    List<Loan> findOpenAfter(String afterId, int limit);
+
+    /**
+     * Writes new proposed rates in one unordered bulk write and records {@code action}
+     * as each loan's last action. Loans that are no longer open, or were changed since
+     * they were priced, are skipped. Returns the updates that were applied.
+     */
+    List<LoanRateUpdate> updateRates(List<LoanRateUpdate> updates, LoanAction action);
+
+    /**
+     * Inserts new loans in one unordered bulk write, so one bad document does not stop
+     * the rest. Returns the write error for each failed position in {@code loans}.
+     */
+    Map<Integer, String> insertUnordered(List<Loan> loans);
+
+    /**
+     * Live loans grouped by financials.rating with their summed sanctioned amount
+     * (the exposure), ordered by rating. Unrated loans are grouped under "none".
+     */
+    List<PortfolioGroup> exposureByRating();
+
+    /**
+     * Average approved interest rate per loan type, over loans that have one.
+     */
+    List<PortfolioGroup> averageRateByLoanType();
+
+    /**
+     * Live loans bucketed by requested amount; {@code boundaries} are ascending bucket
+     * lower bounds plus the final upper bound. Amounts outside them fall in "other".
+     * Restricted to one loan type when {@code loanType} is not null.
+     */
+    List<PortfolioGroup> requestedAmountHistogram(long[] boundaries, String loanType);
+}
@@ -0,0 +1,279 @@
+package com.bank.loan.repository;
+
+import com.bank.loan.model.Loan;
+import com.bank.loan.model.LoanAction;
+import com.bank.loan.model.LoanStatus;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOptions;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.bucket;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.group;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.match;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.newAggregation;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.sort;
+
+@RequiredArgsConstructor
+public class LoanRepositoryCustomImpl implements LoanRepositoryCustom {
+
+    static final Sort NEWEST_FIRST = Sort.by(Sort.Direction.DESC, "createdAt", "id");
+
+    // What list endpoints actually render (LoanService.toDto) plus createdAt for the cursor.
+    // Audit fields, deletedAt and any legacy embedded actions stay on the server.
+    static final String[] LIST_FIELDS = {
+            "id", "clientName", "loanType", "requestedAmount", "proposedInterestRate",
+            "tenureMonths", "financials", "status", "createdBy", "approvedBy", "approvedAt",
+            "actionCount", "lastAction", "deleted", "createdAt"
+    };
+
+    private static final int STREAM_BATCH_SIZE = 1_000;
+
+    static final List<LoanStatus> OPEN_STATUSES = List.of(LoanStatus.SUBMITTED, LoanStatus.UNDER_REVIEW);
+
+    static final String[] PRICING_FIELDS = {
+            "id", "loanType", "requestedAmount", "tenureMonths", "financials", "proposedInterestRate",
+            "version"
+    };
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public Optional<Loan> updateIfMatches(String id, Criteria precondition, Update update) {
+
+        Query query = new Query(Criteria.where("id").is(id)).addCriteria(precondition);
+
+        return Optional.ofNullable(
+                mongoTemplate.findAndModify(
+                        query,
+                        update,
+                        FindAndModifyOptions.options().returnNew(true),
+                        Loan.class));
+    }
+
+    @Override
+    public Page<Loan> search(LoanSearchCriteria filter, Pageable pageable) {
+
+        Query query = query(filter.toCriteria(), filter)
+                .with(pageable.getSort().isSorted() ? pageable.getSort() : NEWEST_FIRST)
+                .skip(pageable.getOffset())
+                .limit(pageable.getPageSize());
+        query.fields().include(LIST_FIELDS);
+
+        List<Loan> content = mongoTemplate.find(query, Loan.class);
+
+        return new PageImpl<>(content, pageable, count(filter));
+    }
+
+    @Override
+    public List<Loan> searchAfter(LoanSearchCriteria filter, LoanCursor after, int limit) {
+
+        Criteria criteria = filter.toCriteria();
+
+        if (after != null) {
+            criteria = new Criteria().andOperator(
+                    criteria,
+                    new Criteria().orOperator(
+                            Criteria.where("createdAt").lt(after.createdAt()),
+                            Criteria.where("createdAt").is(after.createdAt()).and("id").lt(after.id())));
+        }
+
+        Query query = query(criteria, filter)
+                .with(NEWEST_FIRST)
+                .limit(limit);
+        query.fields().include(LIST_FIELDS);
+
+        return mongoTemplate.find(query, Loan.class);
+    }
+
+    @Override
+    public Stream<Loan> stream(LoanSearchCriteria filter) {
+
+        Query query = query(filter.toCriteria(), filter)
+                .with(NEWEST_FIRST)
+                .cursorBatchSize(STREAM_BATCH_SIZE);
+        query.fields().include(LIST_FIELDS);
+
+        return mongoTemplate.stream(query, Loan.class);
+    }
+
+    @Override
+    public long count(LoanSearchCriteria filter) {
+        return mongoTemplate.count(query(filter.toCriteria(), filter), Loan.class);
+    }
+
+    @Override
+    public List<Loan> findOpenAfter(String afterId, int limit) {
+
+        Criteria criteria = open();
+        if (afterId != null) {
+            criteria = criteria.and("id").gt(afterId);
+        }
+
+        Query query = new Query(criteria)
+                .with(Sort.by(Sort.Direction.ASC, "id"))
+                .limit(limit)
+                .withHint("deleted_status_id");
+        query.fields().include(PRICING_FIELDS);
+
+        return mongoTemplate.find(query, Loan.class);
+    }
+
+    @Override
+    public List<LoanRateUpdate> updateRates(List<LoanRateUpdate> updates, LoanAction action) {
+
+        if (updates.isEmpty()) {
+            return List.of();
+        }
+
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Loan.class);
+
+        // Matching the version read by findOpenAfter keeps a concurrent edit from being
+        // overwritten with a rate priced from stale fields.
+        for (LoanRateUpdate u : updates) {
+            bulk.updateOne(
+                    new Query(open().and("id").is(u.loanId()).and("version").is(u.version())),
+                    new Update()
+                            .set("proposedInterestRate", u.rate())
+                            .set("updatedAt", action.getTimestamp())
+                            .inc("actionCount", 1)
+                            .set("lastAction", action)
+                            .inc("version", 1));
+        }
+
+        if (bulk.execute().getModifiedCount() == updates.size()) {
+            return updates;
+        }
+
+        // Some loans were skipped; the ones updated here now carry this action.
+        Query query = new Query(Criteria.where("id").in(updates.stream().map(LoanRateUpdate::loanId).toList()));
+        query.fields().include("id", "lastAction");
+
+        Set<String> applied = new HashSet<>();
+        for (Loan loan : mongoTemplate.find(query, Loan.class)) {
+            if (action.equals(loan.getLastAction())) {
+                applied.add(loan.getId());
+            }
+        }
+        return updates.stream().filter(u -> applied.contains(u.loanId())).toList();
+    }
+
+    @Override
+    public Map<Integer, String> insertUnordered(List<Loan> loans) {
+
+        if (loans.isEmpty()) {
+            return Map.of();
+        }
+
+        try {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Loan.class)
+                    .insert(loans)
+                    .execute();
+            return Map.of();
+
+        } catch (BulkOperationException e) {
+            Map<Integer, String> failed = new HashMap<>();
+            e.getErrors().forEach(err -> failed.put(err.getIndex(), err.getMessage()));
+            return failed;
+        }
+    }
+
+    private static Criteria open() {
+        return Criteria.where("deleted").is(false).and("status").in(OPEN_STATUSES);
+    }
+
+    private Query query(Criteria criteria, LoanSearchCriteria filter) {
+        return new Query(criteria).withHint(filter.indexHint());
+    }
+
+    // Portfolio aggregations. Each pipeline only reads fields of its hinted index, so
+    // Mongo runs it as a covered index scan without fetching loan documents.
+
+    @Override
+    public List<PortfolioGroup> exposureByRating() {
+
+        Aggregation aggregation = newAggregation(
+                match(Criteria.where("deleted").is(false)),
+                group("financials.rating")
+                        .count().as("count")
+                        .sum("sanctionedAmount").as("amount"),
+                sort(Sort.Direction.ASC, "_id"))
+                .withOptions(AggregationOptions.builder().hint("deleted_rating_sanctioned").build());
+
+        return groups(aggregation);
+    }
+
+    @Override
+    public List<PortfolioGroup> averageRateByLoanType() {
+
+        Aggregation aggregation = newAggregation(
+                // a range rather than $ne: null, which would need the documents
+                match(Criteria.where("deleted").is(false).and("approvedInterestRate").gte(0.0)),
+                group("loanType")
+                        .count().as("count")
+                        .avg("approvedInterestRate").as("averageRate"),
+                sort(Sort.Direction.ASC, "_id"))
+                .withOptions(AggregationOptions.builder().hint("deleted_loanType_rate_amount").build());
+
+        return groups(aggregation);
+    }
+
+    @Override
+    public List<PortfolioGroup> requestedAmountHistogram(long[] boundaries, String loanType) {
+
+        Criteria criteria = Criteria.where("deleted").is(false);
+        if (loanType != null) {
+            criteria = criteria.and("loanType").is(loanType);
+        }
+
+        Object[] bounds = new Object[boundaries.length];
+        for (int i = 0; i < boundaries.length; i++) {
+            bounds[i] = boundaries[i];
+        }
+
+        Aggregation aggregation = newAggregation(
+                match(criteria),
+                bucket("requestedAmount")
+                        .withBoundaries(bounds)
+                        .withDefaultBucket("other")
+                        .andOutputCount().as("count")
+                        .andOutput("requestedAmount").sum().as("amount"))
+                .withOptions(AggregationOptions.builder().hint("deleted_loanType_rate_amount").build());
+
+        return groups(aggregation);
+    }
+
+    private List<PortfolioGroup> groups(Aggregation aggregation) {
+
+        List<PortfolioGroup> groups = new ArrayList<>();
+        for (Document row : mongoTemplate.aggregate(aggregation, Loan.class, Document.class)) {
+            Object key = row.get("_id");
+            groups.add(new PortfolioGroup(
+                    key != null ? key.toString() : "none",
+                    row.get("count", Number.class).longValue(),
+                    row.get("amount") instanceof Number n ? n.longValue() : null,
+                    row.get("averageRate") instanceof Number n ? n.doubleValue() : null));
+        }
+        return groups;
+    }
+}
@@ -0,0 +1,81 @@
+package com.bank.loan.repository;
+
+import com.bank.loan.model.LoanStatus;
+import lombok.Builder;
+import lombok.Value;
+import org.springframework.data.mongodb.core.query.Criteria;
+
+import java.time.Instant;
+
+/**
+ * Combinable filters for listing non-deleted loans. Every field is optional;
+ * all non-null fields are ANDed.
+ */
+@Value
+@Builder
+public class LoanSearchCriteria {
+
+    LoanStatus status;
+
+    String createdBy;
+
+    String loanType;
+
+    String rating;
+
+    Long minAmount;
+
+    Long maxAmount;
+
+    Instant createdFrom;   // inclusive
+
+    Instant createdTo;     // exclusive
+
+    public static LoanSearchCriteria of(LoanStatus status, String createdBy) {
+        return LoanSearchCriteria.builder().status(status).createdBy(createdBy).build();
+    }
+
+    public Criteria toCriteria() {
+        Criteria criteria = Criteria.where("deleted").is(false);
+
+        if (status != null)
+            criteria.and("status").is(status);
+        if (createdBy != null)
+            criteria.and("createdBy").is(createdBy);
+        if (loanType != null)
+            criteria.and("loanType").is(loanType);
+        if (rating != null)
+            criteria.and("financials.rating").is(rating);
+
+        if (minAmount != null || maxAmount != null) {
+            Criteria amount = criteria.and("requestedAmount");
+            if (minAmount != null) amount.gte(minAmount);
+            if (maxAmount != null) amount.lte(maxAmount);
+        }
+
+        if (createdFrom != null || createdTo != null) {
+            Criteria created = criteria.and("createdAt");
+            if (createdFrom != null) created.gte(createdFrom);
+            if (createdTo != null) created.lt(createdTo);
+        }
+
+        return criteria;
+    }
+
+    /**
+     * Index that drives the query: the most selective equality filter present,
+     * followed by createdAt so the sort and any date range come from the index too.
+     *
+     * The index bounds only that equality and the createdAt range. A second equality
+     * filter and the requestedAmount range are applied by Mongo to every loan fetched
+     * in that range, so e.g. an amount-only search reads all live loans in the date
+     * range. LoanSearchCriteriaTest spells out the combinations.
+     */
+    public String indexHint() {
+        if (createdBy != null) return "deleted_createdBy_createdAt_id";
+        if (loanType != null) return "deleted_loanType_createdAt_id";
+        if (rating != null) return "deleted_rating_createdAt_id";
+        if (status != null) return "deleted_status_createdAt_id";
+        return "deleted_createdAt_id";
+    }
+}
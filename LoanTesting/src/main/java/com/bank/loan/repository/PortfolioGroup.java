@@ -0,0 +1,12 @@
+package com.bank.loan.repository;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * One row of a portfolio aggregation: the group key (rating, loan type, or the
+ * lower bound of an amount bucket), how many loans fell in it, and the summed
+ * amount or average rate where the aggregation computes one.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record PortfolioGroup(String key, long count, Long amount, Double averageRate) {
+}
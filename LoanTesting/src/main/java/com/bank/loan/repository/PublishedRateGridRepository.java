@@ -0,0 +1,10 @@
+package com.bank.loan.repository;
+
+import com.bank.loan.model.PublishedRateGrid;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+import java.util.Optional;
+
+public interface PublishedRateGridRepository extends MongoRepository<PublishedRateGrid, String> {
+    Optional<PublishedRateGrid> findTopByOrderByPublishedAtDesc();
+}
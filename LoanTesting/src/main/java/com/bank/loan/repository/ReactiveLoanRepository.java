@@ -0,0 +1,11 @@
+package com.bank.loan.repository;
+
+import com.bank.loan.model.Loan;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+
+/**
+ * Non-blocking counterpart of {@link LoanRepository} for the reactive read path.
+ * Read-only by convention: all writes go through LoanRepository and LoanService.
+ */
+public interface ReactiveLoanRepository extends ReactiveMongoRepository<Loan, String>, ReactiveLoanRepositoryCustom {
+}
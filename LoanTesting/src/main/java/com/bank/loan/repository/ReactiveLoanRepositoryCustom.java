@@ -0,0 +1,18 @@
+package com.bank.loan.repository;
+
+import com.bank.loan.model.Loan;
+import reactor.core.publisher.Flux;
+
+/**
+ * Loan queries for the reactive read path that need ReactiveMongoTemplate.
+ */
+public interface ReactiveLoanRepositoryCustom {
+
+    /**
+     * Loans matching {@code filter}, newest first, projected like
+     * {@link LoanRepositoryCustom#search}. The cursor is read as the subscriber
+     * requests more, so a slow client holds back the database rather than the heap.
+     * {@code limit} of 0 means all matching loans.
+     */
+    Flux<Loan> search(LoanSearchCriteria filter, int limit);
+}
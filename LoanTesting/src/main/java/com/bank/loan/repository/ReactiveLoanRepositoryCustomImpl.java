@@ -0,0 +1,28 @@
+package com.bank.loan.repository;
+
+import com.bank.loan.model.Loan;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import reactor.core.publisher.Flux;
+
+@RequiredArgsConstructor
+public class ReactiveLoanRepositoryCustomImpl implements ReactiveLoanRepositoryCustom {
+
+    private static final int BATCH_SIZE = 256;
+
+    private final ReactiveMongoTemplate reactiveMongoTemplate;
+
+    @Override
+    public Flux<Loan> search(LoanSearchCriteria filter, int limit) {
+
+        Query query = new Query(filter.toCriteria())
+                .withHint(filter.indexHint())
+                .with(LoanRepositoryCustomImpl.NEWEST_FIRST)
+                .cursorBatchSize(BATCH_SIZE)
+                .limit(limit);
+        query.fields().include(LoanRepositoryCustomImpl.LIST_FIELDS);
+
+        return reactiveMongoTemplate.find(query, Loan.class);
+    }
+}
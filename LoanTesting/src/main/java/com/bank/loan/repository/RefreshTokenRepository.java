@@ -0,0 +1,18 @@
+package com.bank.loan.repository;
+
+import com.bank.loan.model.RefreshToken;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.mongodb.repository.Update;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface RefreshTokenRepository extends MongoRepository<RefreshToken, String> {
+    List<RefreshToken> findByRevokedAtAfter(Instant revokedAt);
+
+    // Revokes once; returns 0 if the token is unknown, expired or already revoked.
+    @Query("{ '_id': ?0, 'revokedAt': null }")
+    @Update("{ '$set': { 'revokedAt': ?1 } }")
+    long revoke(String id, Instant revokedAt);
+}
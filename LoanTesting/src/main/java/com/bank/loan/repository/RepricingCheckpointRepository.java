@@ -0,0 +1,11 @@
+package com.bank.loan.repository;
+
+import com.bank.loan.model.RepricingCheckpoint;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+import java.util.Optional;
+
+public interface RepricingCheckpointRepository extends MongoRepository<RepricingCheckpoint, String> {
+
+    Optional<RepricingCheckpoint> findTopByOrderByStartedAtDesc();
+}
@@ -3,10 +3,22 @@ package com.bank.loan.repository;
 
 import com.bank.loan.model.User;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.mongodb.repository.Update;
 
+import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends MongoRepository<User, String> {
     Optional<User> findByEmail(String email);
     boolean existsByEmail(String email);
-}
\ No newline at end of file
+    List<User> findByAccountVersionGreaterThan(long accountVersion);
+    List<User> findByUpdatedAtAfter(Instant updatedAt);
+
+    // Replaces the hash only if it is still the one that was verified; returns the match count.
+    // accountVersion is untouched: a rehash must not revoke the user's tokens.
+    @Query("{ '_id': ?0, 'password': ?1 }")
+    @Update("{ '$set': { 'password': ?2 } }")
+    long updatePasswordIfUnchanged(String id, String currentHash, String newHash);
+}
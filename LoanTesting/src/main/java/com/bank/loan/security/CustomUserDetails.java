@@ -17,6 +17,7 @@ public class CustomUserDetails implements UserDetails {
     private final String password;
     private final Role role;
     private final boolean active;
+    private final long accountVersion;
 
     public CustomUserDetails(User user) {
         this.id = user.getId();
@@ -24,6 +25,25 @@ public class CustomUserDetails implements UserDetails {
         this.password = user.getPassword();
         this.role = user.getRole();
         this.active = user.isActive();
+        this.accountVersion = user.getAccountVersion();
+    }
+
+    // Principal rebuilt from token claims; no password, revocation is checked by the caller.
+    private CustomUserDetails(String id, String email, Role role, long accountVersion) {
+        this.id = id;
+        this.email = email;
+        this.password = null;
+        this.role = role;
+        this.active = true;
+        this.accountVersion = accountVersion;
+    }
+
+    public static CustomUserDetails fromToken(VerifiedToken token) {
+        return new CustomUserDetails(
+                token.getUserId(),
+                token.getSubject(),
+                Role.valueOf(token.getRole()),
+                token.getAccountVersion());
     }
 
     @Override
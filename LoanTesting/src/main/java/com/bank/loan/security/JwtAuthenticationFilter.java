@@ -4,7 +4,7 @@ import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpHeaders;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -16,16 +16,34 @@ import org.springframework.web.filter.OncePerRequestFilter;
 import java.io.IOException;
 
 @Component
-@RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtTokenProvider tokenProvider;
     private final CustomUserDetailsService userDetailsService;
+    private final PrincipalCache principalCache;
+    private final RevokedAccountRegistry revokedAccounts;
+    private final boolean statelessPrincipal;
+
+    public JwtAuthenticationFilter(
+            JwtTokenProvider tokenProvider,
+            CustomUserDetailsService userDetailsService,
+            PrincipalCache principalCache,
+            RevokedAccountRegistry revokedAccounts,
+            @Value("${app.jwt.stateless-principal:false}") boolean statelessPrincipal) {
+        this.tokenProvider = tokenProvider;
+        this.userDetailsService = userDetailsService;
+        this.principalCache = principalCache;
+        this.revokedAccounts = revokedAccounts;
+        this.statelessPrincipal = statelessPrincipal;
+    }
 
     @Override
     protected boolean shouldNotFilter(HttpServletRequest request) {
-        // ✅ Skip JWT filter for login & preflight
-        return request.getRequestURI().equals("/api/auth/login")
+        // ✅ Skip JWT filter for login, token refresh/logout & preflight
+        String uri = request.getRequestURI();
+        return uri.equals("/api/auth/login")
+                || uri.equals("/api/auth/refresh")
+                || uri.equals("/api/auth/logout")
                 || request.getMethod().equalsIgnoreCase("OPTIONS");
     }
 
@@ -42,10 +60,19 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             token = header.substring(7);
         }
 
-        if (StringUtils.hasText(token) && tokenProvider.validate(token)) {
+        VerifiedToken verified = StringUtils.hasText(token)
+                ? tokenProvider.verify(token).orElse(null)
+                : null;
+
+        if (verified != null) {
 
-            String username = tokenProvider.getUsername(token);
-            var userDetails = userDetailsService.loadUserByUsername(username);
+            var userDetails = resolvePrincipal(verified);
+
+            // Deactivated accounts keep a valid token until it expires; reject them here.
+            if (userDetails == null || !userDetails.isEnabled()) {
+                filterChain.doFilter(request, response);
+                return;
+            }
 
             var auth = new UsernamePasswordAuthenticationToken(
                     userDetails,
@@ -59,4 +86,21 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         filterChain.doFilter(request, response);
     }
+
+    private CustomUserDetails resolvePrincipal(VerifiedToken token) {
+        boolean hasPrincipalClaims = token.getUserId() != null
+                && token.getRole() != null
+                && token.getAccountVersion() != null;
+
+        if (statelessPrincipal && hasPrincipalClaims) {
+            if (revokedAccounts.isRevoked(token.getUserId(), token.getAccountVersion())) {
+                return null;
+            }
+            return CustomUserDetails.fromToken(token);
+        }
+
+        // Older tokens (or stateless mode off): load the user, cached for a short TTL.
+        return principalCache.get(token.getSubject(),
+                email -> (CustomUserDetails) userDetailsService.loadUserByUsername(email));
+    }
 }
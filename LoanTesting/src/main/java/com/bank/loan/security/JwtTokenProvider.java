@@ -1,25 +1,43 @@
 package com.bank.loan.security;
 
+import com.bank.loan.cache.TtlCache;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.security.Key;
+import java.time.Instant;
 import java.util.Date;
 import java.util.List;
+import java.util.Optional;
 
 @Component
 public class JwtTokenProvider {
 
+    static final String REFRESH_TYPE = "refresh";
+
     private final Key key;
     private final long expirationMs;
 
+    // JwtParser is immutable and thread-safe; build it once.
+    private final JwtParser parser;
+
+    // Recently verified tokens, each expiring at the token's own exp. Null when disabled.
+    private final TtlCache<String, VerifiedToken> verifiedTokens;
+
     public JwtTokenProvider(
             @Value("${app.jwt.secret}") String secret,
-            @Value("${app.jwt.expiration-ms}") long expirationMs) {
+            @Value("${app.jwt.expiration-ms}") long expirationMs,
+            @Value("${app.jwt.verified-cache-size:0}") int verifiedCacheSize,
+            MeterRegistry meterRegistry) {
         this.key = Keys.hmacShaKeyFor(secret.getBytes());
         this.expirationMs = expirationMs;
+        this.parser = Jwts.parserBuilder().setSigningKey(key).build();
+        this.verifiedTokens = verifiedCacheSize > 0
+                ? new TtlCache<String, VerifiedToken>(verifiedCacheSize).bindTo(meterRegistry, "verified-tokens")
+                : null;
     }
 
     // 🔥 FIXED HERE ONLY
@@ -36,6 +54,84 @@ public class JwtTokenProvider {
                 .compact();
     }
 
+    /**
+     * Token carrying id, role and account version so the filter can build the
+     * principal without a user lookup.
+     */
+    public String generateToken(CustomUserDetails user) {
+        Date now = new Date();
+        Date expiry = new Date(now.getTime() + expirationMs);
+
+        return Jwts.builder()
+                .setSubject(user.getEmail())
+                .claim("roles", List.of("ROLE_" + user.getRole().name()))
+                .claim("uid", user.getId())
+                .claim("role", user.getRole().name())
+                .claim("ver", user.getAccountVersion())
+                .setIssuedAt(now)
+                .setExpiration(expiry)
+                .signWith(key, SignatureAlgorithm.HS256)
+                .compact();
+    }
+
+    /**
+     * Long-lived token accepted only by /api/auth/refresh. It carries the same principal
+     * claims plus a jti, and no "roles", so it grants nothing if sent as a bearer token.
+     */
+    public String generateRefreshToken(CustomUserDetails user, String tokenId, Instant expiresAt) {
+        return Jwts.builder()
+                .setSubject(user.getEmail())
+                .setId(tokenId)
+                .claim("typ", REFRESH_TYPE)
+                .claim("uid", user.getId())
+                .claim("role", user.getRole().name())
+                .claim("ver", user.getAccountVersion())
+                .setIssuedAt(new Date())
+                .setExpiration(Date.from(expiresAt))
+                .signWith(key, SignatureAlgorithm.HS256)
+                .compact();
+    }
+
+    /**
+     * Verifies signature and expiry once and returns the claims the filter needs.
+     * Empty if the token is malformed, tampered with, expired or a refresh token.
+     */
+    public Optional<VerifiedToken> verify(String token) {
+        if (verifiedTokens != null) {
+            VerifiedToken cached = verifiedTokens.get(token);
+            if (cached != null) {
+                return Optional.of(cached);
+            }
+        }
+
+        try {
+            VerifiedToken verified = toVerifiedToken(parse(token).getBody());
+            if (verified.isRefresh()) {
+                return Optional.empty();
+            }
+            if (verifiedTokens != null && verified.getExpiresAt() != null) {
+                verifiedTokens.put(token, verified, verified.getExpiresAt());
+            }
+            return Optional.of(verified);
+        } catch (JwtException | IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Like {@link #verify} but accepts only refresh tokens. Not cached: refreshes are rare per token.
+     */
+    public Optional<VerifiedToken> verifyRefresh(String token) {
+        try {
+            VerifiedToken verified = toVerifiedToken(parse(token).getBody());
+            return verified.isRefresh() && verified.getTokenId() != null
+                    ? Optional.of(verified)
+                    : Optional.empty();
+        } catch (JwtException | IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+
     // ❌ NOT USED ANYWHERE – CAN STAY OR BE REMOVED
     public String getRole(String token) {
         Object role = parse(token).getBody().get("role");
@@ -47,15 +143,30 @@ public class JwtTokenProvider {
     }
 
     public boolean validate(String token) {
-        try {
-            parse(token);
-            return true;
-        } catch (JwtException | IllegalArgumentException e) {
-            return false;
-        }
+        return verify(token).isPresent();
     }
 
     private Jws<Claims> parse(String token) {
-        return Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token);
+        return parser.parseClaimsJws(token);
+    }
+
+    private VerifiedToken toVerifiedToken(Claims claims) {
+        Object roles = claims.get("roles");
+        List<String> roleList = roles instanceof List<?> list
+                ? list.stream().map(String::valueOf).toList()
+                : List.of();
+
+        Object version = claims.get("ver");
+
+        return VerifiedToken.builder()
+                .subject(claims.getSubject())
+                .roles(roleList)
+                .userId(claims.get("uid", String.class))
+                .role(claims.get("role", String.class))
+                .accountVersion(version instanceof Number n ? n.longValue() : null)
+                .expiresAt(claims.getExpiration() != null ? claims.getExpiration().toInstant() : null)
+                .tokenId(claims.getId())
+                .refresh(REFRESH_TYPE.equals(claims.get("typ", String.class)))
+                .build();
     }
 }
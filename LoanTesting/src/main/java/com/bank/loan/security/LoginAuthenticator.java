@@ -0,0 +1,164 @@
+package com.bank.loan.security;
+
+import com.bank.loan.service.UserService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.*;
+
+/**
+ * Runs password authentication (user lookup + BCrypt) on a dedicated pool sized to
+ * the CPU, so a login storm cannot occupy request threads that loan calls need.
+ *
+ * Requests pass {@link LoginRateLimiter} first, which counts them as in flight until the
+ * outcome is reported back to it. The pool's queue is bounded; when it is full the
+ * login is refused at once with RejectedExecutionException (503) rather than waiting
+ * behind hashes that would outlast the client's timeout.
+ *
+ * After a successful login whose stored hash is below the configured encoding
+ * (PasswordEncoder#upgradeEncoding), the password is rehashed on the same pool, but
+ * only when no login is waiting; a skipped rehash is retried at the next login.
+ */
+@Slf4j
+@Component
+public class LoginAuthenticator {
+
+    private final AuthenticationManager authenticationManager;
+    private final LoginRateLimiter rateLimiter;
+    private final PasswordEncoder passwordEncoder;
+    private final UserService userService;
+    private final ThreadPoolExecutor hashingPool;
+
+    private final Timer hashTimer;
+    private final Timer queueWaitTimer;
+    private final Counter saturatedCounter;
+    private final MeterRegistry meterRegistry;
+
+    public LoginAuthenticator(
+            AuthenticationManager authenticationManager,
+            LoginRateLimiter rateLimiter,
+            PasswordEncoder passwordEncoder,
+            UserService userService,
+            @Value("${app.security.login.threads:0}") int threads,
+            @Value("${app.security.login.queue-capacity:64}") int queueCapacity,
+            MeterRegistry meterRegistry) {
+
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+
+        this.authenticationManager = authenticationManager;
+        this.rateLimiter = rateLimiter;
+        this.passwordEncoder = passwordEncoder;
+        this.userService = userService;
+        this.meterRegistry = meterRegistry;
+        this.hashingPool = new ThreadPoolExecutor(
+                poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                queueCapacity > 0 ? new ArrayBlockingQueue<>(queueCapacity) : new SynchronousQueue<>(),
+                new CustomizableThreadFactory("login-hash-"),
+                new ThreadPoolExecutor.AbortPolicy());
+
+        this.hashTimer = Timer.builder("auth.login.hash")
+                .description("User lookup and password verification")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.queueWaitTimer = Timer.builder("auth.login.queue.wait")
+                .register(meterRegistry);
+        this.saturatedCounter = Counter.builder("auth.login.rejected")
+                .tag("reason", "saturated")
+                .register(meterRegistry);
+        Gauge.builder("auth.login.queue.size", hashingPool, p -> p.getQueue().size())
+                .register(meterRegistry);
+        Gauge.builder("auth.login.active", hashingPool, ThreadPoolExecutor::getActiveCount)
+                .register(meterRegistry);
+
+        log.info("Login hashing pool: {} threads, queue {}", poolSize, queueCapacity);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        hashingPool.shutdownNow();
+    }
+
+    /**
+     * Authenticates on the hashing pool. Rate limiting (TooManyRequestsException) and
+     * saturation (RejectedExecutionException) are thrown immediately; bad credentials
+     * complete the future exceptionally with the AuthenticationException.
+     */
+    public CompletableFuture<Authentication> authenticate(String email, String password, String clientAddress) {
+
+        rateLimiter.acquire(email, clientAddress);
+
+        long queuedAt = System.nanoTime();
+        UsernamePasswordAuthenticationToken token = new UsernamePasswordAuthenticationToken(email, password);
+
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                queueWaitTimer.record(System.nanoTime() - queuedAt, TimeUnit.NANOSECONDS);
+                Authentication auth;
+                try {
+                    auth = hashTimer.record(() -> authenticationManager.authenticate(token));
+                } catch (BadCredentialsException e) {
+                    rateLimiter.recordFailure(email, clientAddress);
+                    throw e;
+                } catch (RuntimeException e) {
+                    rateLimiter.release(email, clientAddress);
+                    throw e;
+                }
+                rateLimiter.recordSuccess(email, clientAddress);
+                scheduleRehash(auth, password);
+                return auth;
+            }, hashingPool);
+        } catch (RejectedExecutionException e) {
+            rateLimiter.release(email, clientAddress);
+            saturatedCounter.increment();
+            throw new RejectedExecutionException("Login capacity exhausted, try again shortly", e);
+        }
+    }
+
+    private void scheduleRehash(Authentication auth, String rawPassword) {
+
+        if (!(auth.getPrincipal() instanceof CustomUserDetails user)
+                || user.getPassword() == null
+                || !passwordEncoder.upgradeEncoding(user.getPassword())) {
+            return;
+        }
+
+        if (!hashingPool.getQueue().isEmpty()) {
+            rehashCounter("skipped").increment();
+            return;
+        }
+
+        try {
+            hashingPool.execute(() -> rehash(user, rawPassword));
+        } catch (RejectedExecutionException e) {
+            rehashCounter("skipped").increment();
+        }
+    }
+
+    private void rehash(CustomUserDetails user, String rawPassword) {
+        try {
+            boolean upgraded = userService.upgradePassword(user.getId(), user.getPassword(), rawPassword);
+            rehashCounter(upgraded ? "upgraded" : "stale").increment();
+        } catch (RuntimeException e) {
+            rehashCounter("failed").increment();
+            log.warn("Password rehash failed for user {}: {}", user.getId(), e.getMessage());
+        }
+    }
+
+    private Counter rehashCounter(String result) {
+        return Counter.builder("auth.password.rehash")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,205 @@
+package com.bank.loan.security;
+
+import com.bank.loan.cache.TtlCache;
+import com.bank.loan.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Admission control in front of password hashing, checked on the request thread
+ * before any BCrypt work is queued.
+ *
+ * <ul>
+ *   <li>global: a token bucket, so a login storm is smoothed to a rate the hashing
+ *       pool can sustain instead of piling up in its queue;</li>
+ *   <li>per account: at most {@code maxAttempts} failed plus in-flight logins within a
+ *       window, whatever address they come from. Attempts still hashing count, so a burst
+ *       of parallel guesses is capped before any of them fails. A successful login clears
+ *       the account's failures;</li>
+ *   <li>per client address: a separate, higher limit on failed plus in-flight logins
+ *       across all accounts, against one address spraying passwords. A success does not
+ *       clear it.</li>
+ * </ul>
+ *
+ * Every admitted attempt must end with exactly one of {@link #recordFailure},
+ * {@link #recordSuccess} or {@link #release}.
+ */
+@Component
+public class LoginRateLimiter {
+
+    private final Clock clock;
+    private final int accountMaxAttempts;
+    private final int addressMaxAttempts;
+    private final Duration window;
+    private final TtlCache<String, Window> accounts;
+    private final TtlCache<String, Window> addresses;
+    private final TokenBucket global;
+
+    private final Counter accountRejected;
+    private final Counter addressRejected;
+    private final Counter globalRejected;
+
+    @Autowired
+    public LoginRateLimiter(
+            @Value("${app.security.login.per-account.max-attempts:10}") int accountMaxAttempts,
+            @Value("${app.security.login.per-address.max-attempts:50}") int addressMaxAttempts,
+            @Value("${app.security.login.window-ms:60000}") long windowMs,
+            @Value("${app.security.login.global.rate-per-second:100}") double ratePerSecond,
+            @Value("${app.security.login.global.burst:200}") int burst,
+            MeterRegistry meterRegistry) {
+        this(accountMaxAttempts, addressMaxAttempts, windowMs, ratePerSecond, burst, meterRegistry,
+                Clock.systemUTC());
+    }
+
+    LoginRateLimiter(int accountMaxAttempts, int addressMaxAttempts, long windowMs,
+                     double ratePerSecond, int burst, MeterRegistry meterRegistry, Clock clock) {
+
+        if (accountMaxAttempts <= 0 || addressMaxAttempts <= 0 || windowMs <= 0
+                || ratePerSecond <= 0 || burst <= 0)
+            throw new IllegalArgumentException("Login rate limits must be positive");
+
+        this.clock = clock;
+        this.accountMaxAttempts = accountMaxAttempts;
+        this.addressMaxAttempts = addressMaxAttempts;
+        this.window = Duration.ofMillis(windowMs);
+        this.accounts = new TtlCache<String, Window>(100_000, clock)
+                .bindTo(meterRegistry, "login-attempts-account");
+        this.addresses = new TtlCache<String, Window>(100_000, clock)
+                .bindTo(meterRegistry, "login-attempts-address");
+        this.global = new TokenBucket(burst, ratePerSecond, clock.millis());
+
+        this.accountRejected = Counter.builder("auth.login.rejected")
+                .tag("reason", "account")
+                .register(meterRegistry);
+        this.addressRejected = Counter.builder("auth.login.rejected")
+                .tag("reason", "address")
+                .register(meterRegistry);
+        this.globalRejected = Counter.builder("auth.login.rejected")
+                .tag("reason", "global")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Admits a login attempt for {@code email} from {@code clientAddress} and counts it as
+     * in flight, or throws TooManyRequestsException when the node, the account or the
+     * address is over its limit.
+     */
+    public void acquire(String email, String clientAddress) {
+
+        long now = clock.millis();
+
+        long waitMs = global.tryAcquire(now);
+        if (waitMs > 0) {
+            globalRejected.increment();
+            throw new TooManyRequestsException("Too many login attempts, try again shortly", seconds(waitMs));
+        }
+
+        Window account = current(accounts, accountKey(email), now);
+        if (!account.tryAdmit(accountMaxAttempts)) {
+            accountRejected.increment();
+            throw new TooManyRequestsException("Too many failed login attempts for this account",
+                    seconds(account.resetAtMs - now));
+        }
+
+        Window address = current(addresses, clientAddress, now);
+        if (!address.tryAdmit(addressMaxAttempts)) {
+            account.complete(false, false);
+            addressRejected.increment();
+            throw new TooManyRequestsException("Too many failed login attempts from this address",
+                    seconds(address.resetAtMs - now));
+        }
+    }
+
+    /** Bad credentials: the attempt counts as a failure for the account and the address. */
+    public void recordFailure(String email, String clientAddress) {
+        long now = clock.millis();
+        current(accounts, accountKey(email), now).complete(true, false);
+        current(addresses, clientAddress, now).complete(true, false);
+    }
+
+    /** Authenticated: the attempt ends and the account's failures are cleared. */
+    public void recordSuccess(String email, String clientAddress) {
+        long now = clock.millis();
+        current(accounts, accountKey(email), now).complete(false, true);
+        current(addresses, clientAddress, now).complete(false, false);
+    }
+
+    /** The attempt ended without a verdict on the password (saturation, lookup error). */
+    public void release(String email, String clientAddress) {
+        long now = clock.millis();
+        current(accounts, accountKey(email), now).complete(false, false);
+        current(addresses, clientAddress, now).complete(false, false);
+    }
+
+    private Window current(TtlCache<String, Window> windows, String key, long now) {
+        return windows.get(key, k -> new Window(now + window.toMillis()), window);
+    }
+
+    private static String accountKey(String email) {
+        return email.toLowerCase(Locale.ROOT);
+    }
+
+    private static long seconds(long millis) {
+        return Math.max(1, (millis + 999) / 1000);
+    }
+
+    private static final class Window {
+
+        private final long resetAtMs;
+        private int failures;
+        private int inFlight;
+
+        private Window(long resetAtMs) {
+            this.resetAtMs = resetAtMs;
+        }
+
+        synchronized boolean tryAdmit(int maxAttempts) {
+            if (failures + inFlight >= maxAttempts)
+                return false;
+            inFlight++;
+            return true;
+        }
+
+        // an attempt admitted in an earlier, expired window ends here: nothing to release
+        synchronized void complete(boolean failed, boolean clearFailures) {
+            inFlight = Math.max(0, inFlight - 1);
+            if (failed)
+                failures++;
+            if (clearFailures)
+                failures = 0;
+        }
+    }
+
+    static final class TokenBucket {
+
+        private final double capacity;
+        private final double perMs;
+        private double tokens;
+        private long lastMs;
+
+        TokenBucket(int capacity, double ratePerSecond, long nowMs) {
+            this.capacity = capacity;
+            this.perMs = ratePerSecond / 1000.0;
+            this.tokens = capacity;
+            this.lastMs = nowMs;
+        }
+
+        // 0 when a token was taken, otherwise how long until one is available
+        synchronized long tryAcquire(long nowMs) {
+            tokens = Math.min(capacity, tokens + Math.max(0, nowMs - lastMs) * perMs);
+            lastMs = Math.max(lastMs, nowMs);
+            if (tokens >= 1) {
+                tokens -= 1;
+                return 0;
+            }
+            return (long) Math.ceil((1 - tokens) / perMs);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.bank.loan.security;
+
+import com.bank.loan.cache.TtlCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Caches authenticated principals by email so the JWT filter does not
+ * hit Mongo on every request. Entries live for at most the configured TTL,
+ * which is also the window in which a deactivation on another node takes effect.
+ */
+@Component
+public class PrincipalCache {
+
+    private final TtlCache<String, CustomUserDetails> cache;
+    private final Duration ttl;
+
+    public PrincipalCache(
+            @Value("${app.security.principal-cache.ttl-ms:30000}") long ttlMs,
+            @Value("${app.security.principal-cache.max-size:10000}") int maxSize,
+            MeterRegistry meterRegistry) {
+        this.ttl = Duration.ofMillis(ttlMs);
+        this.cache = new TtlCache<String, CustomUserDetails>(maxSize)
+                .bindTo(meterRegistry, "principals");
+    }
+
+    public CustomUserDetails get(String email, Function<String, CustomUserDetails> loader) {
+        return cache.get(email, loader, ttl);
+    }
+
+    public void evict(String email) {
+        cache.invalidate(email);
+    }
+
+    public long hitCount() {
+        return cache.hitCount();
+    }
+
+    public long missCount() {
+        return cache.missCount();
+    }
+}
@@ -0,0 +1,163 @@
+package com.bank.loan.security;
+
+import com.bank.loan.exception.InvalidTokenException;
+import com.bank.loan.model.RefreshToken;
+import com.bank.loan.repository.RefreshTokenRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Issues and checks refresh tokens, so clients renew short-lived access tokens
+ * without sending the password (and paying BCrypt) again.
+ *
+ * Every issued token is recorded in Mongo under the SHA-256 of its jti, with a TTL
+ * index on its expiry. Refreshing does not read it: the token's signature and expiry
+ * are checked locally, then its jti hash against an in-memory set of revoked tokens
+ * and its "ver" claim against {@link RevokedAccountRegistry}. Revocations made on
+ * other nodes are pulled on the same schedule as account revocations.
+ */
+@Slf4j
+@Component
+public class RefreshTokenService {
+
+    private final JwtTokenProvider tokenProvider;
+    private final RefreshTokenRepository repository;
+    private final RevokedAccountRegistry revokedAccounts;
+    private final Duration ttl;
+
+    // jti hash -> token expiry in epoch ms. Only unexpired revoked tokens are kept,
+    // so the set stays as small as the number of logouts within one refresh TTL.
+    private final Map<String, Long> revoked = new ConcurrentHashMap<>();
+
+    private volatile Instant lastSync = Instant.EPOCH;
+
+    private final Counter issuedCounter;
+    private final Counter refreshedCounter;
+    private final Counter rejectedCounter;
+
+    public RefreshTokenService(
+            JwtTokenProvider tokenProvider,
+            RefreshTokenRepository repository,
+            RevokedAccountRegistry revokedAccounts,
+            @Value("${app.jwt.refresh-expiration-ms:604800000}") long refreshExpirationMs,
+            MeterRegistry meterRegistry) {
+        this.tokenProvider = tokenProvider;
+        this.repository = repository;
+        this.revokedAccounts = revokedAccounts;
+        this.ttl = Duration.ofMillis(refreshExpirationMs);
+
+        this.issuedCounter = meterRegistry.counter("auth.refresh", "result", "issued");
+        this.refreshedCounter = meterRegistry.counter("auth.refresh", "result", "refreshed");
+        this.rejectedCounter = meterRegistry.counter("auth.refresh", "result", "rejected");
+        Gauge.builder("auth.refresh.revoked", revoked, Map::size)
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void load() {
+        Instant started = Instant.now();
+        // Anything revoked longer ago than one TTL has expired as well.
+        repository.findByRevokedAtAfter(started.minus(ttl))
+                .forEach(this::record);
+        lastSync = started;
+        log.debug("Loaded {} revoked refresh tokens", revoked.size());
+    }
+
+    @Scheduled(fixedDelayString = "${app.security.revocation.refresh-ms:15000}")
+    void sync() {
+        Instant started = Instant.now();
+        // Overlap by a minute to tolerate clock skew between nodes.
+        repository.findByRevokedAtAfter(lastSync.minusSeconds(60))
+                .forEach(this::record);
+        lastSync = started;
+
+        long now = started.toEpochMilli();
+        revoked.values().removeIf(expiresAt -> expiresAt <= now);
+    }
+
+    public String issue(CustomUserDetails user) {
+        String tokenId = UUID.randomUUID().toString();
+        Instant issuedAt = Instant.now();
+        Instant expiresAt = issuedAt.plus(ttl);
+
+        repository.insert(RefreshToken.builder()
+                .id(hash(tokenId))
+                .userId(user.getId())
+                .issuedAt(issuedAt)
+                .expiresAt(expiresAt)
+                .build());
+
+        issuedCounter.increment();
+        return tokenProvider.generateRefreshToken(user, tokenId, expiresAt);
+    }
+
+    /**
+     * Principal to issue a new access token for. Throws InvalidTokenException if the
+     * token is not a valid refresh token, was revoked, or predates an account change.
+     */
+    public CustomUserDetails refresh(String token) {
+        VerifiedToken verified = verify(token);
+
+        if (revoked.containsKey(hash(verified.getTokenId()))
+                || revokedAccounts.isRevoked(verified.getUserId(), verified.getAccountVersion())) {
+            rejectedCounter.increment();
+            throw new InvalidTokenException("Refresh token has been revoked");
+        }
+
+        refreshedCounter.increment();
+        return CustomUserDetails.fromToken(verified);
+    }
+
+    /**
+     * Revokes the token here at once and on other nodes within one sync interval.
+     * Revoking an already revoked token is a no-op.
+     */
+    public void revoke(String token) {
+        VerifiedToken verified = verify(token);
+        String id = hash(verified.getTokenId());
+
+        revoked.put(id, verified.getExpiresAt().toEpochMilli());
+        repository.revoke(id, Instant.now());
+    }
+
+    private VerifiedToken verify(String token) {
+        VerifiedToken verified = tokenProvider.verifyRefresh(token).orElse(null);
+        if (verified == null || verified.getUserId() == null || verified.getAccountVersion() == null) {
+            rejectedCounter.increment();
+            throw new InvalidTokenException("Invalid or expired refresh token");
+        }
+        return verified;
+    }
+
+    private void record(RefreshToken token) {
+        if (token.getExpiresAt() != null && token.getExpiresAt().isAfter(Instant.now())) {
+            revoked.put(token.getId(), token.getExpiresAt().toEpochMilli());
+        }
+    }
+
+    static String hash(String tokenId) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(tokenId.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.bank.loan.security;
+
+import com.bank.loan.model.User;
+import com.bank.loan.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Minimum valid account version per user. A token whose "ver" claim is below
+ * it was issued before the account was deactivated (or otherwise changed) and is rejected.
+ *
+ * Updated locally by UserService and refreshed from Mongo on a schedule so that
+ * changes made on other nodes are picked up.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RevokedAccountRegistry {
+
+    private final UserRepository userRepository;
+
+    private final Map<String, Long> minValidVersion = new ConcurrentHashMap<>();
+
+    private volatile Instant lastSync = Instant.EPOCH;
+
+    @PostConstruct
+    void load() {
+        Instant started = Instant.now();
+        userRepository.findByAccountVersionGreaterThan(0)
+                .forEach(this::record);
+        lastSync = started;
+        log.debug("Loaded {} account versions", minValidVersion.size());
+    }
+
+    @Scheduled(fixedDelayString = "${app.security.revocation.refresh-ms:15000}")
+    void refresh() {
+        Instant started = Instant.now();
+        // Overlap by a minute to tolerate clock skew between nodes.
+        userRepository.findByUpdatedAtAfter(lastSync.minusSeconds(60))
+                .forEach(this::record);
+        lastSync = started;
+    }
+
+    public void revokeBefore(String userId, long version) {
+        minValidVersion.merge(userId, version, Math::max);
+    }
+
+    public boolean isRevoked(String userId, long version) {
+        Long min = minValidVersion.get(userId);
+        return min != null && version < min;
+    }
+
+    private void record(User user) {
+        if (user.getAccountVersion() > 0) {
+            revokeBefore(user.getId(), user.getAccountVersion());
+        }
+    }
+}
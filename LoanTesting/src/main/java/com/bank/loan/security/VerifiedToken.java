@@ -0,0 +1,33 @@
+package com.bank.loan.security;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Claims of a JWT whose signature and expiry have already been checked.
+ */
+@Value
+@Builder
+public class VerifiedToken {
+
+    String subject;
+
+    List<String> roles;
+
+    // Stateless principal claims; null on tokens issued before they were added.
+    String userId;
+
+    String role;
+
+    Long accountVersion;
+
+    Instant expiresAt;
+
+    // jti; set on refresh tokens only
+    String tokenId;
+
+    boolean refresh;
+}
@@ -0,0 +1,280 @@
+package com.bank.loan.service;
+
+import com.bank.loan.dto.BulkLoanResultDto;
+import com.bank.loan.dto.LoanCreateRequest;
+import com.bank.loan.event.LoanEvent;
+import com.bank.loan.event.LoanEventPublisher;
+import com.bank.loan.event.LoanEventType;
+import com.bank.loan.event.LoanSnapshot;
+import com.bank.loan.model.Loan;
+import com.bank.loan.model.LoanAction;
+import com.bank.loan.repository.LoanActionRepository;
+import com.bank.loan.repository.LoanRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.exc.StreamReadException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+
+/**
+ * Creates loans from a JSON array or an NDJSON stream.
+ *
+ * Items are read one at a time with the streaming parser and handled in chunks:
+ * validated and priced in parallel, inserted with one unordered bulk write, and
+ * reported as one NDJSON result line per item. Only the current chunk is held in
+ * memory, so payload size is bounded by time, not heap.
+ */
+@Slf4j
+@Service
+public class LoanBulkImportService {
+
+    private final LoanService loanService;
+    private final LoanRepository loanRepository;
+    private final LoanActionRepository loanActionRepository;
+    private final LoanEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter resultWriter;
+    private final int chunkSize;
+    private final int parallelism;
+    private final ExecutorService workers;
+
+    private final Counter createdCounter;
+    private final Counter failedCounter;
+
+    public LoanBulkImportService(
+            LoanService loanService,
+            LoanRepository loanRepository,
+            LoanActionRepository loanActionRepository,
+            LoanEventPublisher eventPublisher,
+            ObjectMapper objectMapper,
+            @Value("${app.bulk.chunk-size:1000}") int chunkSize,
+            @Value("${app.bulk.workers:4}") int workers,
+            MeterRegistry meterRegistry) {
+
+        if (chunkSize <= 0 || workers <= 0)
+            throw new IllegalArgumentException("Bulk chunk size and workers must be positive");
+
+        this.loanService = loanService;
+        this.loanRepository = loanRepository;
+        this.loanActionRepository = loanActionRepository;
+        this.eventPublisher = eventPublisher;
+        this.objectMapper = objectMapper;
+        // results are flushed once per chunk by write(), not after every value
+        this.resultWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.chunkSize = chunkSize;
+        this.parallelism = workers;
+
+        // Shared by concurrent imports; when saturated the importing thread does the work itself.
+        this.workers = new ThreadPoolExecutor(
+                workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(workers * 4),
+                new CustomizableThreadFactory("bulk-import-"),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+
+        this.createdCounter = Counter.builder("loan.bulk.items")
+                .tag("result", "created")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("loan.bulk.items")
+                .tag("result", "failed")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        workers.shutdownNow();
+    }
+
+    /**
+     * Reads items from {@code in} (a JSON array, or whitespace/newline separated objects)
+     * and writes one NDJSON result per item to {@code out}, flushed after every chunk.
+     * Malformed JSON ends the import with a final line that has no index.
+     */
+    public void importLoans(InputStream in, OutputStream out, String userId) throws IOException {
+
+        JsonGenerator results = objectMapper.getFactory().createGenerator(out);
+        results.setRootValueSeparator(null);
+
+        int index = 0;
+        List<Item> chunk = new ArrayList<>(chunkSize);
+
+        try (JsonParser parser = objectMapper.getFactory().createParser(in)) {
+
+            JsonToken token = parser.nextToken();
+            if (token == JsonToken.START_ARRAY) token = parser.nextToken();
+
+            while (token != null && token != JsonToken.END_ARRAY) {
+
+                JsonNode node = parser.readValueAsTree();
+                chunk.add(new Item(index++, node));
+
+                if (chunk.size() == chunkSize) {
+                    write(results, process(chunk, userId));
+                    chunk.clear();
+                }
+                token = parser.nextToken();
+            }
+
+            write(results, process(chunk, userId));
+
+        } catch (StreamReadException e) {
+            write(results, process(chunk, userId));
+            write(results, List.of(BulkLoanResultDto.builder()
+                    .error("Malformed input at item " + index + ": " + e.getOriginalMessage())
+                    .build()));
+        }
+
+        results.flush();
+    }
+
+    private List<BulkLoanResultDto> process(List<Item> chunk, String userId) {
+
+        if (chunk.isEmpty()) {
+            return List.of();
+        }
+
+        BulkLoanResultDto[] results = new BulkLoanResultDto[chunk.size()];
+        Loan[] loans = new Loan[chunk.size()];
+
+        prepare(chunk, userId, loans, results);
+
+        List<Loan> batch = new ArrayList<>(chunk.size());
+        List<Integer> positions = new ArrayList<>(chunk.size());
+        for (int i = 0; i < loans.length; i++) {
+            if (loans[i] != null) {
+                batch.add(loans[i]);
+                positions.add(i);
+            }
+        }
+
+        Map<Integer, String> failed = loanRepository.insertUnordered(batch);
+
+        List<LoanAction> actions = new ArrayList<>(batch.size());
+        for (int b = 0; b < batch.size(); b++) {
+            int i = positions.get(b);
+            Loan loan = batch.get(b);
+            String error = failed.get(b);
+
+            if (error != null) {
+                results[i] = failure(chunk.get(i).index(), error);
+            } else {
+                actions.add(loan.getLastAction().toBuilder().loanId(loan.getId()).build());
+                results[i] = BulkLoanResultDto.builder()
+                        .index(chunk.get(i).index())
+                        .id(loan.getId())
+                        .status(loan.getStatus())
+                        .build();
+            }
+        }
+
+        if (!actions.isEmpty()) {
+            loanActionRepository.insert(actions);
+        }
+
+        List<LoanEvent> events = new ArrayList<>(actions.size());
+        for (int b = 0; b < batch.size(); b++) {
+            if (!failed.containsKey(b)) {
+                Loan loan = batch.get(b);
+                events.add(LoanEvent.of(
+                        LoanEventType.CREATED, loan.getId(), loan.getCreatedBy(), null, LoanSnapshot.of(loan)));
+            }
+        }
+        eventPublisher.publishAll(events);
+
+        createdCounter.increment(actions.size());
+        failedCounter.increment(chunk.size() - actions.size());
+
+        return List.of(results);
+    }
+
+    // Bind, validate and price each item on the worker pool; fills loans[i] or results[i].
+    private void prepare(List<Item> chunk, String userId, Loan[] loans, BulkLoanResultDto[] results) {
+
+        int slice = (chunk.size() + parallelism - 1) / parallelism;
+
+        List<Future<?>> futures = new ArrayList<>();
+        for (int from = 0; from < chunk.size(); from += slice) {
+            int start = from;
+            int end = Math.min(chunk.size(), from + slice);
+            futures.add(workers.submit(() -> {
+                for (int i = start; i < end; i++) {
+                    Item item = chunk.get(i);
+                    try {
+                        loans[i] = newLoan(item.node(), userId);
+                    } catch (IllegalArgumentException | IllegalStateException | JsonProcessingException e) {
+                        results[i] = failure(item.index(), message(e));
+                    }
+                }
+            }));
+        }
+
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Bulk import interrupted", e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Bulk import worker failed", e.getCause());
+            }
+        }
+    }
+
+    private Loan newLoan(JsonNode node, String userId) throws JsonProcessingException {
+
+        LoanCreateRequest request = objectMapper.treeToValue(node, LoanCreateRequest.class);
+        if (request == null || request.getAction() == null)
+            throw new IllegalArgumentException("Action required");
+
+        Loan loan = loanService.newLoan(request, userId);
+        LoanAction action = LoanService.createdAction(loan, userId);
+
+        // Ids are assigned up front so actions can reference loans inserted in the same batch.
+        loan.setId(new ObjectId().toHexString());
+        loan.setVersion(0L);
+        loan.setActionCount(1);
+        loan.setLastAction(action);
+        return loan;
+    }
+
+    private void write(JsonGenerator out, List<BulkLoanResultDto> results) throws IOException {
+        if (results.isEmpty()) {
+            return;
+        }
+        for (BulkLoanResultDto result : results) {
+            resultWriter.writeValue(out, result);
+            out.writeRaw('\n');
+        }
+        out.flush();
+    }
+
+    private static BulkLoanResultDto failure(int index, String error) {
+        return BulkLoanResultDto.builder().index(index).error(error).build();
+    }
+
+    private static String message(Exception e) {
+        return e instanceof JsonProcessingException json ? json.getOriginalMessage() : e.getMessage();
+    }
+
+    private record Item(int index, JsonNode node) {
+    }
+}
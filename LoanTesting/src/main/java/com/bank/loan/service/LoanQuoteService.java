@@ -0,0 +1,143 @@
+package com.bank.loan.service;
+
+import com.bank.loan.dto.LoanCreateRequest;
+import com.bank.loan.dto.LoanQuoteDto;
+import com.bank.loan.model.Loan;
+import com.bank.loan.pricing.PricingEngine;
+import com.bank.loan.pricing.RateGrid;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * What-if pricing: the same validation and pricing as a submitted loan, in memory only.
+ * Nothing is persisted and nothing blocks, so quotes are safe to serve from any thread.
+ */
+@Service
+public class LoanQuoteService {
+
+    private final PricingEngine pricingEngine;
+    private final ObjectMapper objectMapper;
+    private final int maxBatchSize;
+
+    private final Timer singleTimer;
+    private final Timer batchTimer;
+    private final DistributionSummary batchSizes;
+
+    public LoanQuoteService(
+            PricingEngine pricingEngine,
+            ObjectMapper objectMapper,
+            @Value("${app.quote.max-batch-size:5000}") int maxBatchSize,
+            MeterRegistry meterRegistry) {
+        this.pricingEngine = pricingEngine;
+        this.objectMapper = objectMapper;
+        this.maxBatchSize = maxBatchSize;
+        this.singleTimer = Timer.builder("loan.quote")
+                .tag("mode", "single")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.batchTimer = Timer.builder("loan.quote")
+                .tag("mode", "batch")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("loan.quote.batch.size")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Quotes one scenario; an invalid scenario is rejected as a bad request.
+     */
+    public LoanQuoteDto quote(LoanCreateRequest request) {
+        return singleTimer.record(() -> {
+            RateGrid grid = pricingEngine.currentGrid();
+            try {
+                return quote(grid, request);
+            } catch (IllegalStateException e) {
+                throw new IllegalArgumentException(e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Reads a JSON array of scenarios from {@code body} one element at a time and quotes
+     * them. An array longer than the batch limit is rejected as soon as the element past
+     * the limit starts, before it or anything after it is read.
+     */
+    public List<LoanQuoteDto> quoteBatch(InputStream body) throws IOException {
+
+        List<LoanCreateRequest> requests = new ArrayList<>();
+
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+
+            if (parser.nextToken() != JsonToken.START_ARRAY)
+                throw new IllegalArgumentException("Scenarios must be a JSON array");
+
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                if (requests.size() == maxBatchSize)
+                    throw new IllegalArgumentException("At most " + maxBatchSize + " scenarios per request");
+                requests.add(parser.readValueAs(LoanCreateRequest.class));
+            }
+
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Malformed scenarios: " + e.getOriginalMessage());
+        }
+
+        return quoteBatch(requests);
+    }
+
+    /**
+     * Quotes every scenario against the same grid version. Results are in request
+     * order; invalid scenarios carry an error instead of a rate.
+     */
+    public List<LoanQuoteDto> quoteBatch(List<LoanCreateRequest> requests) {
+
+        if (requests == null || requests.isEmpty())
+            throw new IllegalArgumentException("At least one scenario required");
+
+        if (requests.size() > maxBatchSize)
+            throw new IllegalArgumentException("At most " + maxBatchSize + " scenarios per request");
+
+        batchSizes.record(requests.size());
+
+        return batchTimer.record(() -> {
+            RateGrid grid = pricingEngine.currentGrid();
+            List<LoanQuoteDto> quotes = new ArrayList<>(requests.size());
+            for (LoanCreateRequest request : requests) {
+                try {
+                    quotes.add(quote(grid, request));
+                } catch (IllegalStateException e) {
+                    quotes.add(LoanQuoteDto.builder()
+                            .gridVersion(grid.getVersion())
+                            .error(e.getMessage())
+                            .build());
+                }
+            }
+            return quotes;
+        });
+    }
+
+    private static LoanQuoteDto quote(RateGrid grid, LoanCreateRequest request) {
+
+        if (request == null)
+            throw new IllegalStateException("Scenario required");
+
+        Loan loan = LoanService.toLoan(request);
+        LoanService.validateForSubmit(loan);
+
+        return LoanQuoteDto.builder()
+                .proposedInterestRate(grid.rate(loan))
+                .gridVersion(grid.getVersion())
+                .build();
+    }
+}
@@ -1,10 +1,21 @@
 package com.bank.loan.service;
 
 import com.bank.loan.dto.*;
+import com.bank.loan.event.LoanEvent;
+import com.bank.loan.event.LoanEventPublisher;
+import com.bank.loan.event.LoanEventType;
+import com.bank.loan.event.LoanSnapshot;
 import com.bank.loan.model.*;
+import com.bank.loan.pricing.PricingEngine;
+import com.bank.loan.repository.LoanActionRepository;
+import com.bank.loan.repository.LoanCursor;
 import com.bank.loan.repository.LoanRepository;
+import com.bank.loan.repository.LoanSearchCriteria;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.*;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
@@ -16,32 +27,26 @@ import java.util.List;
 @RequiredArgsConstructor
 public class LoanService {
 
+    static final int MAX_CURSOR_PAGE_SIZE = 200;
+
     private final LoanRepository loanRepository;
+    private final LoanActionRepository loanActionRepository;
+    private final OptimisticRetryExecutor retryExecutor;
+    private final PricingEngine pricingEngine;
+    private final LoanEventPublisher eventPublisher;
+    private final TransactionalRunner transactionalRunner;
 
     // ==================================================
     // PRICING
     // ==================================================
     private double calculatePricing(Loan loan) {
-
-        double baseRate = 10.0;
-
-        double ratingFactor = switch (loan.getFinancials().getRating()) {
-            case "AAA", "AA" -> -1.0;
-            case "A" -> 0.0;
-            case "BBB" -> 1.0;
-            default -> 2.0;
-        };
-
-        double sizeFactor =
-                loan.getRequestedAmount() > 50_000_000L ? -0.5 : 0.0;
-
-        return baseRate + ratingFactor + sizeFactor;
+        return pricingEngine.price(loan);
     }
 
     // ==================================================
     // SINGLE SOURCE OF TRUTH VALIDATION (IMPORTANT)
     // ==================================================
-    private void validateForSubmit(Loan loan) {
+    static void validateForSubmit(Loan loan) {
 
         if (!StringUtils.hasText(loan.getClientName()))
             throw new IllegalStateException("Client name required");
@@ -71,9 +76,58 @@ public class LoanService {
     // ==================================================
     // CREATE LOAN (SAVE DRAFT / SUBMIT)
     // ==================================================
+    @Transactional
     public LoanResponseDto createLoan(LoanCreateRequest request, String userId) {
 
-        Loan loan = Loan.builder()
+        Loan loan = newLoan(request, userId);
+
+        Loan saved = saveWithAction(loan, createdAction(loan, userId));
+
+        eventPublisher.publish(LoanEvent.of(
+                LoanEventType.CREATED, saved.getId(), userId, null, LoanSnapshot.of(saved)));
+
+        return toDto(saved);
+    }
+
+    // Validated and priced (on SUBMIT) but not yet saved; shared with bulk import
+    public Loan newLoan(LoanCreateRequest request, String userId) {
+
+        Loan loan = toLoan(request);
+        loan.setCreatedBy(userId);
+        loan.setUpdatedBy(userId);
+        loan.setCreatedAt(Instant.now());
+        loan.setUpdatedAt(Instant.now());
+        loan.setDeleted(false);
+
+        if (request.getAction() == LoanCreateAction.SUBMIT) {
+
+            validateForSubmit(loan);
+
+            loan.setStatus(LoanStatus.SUBMITTED);
+            loan.setProposedInterestRate(calculatePricing(loan));
+
+        } else {
+            loan.setStatus(LoanStatus.DRAFT);
+        }
+
+        return loan;
+    }
+
+    static LoanAction createdAction(Loan loan, String userId) {
+        return LoanAction.builder()
+                .by(userId)
+                .action(
+                        loan.getStatus() == LoanStatus.DRAFT
+                                ? "SAVED_DRAFT"
+                                : "SUBMITTED"
+                )
+                .timestamp(Instant.now())
+                .build();
+    }
+
+    // Business fields only; callers set status and audit fields
+    static Loan toLoan(LoanCreateRequest request) {
+        return Loan.builder()
                 .clientName(request.getClientName())
                 .loanType(request.getLoanType())
                 .requestedAmount(request.getRequestedAmount())
@@ -87,37 +141,7 @@ public class LoanService {
                                 .build()
                                 : null
                 )
-                .createdBy(userId)
-                .updatedBy(userId)
-                .createdAt(Instant.now())
-                .updatedAt(Instant.now())
-                .deleted(false)
                 .build();
-
-        if (request.getAction() == LoanCreateAction.SUBMIT) {
-
-            validateForSubmit(loan);
-
-            loan.setStatus(LoanStatus.SUBMITTED);
-            loan.setProposedInterestRate(calculatePricing(loan));
-
-        } else {
-            loan.setStatus(LoanStatus.DRAFT);
-        }
-
-        loan.getActions().add(
-                LoanAction.builder()
-                        .by(userId)
-                        .action(
-                                loan.getStatus() == LoanStatus.DRAFT
-                                        ? "SAVED_DRAFT"
-                                        : "SUBMITTED"
-                        )
-                        .timestamp(Instant.now())
-                        .build()
-        );
-
-        return toDto(loanRepository.save(loan));
     }
 
     // ==================================================
@@ -128,45 +152,54 @@ public class LoanService {
                                       String userId,
                                       Role role) {
 
-        Loan loan = loanRepository.findById(id)
-                .orElseThrow(() -> new IllegalArgumentException("Loan not found"));
+        // Re-read and re-apply on a version conflict instead of overwriting a concurrent edit.
+        return retryExecutor.execute("updateLoan", () -> transactionalRunner.run(() -> {
 
-        if (loan.isDeleted())
-            throw new IllegalStateException("Loan is deleted");
+            Loan loan = loanRepository.findById(id)
+                    .orElseThrow(() -> new IllegalArgumentException("Loan not found"));
 
-        if (role == Role.USER && loan.getStatus() != LoanStatus.DRAFT)
-            throw new IllegalStateException("USER can edit only DRAFT loans");
-
-        loan.setClientName(request.getClientName());
-        loan.setLoanType(request.getLoanType());
-        loan.setRequestedAmount(request.getRequestedAmount());
-        loan.setTenureMonths(request.getTenureMonths());
-
-        loan.setFinancials(
-                Financials.builder()
-                        .revenue(request.getFinancials().getRevenue())
-                        .ebitda(request.getFinancials().getEbitda())
-                        .rating(request.getFinancials().getRating())
-                        .build()
-        );
-
-        if (role == Role.ADMIN) {
-            loan.setSanctionedAmount(request.getSanctionedAmount());
-            loan.setApprovedInterestRate(request.getApprovedInterestRate());
-        }
+            if (loan.isDeleted())
+                throw new IllegalStateException("Loan is deleted");
 
-        loan.setUpdatedBy(userId);
-        loan.setUpdatedAt(Instant.now());
+            if (role == Role.USER && loan.getStatus() != LoanStatus.DRAFT)
+                throw new IllegalStateException("USER can edit only DRAFT loans");
 
-        loan.getActions().add(
-                LoanAction.builder()
-                        .by(userId)
-                        .action("UPDATED")
-                        .timestamp(Instant.now())
-                        .build()
-        );
+            LoanSnapshot before = LoanSnapshot.of(loan);
 
-        return toDto(loanRepository.save(loan));
+            loan.setClientName(request.getClientName());
+            loan.setLoanType(request.getLoanType());
+            loan.setRequestedAmount(request.getRequestedAmount());
+            loan.setTenureMonths(request.getTenureMonths());
+
+            loan.setFinancials(
+                    Financials.builder()
+                            .revenue(request.getFinancials().getRevenue())
+                            .ebitda(request.getFinancials().getEbitda())
+                            .rating(request.getFinancials().getRating())
+                            .build()
+            );
+
+            if (role == Role.ADMIN) {
+                loan.setSanctionedAmount(request.getSanctionedAmount());
+                loan.setApprovedInterestRate(request.getApprovedInterestRate());
+            }
+
+            loan.setUpdatedBy(userId);
+            loan.setUpdatedAt(Instant.now());
+
+            LoanAction action = LoanAction.builder()
+                    .by(userId)
+                    .action("UPDATED")
+                    .timestamp(Instant.now())
+                    .build();
+
+            Loan saved = saveWithAction(loan, action);
+
+            eventPublisher.publish(LoanEvent.of(
+                    LoanEventType.UPDATED, id, userId, before, LoanSnapshot.of(saved)));
+
+            return toDto(saved);
+        }));
     }
 
     // ==================================================
@@ -177,48 +210,97 @@ public class LoanService {
                                         String userId,
                                         Role role) {
 
-        Loan loan = loanRepository.findById(id)
-                .orElseThrow(() -> new IllegalArgumentException("Loan not found"));
+        // Paths that read the loan first pin the write to the version they read; on a
+        // conflict the whole transition is re-read and re-checked.
+        return retryExecutor.execute("changeStatus", () -> transactionalRunner.run(() ->
+                applyStatusChange(id, request, userId, role)));
+    }
+
+    private LoanResponseDto applyStatusChange(String id,
+                                              LoanStatusUpdateRequest request,
+                                              String userId,
+                                              Role role) {
 
-        LoanStatus from = loan.getStatus();
         LoanStatus to = request.getStatus();
+        Instant now = Instant.now();
+
+        Update update = new Update()
+                .set("status", to)
+                .set("updatedBy", userId)
+                .set("updatedAt", now);
+
+        // The expected current status is part of the update filter, so two
+        // concurrent transitions from the same state cannot both succeed.
+        Criteria precondition = Criteria.where("deleted").is(false);
+        LoanStatus from;
+        String rejection = null;
 
         if (role == Role.USER) {
 
-            if (from == LoanStatus.DRAFT && to == LoanStatus.SUBMITTED) {
-                validateForSubmit(loan);
-            } else {
+            if (to != LoanStatus.SUBMITTED)
                 throw new IllegalStateException("Invalid USER status transition");
-            }
-        }
 
-        if (role == Role.ADMIN) {
+            // Submit validates the whole loan, so the loan that moves must be the one validated.
+            Loan loan = readForTransition(id);
+
+            if (loan.getStatus() != LoanStatus.DRAFT)
+                throw new IllegalStateException("Invalid USER status transition");
 
-            if (from == LoanStatus.UNDER_REVIEW &&
-                    (to == LoanStatus.APPROVED || to == LoanStatus.REJECTED)) {
+            validateForSubmit(loan);
 
-                loan.setApprovedBy(userId);
-                loan.setApprovedAt(Instant.now());
+            from = LoanStatus.DRAFT;
+            precondition.and("status").is(from).and("version").is(loan.getVersion());
 
-            } else if (to != LoanStatus.UNDER_REVIEW) {
-                throw new IllegalStateException("Invalid ADMIN status transition");
-            }
+        } else if (to == LoanStatus.APPROVED || to == LoanStatus.REJECTED) {
+
+            from = LoanStatus.UNDER_REVIEW;
+            precondition.and("status").is(from);
+            update.set("approvedBy", userId).set("approvedAt", now);
+            rejection = "Invalid ADMIN status transition";
+
+        } else if (to == LoanStatus.UNDER_REVIEW) {
+
+            // Any status may go (back) to review; read it so the event knows where it came from.
+            Loan loan = readForTransition(id);
+
+            from = loan.getStatus();
+            precondition.and("status").is(from).and("version").is(loan.getVersion());
+
+        } else {
+            throw new IllegalStateException("Invalid ADMIN status transition");
         }
 
-        loan.setStatus(to);
-        loan.setUpdatedBy(userId);
-        loan.setUpdatedAt(Instant.now());
+        LoanAction action = LoanAction.builder()
+                .by(userId)
+                .action("STATUS_" + to.name())
+                .comments(request.getComments())
+                .timestamp(now)
+                .build();
+
+        String unmatched = rejection;
+        Loan updated = loanRepository.updateIfMatches(id, precondition, withAction(update, action))
+                .orElseThrow(() -> unmatched != null
+                        ? rejected(id, unmatched)
+                        : new OptimisticLockingFailureException("Loan " + id + " changed since it was read"));
+
+        recordAction(id, action);
+
+        LoanSnapshot after = LoanSnapshot.of(updated);
+        eventPublisher.publish(LoanEvent.of(
+                LoanEventType.STATUS_CHANGED, id, userId, after.toBuilder().status(from).build(), after));
+
+        return toDto(updated);
+    }
 
-        loan.getActions().add(
-                LoanAction.builder()
-                        .by(userId)
-                        .action("STATUS_" + to.name())
-                        .comments(request.getComments())
-                        .timestamp(Instant.now())
-                        .build()
-        );
+    private Loan readForTransition(String id) {
 
-        return toDto(loanRepository.save(loan));
+        Loan loan = loanRepository.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Loan not found"));
+
+        if (loan.isDeleted())
+            throw new IllegalStateException("Loan is deleted");
+
+        return loan;
     }
 
     // ==================================================
@@ -239,19 +321,17 @@ public class LoanService {
                                                     int size,
                                                     LoanStatus status,
                                                     String createdBy) {
+        return listLoans(LoanSearchCriteria.of(status, createdBy), page, size);
+    }
+
+    public PagedResponse<LoanResponseDto> listLoans(LoanSearchCriteria filter,
+                                                    int page,
+                                                    int size) {
 
         Pageable pageable =
                 PageRequest.of(page, size, Sort.by("createdAt").descending());
 
-        Page<Loan> loans;
-
-        if (createdBy != null) {
-            loans = loanRepository.findByDeletedFalseAndCreatedBy(createdBy, pageable);
-        } else if (status != null) {
-            loans = loanRepository.findByDeletedFalseAndStatus(status, pageable);
-        } else {
-            loans = loanRepository.findByDeletedFalse(pageable);
-        }
+        Page<Loan> loans = loanRepository.search(filter, pageable);
 
         return PagedResponse.<LoanResponseDto>builder()
                 .content(loans.getContent().stream().map(this::toDto).toList())
@@ -262,10 +342,42 @@ public class LoanService {
                 .build();
     }
 
+    /**
+     * Keyset ("seek") paging: no skip, and the total is only counted when asked for.
+     * An empty cursor starts from the newest loan. Sizes above MAX_CURSOR_PAGE_SIZE are capped.
+     */
+    public PagedResponse<LoanResponseDto> listLoansByCursor(String cursor,
+                                                            int size,
+                                                            LoanSearchCriteria filter,
+                                                            boolean withTotal) {
+
+        if (size < 1)
+            throw new IllegalArgumentException("Page size must be at least 1");
+        size = Math.min(size, MAX_CURSOR_PAGE_SIZE);
+
+        LoanCursor after = StringUtils.hasText(cursor) ? LoanCursor.decode(cursor) : null;
+
+        // One extra row tells us whether there is a next page without counting.
+        List<Loan> loans = loanRepository.searchAfter(filter, after, size + 1);
+
+        boolean hasMore = loans.size() > size;
+        if (hasMore) {
+            loans = loans.subList(0, size);
+        }
+
+        return PagedResponse.<LoanResponseDto>builder()
+                .content(loans.stream().map(this::toDto).toList())
+                .size(size)
+                .totalElements(withTotal ? loanRepository.count(filter) : -1)
+                .totalPages(-1)
+                .nextCursor(hasMore ? LoanCursor.of(loans.get(loans.size() - 1)).encode() : null)
+                .build();
+    }
+
     // ==================================================
     // DTO MAPPER
     // ==================================================
-    private LoanResponseDto toDto(Loan loan) {
+    public LoanResponseDto toDto(Loan loan) {
 
         FinancialsDto finDto = loan.getFinancials() == null ? null :
                 FinancialsDto.builder()
@@ -286,6 +398,8 @@ public class LoanService {
                 .createdBy(loan.getCreatedBy())
                 .approvedBy(loan.getApprovedBy())
                 .approvedAt(loan.getApprovedAt())
+                .actionCount(loan.getActionCount())
+                .lastAction(loan.getLastAction() == null ? null : toActionDto(loan.getLastAction()))
                 .deleted(loan.isDeleted())
                 .build();
     }
@@ -294,27 +408,98 @@ public class LoanService {
     @Transactional
     public void softDeleteLoan(String id, String userId) {
 
-        Loan loan = loanRepository.findById(id)
-                .orElseThrow(() -> new IllegalArgumentException("Loan not found"));
+        Instant now = Instant.now();
+
+        LoanAction action = LoanAction.builder()
+                .by(userId)
+                .action("DELETED")
+                .timestamp(now)
+                .build();
+
+        Update update = new Update()
+                .set("deleted", true)
+                .set("deletedAt", now)
+                .set("updatedBy", userId)
+                .set("updatedAt", now);
 
-        if (loan.isDeleted()) {
-            return;
+        Loan deleted = loanRepository
+                .updateIfMatches(id, Criteria.where("deleted").is(false), withAction(update, action))
+                .orElse(null);
+
+        if (deleted == null) {
+            if (!loanRepository.existsById(id))
+                throw new IllegalArgumentException("Loan not found");
+            return; // already deleted
         }
 
-        loan.setDeleted(true);
-        loan.setDeletedAt(Instant.now());
-        loan.setUpdatedBy(userId);
-        loan.setUpdatedAt(Instant.now());
+        recordAction(id, action);
+
+        LoanSnapshot after = LoanSnapshot.of(deleted);
+        eventPublisher.publish(LoanEvent.of(
+                LoanEventType.DELETED, id, userId, after.toBuilder().deleted(false).build(), after));
+    }
+
+    // ==================================================
+    // AUDIT TRAIL (loan_actions collection)
+    // ==================================================
+    public PagedResponse<LoanActionDto> getLoanActions(String loanId, int page, int size) {
 
-        loan.getActions().add(
-                LoanAction.builder()
-                        .by(userId)
-                        .action("DELETED")
-                        .timestamp(Instant.now())
-                        .build()
-        );
+        if (!loanRepository.existsById(loanId))
+            throw new IllegalArgumentException("Loan not found");
 
-        loanRepository.save(loan);
+        Page<LoanAction> actions = loanActionRepository.findByLoanId(
+                loanId,
+                PageRequest.of(page, size, Sort.by("timestamp").descending()));
+
+        return PagedResponse.<LoanActionDto>builder()
+                .content(actions.getContent().stream().map(this::toActionDto).toList())
+                .page(actions.getNumber())
+                .size(actions.getSize())
+                .totalElements(actions.getTotalElements())
+                .totalPages(actions.getTotalPages())
+                .build();
+    }
+
+    // Loan keeps only a counter and the last action; the entry itself is appended to loan_actions.
+    private Loan saveWithAction(Loan loan, LoanAction action) {
+
+        loan.setActionCount(loan.getActionCount() + 1);
+        loan.setLastAction(action);
+
+        Loan saved = loanRepository.save(loan);
+
+        recordAction(saved.getId(), action);
+
+        return saved;
+    }
+
+    // Partial-update counterpart of saveWithAction: $inc the counter, $set the last action.
+    private Update withAction(Update update, LoanAction action) {
+        return update
+                .inc("actionCount", 1)
+                .set("lastAction", action)
+                .inc("version", 1); // keep @Version in step so concurrent save()s see the change
+    }
+
+    private void recordAction(String loanId, LoanAction action) {
+        loanActionRepository.save(action.toBuilder().loanId(loanId).build());
+    }
+
+    // Conditional update matched nothing: report a missing loan as such, anything else as a conflict.
+    private RuntimeException rejected(String id, String message) {
+        return loanRepository.findById(id)
+                .<RuntimeException>map(loan -> new IllegalStateException(
+                        loan.isDeleted() ? "Loan is deleted" : message))
+                .orElseGet(() -> new IllegalArgumentException("Loan not found"));
+    }
+
+    private LoanActionDto toActionDto(LoanAction action) {
+        return LoanActionDto.builder()
+                .by(action.getBy())
+                .action(action.getAction())
+                .comments(action.getComments())
+                .timestamp(action.getTimestamp())
+                .build();
     }
 
 }
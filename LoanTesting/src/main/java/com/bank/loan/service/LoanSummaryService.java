@@ -0,0 +1,267 @@
+package com.bank.loan.service;
+
+import com.bank.loan.cache.TtlCache;
+import com.bank.loan.dto.LoanSummaryDto;
+import com.bank.loan.event.LoanEvent;
+import com.bank.loan.event.LoanEventHandler;
+import com.bank.loan.event.LoanSnapshot;
+import com.bank.loan.model.Loan;
+import com.bank.loan.model.LoanSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOptions;
+import org.springframework.data.mongodb.core.aggregation.MergeOperation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.group;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.match;
+
+/**
+ * Read model of loan counts and amounts per status, creator and loan type.
+ *
+ * Each loan event moves the loan's contribution from its "before" buckets to its
+ * "after" buckets with $inc, so reads never scan loans. Reads are served from a
+ * short-lived local cache; the cache TTL bounds how stale another node's view can be.
+ * The read model is built from loans at startup if loan_summaries is empty.
+ */
+@Slf4j
+@Service
+@Order(2)
+public class LoanSummaryService implements LoanEventHandler, ApplicationRunner {
+
+    static final String NONE = "none";
+
+    private static final String ALL = "all";
+    private static final List<String> DIMENSIONS =
+            List.of(LoanSummary.STATUS, LoanSummary.CREATED_BY, LoanSummary.LOAN_TYPE);
+
+    private final MongoTemplate mongoTemplate;
+    private final Duration ttl;
+    private final TtlCache<String, LoanSummaryDto> overview;
+    private final TtlCache<String, LoanSummaryDto.Totals> byUser;
+
+    public LoanSummaryService(
+            MongoTemplate mongoTemplate,
+            @Value("${app.summary.cache-ttl-ms:5000}") long ttlMs,
+            @Value("${app.summary.cache-max-users:10000}") int maxUsers,
+            MeterRegistry meterRegistry) {
+        this.mongoTemplate = mongoTemplate;
+        this.ttl = Duration.ofMillis(ttlMs);
+        this.overview = new TtlCache<String, LoanSummaryDto>(1)
+                .bindTo(meterRegistry, "loan-summary");
+        this.byUser = new TtlCache<String, LoanSummaryDto.Totals>(maxUsers)
+                .bindTo(meterRegistry, "loan-summary-users");
+    }
+
+    // ===== READ =====
+
+    public LoanSummaryDto summary(String userId) {
+
+        LoanSummaryDto all = overview.get(ALL, k -> loadOverview(), ttl);
+        if (userId == null) {
+            return all;
+        }
+
+        return LoanSummaryDto.builder()
+                .byStatus(all.getByStatus())
+                .byLoanType(all.getByLoanType())
+                .mine(byUser.get(userId, this::loadUser, ttl))
+                .build();
+    }
+
+    private LoanSummaryDto loadOverview() {
+
+        Map<String, LoanSummaryDto.Totals> byStatus = new TreeMap<>();
+        Map<String, LoanSummaryDto.Totals> byLoanType = new TreeMap<>();
+
+        Query query = new Query(Criteria.where("dimension").in(LoanSummary.STATUS, LoanSummary.LOAN_TYPE));
+        for (LoanSummary row : mongoTemplate.find(query, LoanSummary.class)) {
+            (LoanSummary.STATUS.equals(row.getDimension()) ? byStatus : byLoanType)
+                    .put(row.getKey(), totals(row));
+        }
+
+        return LoanSummaryDto.builder()
+                .byStatus(byStatus)
+                .byLoanType(byLoanType)
+                .build();
+    }
+
+    private LoanSummaryDto.Totals loadUser(String userId) {
+        LoanSummary row = mongoTemplate.findById(
+                LoanSummary.id(LoanSummary.CREATED_BY, userId), LoanSummary.class);
+        return row != null ? totals(row) : new LoanSummaryDto.Totals(0, 0, 0);
+    }
+
+    private static LoanSummaryDto.Totals totals(LoanSummary row) {
+        return new LoanSummaryDto.Totals(row.getCount(), row.getRequestedAmount(), row.getSanctionedAmount());
+    }
+
+    // ===== INCREMENTAL UPDATE =====
+
+    @Override
+    public void handle(LoanEvent event) {
+
+        Collection<Delta> deltas = deltas(event);
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        Instant now = Instant.now();
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, LoanSummary.class);
+        for (Delta d : deltas) {
+            bulk.upsert(
+                    new Query(Criteria.where("_id").is(LoanSummary.id(d.dimension(), d.key()))),
+                    new Update()
+                            .inc("count", d.count())
+                            .inc("requestedAmount", d.requestedAmount())
+                            .inc("sanctionedAmount", d.sanctionedAmount())
+                            .set("dimension", d.dimension())
+                            .set("key", d.key())
+                            .set("updatedAt", now));
+        }
+        bulk.execute();
+
+        overview.invalidate(ALL);
+        for (Delta d : deltas) {
+            if (LoanSummary.CREATED_BY.equals(d.dimension())) byUser.invalidate(d.key());
+        }
+    }
+
+    /**
+     * Net change per summary row: the "before" state is subtracted, the "after" state added.
+     * Rows whose totals do not change (e.g. the loan type on a status change) are dropped.
+     */
+    static Collection<Delta> deltas(LoanEvent event) {
+
+        Map<String, Delta> deltas = new LinkedHashMap<>();
+        accumulate(deltas, event.getBefore(), -1);
+        accumulate(deltas, event.getAfter(), 1);
+
+        deltas.values().removeIf(Delta::isZero);
+        return deltas.values();
+    }
+
+    private static void accumulate(Map<String, Delta> deltas, LoanSnapshot snapshot, int sign) {
+
+        if (snapshot == null || snapshot.isDeleted()) {
+            return;
+        }
+
+        long requested = sign * value(snapshot.getRequestedAmount());
+        long sanctioned = sign * value(snapshot.getSanctionedAmount());
+
+        String status = snapshot.getStatus() != null ? snapshot.getStatus().name() : null;
+        for (String[] bucket : new String[][]{
+                {LoanSummary.STATUS, status},
+                {LoanSummary.CREATED_BY, snapshot.getCreatedBy()},
+                {LoanSummary.LOAN_TYPE, snapshot.getLoanType()}}) {
+            Delta d = new Delta(bucket[0], keyOf(bucket[1]), sign, requested, sanctioned);
+            deltas.merge(LoanSummary.id(d.dimension(), d.key()), d, Delta::plus);
+        }
+    }
+
+    // ===== REBUILD =====
+
+    // Builds the read model on first start, after LoanDocumentMigrations (@Order(1)).
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!mongoTemplate.exists(new Query(), LoanSummary.class)) {
+            log.info("loan_summaries is empty, building it from loans");
+            rebuild();
+        }
+    }
+
+    /**
+     * Recomputes every row from the loans collection. The aggregation $merges the new
+     * rows over the existing ones, then rows it did not write (keys with no live loans
+     * left) are removed, so readers never see an empty or partial read model.
+     * Events applied while this runs may be lost or counted twice, so run it when
+     * the event stream is quiet (after a restore, or when totals are known to drift).
+     */
+    public int rebuild() {
+
+        // Millisecond precision, as stored, so the stale-row cut-off below is exact.
+        Instant now = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+
+        for (String dimension : DIMENSIONS) {
+            Aggregation aggregation = Aggregation.newAggregation(
+                    match(Criteria.where("deleted").is(false)),
+                    group(dimension)
+                            .count().as("count")
+                            .sum("requestedAmount").as("requestedAmount")
+                            .sum("sanctionedAmount").as("sanctionedAmount"),
+                    toSummaryRow(dimension, now),
+                    Aggregation.merge()
+                            .intoCollection(mongoTemplate.getCollectionName(LoanSummary.class))
+                            .on("_id")
+                            .whenMatched(MergeOperation.WhenDocumentsMatch.replaceDocument())
+                            .whenDocumentsDontMatch(MergeOperation.WhenDocumentsDontMatch.insertNewDocument())
+                            .build())
+                    .withOptions(AggregationOptions.builder().skipOutput().build());
+
+            mongoTemplate.aggregate(aggregation, Loan.class, Document.class);
+        }
+
+        long stale = mongoTemplate.remove(
+                new Query(Criteria.where("updatedAt").lt(now)), LoanSummary.class).getDeletedCount();
+        int rows = (int) mongoTemplate.count(new Query(), LoanSummary.class);
+
+        overview.invalidateAll();
+        byUser.invalidateAll();
+
+        log.info("Rebuilt loan summaries: {} rows, {} stale rows removed", rows, stale);
+        return rows;
+    }
+
+    // Group output -> a LoanSummary document with id "<dimension>:<key>".
+    private static AggregationOperation toSummaryRow(String dimension, Instant now) {
+        Document key = new Document("$ifNull", List.of(new Document("$toString", "$_id"), NONE));
+        return context -> new Document("$project", new Document()
+                .append("_id", new Document("$concat", List.of(dimension + ":", key)))
+                .append("dimension", new Document("$literal", dimension))
+                .append("key", key)
+                .append("count", new Document("$toLong", "$count"))
+                .append("requestedAmount", new Document("$toLong", "$requestedAmount"))
+                .append("sanctionedAmount", new Document("$toLong", "$sanctionedAmount"))
+                .append("updatedAt", new Document("$literal", Date.from(now))));
+    }
+
+    private static String keyOf(String value) {
+        return value != null ? value : NONE;
+    }
+
+    private static long value(Long amount) {
+        return amount != null ? amount : 0L;
+    }
+
+    record Delta(String dimension, String key, long count, long requestedAmount, long sanctionedAmount) {
+
+        Delta plus(Delta other) {
+            return new Delta(dimension, key,
+                    count + other.count,
+                    requestedAmount + other.requestedAmount,
+                    sanctionedAmount + other.sanctionedAmount);
+        }
+
+        boolean isZero() {
+            return count == 0 && requestedAmount == 0 && sanctionedAmount == 0;
+        }
+    }
+}
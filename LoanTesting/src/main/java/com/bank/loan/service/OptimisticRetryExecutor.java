@@ -0,0 +1,82 @@
+package com.bank.loan.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Re-runs a read-modify-write block when the save hits a stale @Version.
+ * The block must re-read the entity itself so each attempt starts from fresh state.
+ *
+ * Publishes loan.update.attempts / loan.update.conflicts / loan.update.exhausted,
+ * tagged by operation, so contention on hot loans shows up as a conflict rate.
+ */
+@Slf4j
+@Component
+public class OptimisticRetryExecutor {
+
+    private final int maxAttempts;
+    private final long initialBackoffMs;
+    private final long maxBackoffMs;
+    private final MeterRegistry meterRegistry;
+
+    public OptimisticRetryExecutor(
+            @Value("${app.retry.max-attempts:4}") int maxAttempts,
+            @Value("${app.retry.initial-backoff-ms:10}") long initialBackoffMs,
+            @Value("${app.retry.max-backoff-ms:200}") long maxBackoffMs,
+            MeterRegistry meterRegistry) {
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.initialBackoffMs = initialBackoffMs;
+        this.maxBackoffMs = maxBackoffMs;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public <T> T execute(String operation, Supplier<T> action) {
+
+        long backoffMs = initialBackoffMs;
+
+        for (int attempt = 1; ; attempt++) {
+
+            counter("loan.update.attempts", operation).increment();
+
+            try {
+                return action.get();
+            } catch (OptimisticLockingFailureException e) {
+
+                counter("loan.update.conflicts", operation).increment();
+
+                if (attempt >= maxAttempts) {
+                    counter("loan.update.exhausted", operation).increment();
+                    log.warn("{} still conflicting after {} attempts", operation, attempt);
+                    throw new IllegalStateException("Loan was modified concurrently, please retry", e);
+                }
+
+                sleep(backoffMs);
+                backoffMs = Math.min(backoffMs * 2, maxBackoffMs);
+            }
+        }
+    }
+
+    private Counter counter(String name, String operation) {
+        return meterRegistry.counter(name, "operation", operation);
+    }
+
+    // Full jitter so competing writers do not retry in lock-step.
+    private void sleep(long backoffMs) {
+        if (backoffMs <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(backoffMs + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while retrying update", e);
+        }
+    }
+}
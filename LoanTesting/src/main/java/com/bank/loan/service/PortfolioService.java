@@ -0,0 +1,67 @@
+package com.bank.loan.service;
+
+import com.bank.loan.cache.TtlCache;
+import com.bank.loan.repository.LoanRepository;
+import com.bank.loan.repository.PortfolioGroup;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Portfolio breakdowns computed server-side by aggregation pipelines. Dashboards
+ * poll these, so results are cached per parameter set for a short TTL.
+ */
+@Service
+public class PortfolioService {
+
+    private static final int MAX_BUCKETS = 50;
+
+    private final LoanRepository loanRepository;
+    private final long[] defaultBoundaries;
+    private final Duration ttl;
+    private final TtlCache<String, List<PortfolioGroup>> cache;
+
+    public PortfolioService(
+            LoanRepository loanRepository,
+            @Value("${app.portfolio.amount-boundaries:0,1000000,5000000,10000000,50000000,100000000}") long[] defaultBoundaries,
+            @Value("${app.portfolio.cache-ttl-ms:30000}") long ttlMs,
+            MeterRegistry meterRegistry) {
+        this.loanRepository = loanRepository;
+        this.defaultBoundaries = checkBoundaries(defaultBoundaries);
+        this.ttl = Duration.ofMillis(ttlMs);
+        this.cache = new TtlCache<String, List<PortfolioGroup>>(1_000)
+                .bindTo(meterRegistry, "portfolio");
+    }
+
+    public List<PortfolioGroup> exposureByRating() {
+        return cache.get("exposureByRating", k -> loanRepository.exposureByRating(), ttl);
+    }
+
+    public List<PortfolioGroup> averageRateByLoanType() {
+        return cache.get("averageRateByLoanType", k -> loanRepository.averageRateByLoanType(), ttl);
+    }
+
+    public List<PortfolioGroup> amountHistogram(long[] boundaries, String loanType) {
+
+        long[] bounds = boundaries != null ? checkBoundaries(boundaries) : defaultBoundaries;
+        String key = "amountHistogram:" + Arrays.toString(bounds) + ":" + loanType;
+
+        return cache.get(key, k -> loanRepository.requestedAmountHistogram(bounds, loanType), ttl);
+    }
+
+    private static long[] checkBoundaries(long[] boundaries) {
+
+        if (boundaries.length < 2 || boundaries.length > MAX_BUCKETS + 1)
+            throw new IllegalArgumentException("Between 2 and " + (MAX_BUCKETS + 1) + " boundaries required");
+
+        for (int i = 1; i < boundaries.length; i++) {
+            if (boundaries[i] <= boundaries[i - 1])
+                throw new IllegalArgumentException("Boundaries must be strictly ascending");
+        }
+        return boundaries;
+    }
+}
@@ -0,0 +1,40 @@
+package com.bank.loan.service;
+
+import com.bank.loan.dto.LoanResponseDto;
+import com.bank.loan.repository.LoanSearchCriteria;
+import com.bank.loan.repository.ReactiveLoanRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Read-only loan queries on the reactive Mongo driver. Same results and errors
+ * as the corresponding {@link LoanService} reads; no request thread waits on Mongo.
+ */
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.reactive.enabled", havingValue = "true")
+public class ReactiveLoanService {
+
+    private final ReactiveLoanRepository reactiveLoanRepository;
+    private final LoanService loanService;
+
+    public Mono<LoanResponseDto> getLoan(String id) {
+        return reactiveLoanRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new IllegalArgumentException("Loan not found")))
+                .flatMap(loan -> loan.isDeleted()
+                        ? Mono.error(new IllegalStateException("Loan is deleted"))
+                        : Mono.just(loanService.toDto(loan)));
+    }
+
+    public Flux<LoanResponseDto> search(LoanSearchCriteria filter, int limit) {
+
+        if (limit < 0)
+            throw new IllegalArgumentException("limit must not be negative");
+
+        return reactiveLoanRepository.search(filter, limit)
+                .map(loanService::toDto);
+    }
+}
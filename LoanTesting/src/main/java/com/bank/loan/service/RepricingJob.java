@@ -0,0 +1,360 @@
+package com.bank.loan.service;
+
+import com.bank.loan.model.Loan;
+import com.bank.loan.model.LoanAction;
+import com.bank.loan.model.RepricingCheckpoint;
+import com.bank.loan.model.RepricingLease;
+import com.bank.loan.model.RepricingStatus;
+import com.bank.loan.pricing.PricingEngine;
+import com.bank.loan.pricing.RateGrid;
+import com.bank.loan.repository.LoanActionRepository;
+import com.bank.loan.repository.LoanRateUpdate;
+import com.bank.loan.repository.LoanRepository;
+import com.bank.loan.repository.RepricingCheckpointRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Recomputes proposedInterestRate for every open loan against the current rate grid.
+ *
+ * Loans are read in id order in chunks, priced in parallel on a bounded worker pool
+ * and written back with one bulk write per chunk; only loans whose rate changes are
+ * written, and only if the loan has not changed since it was read; a loan edited in
+ * between is skipped and picked up by the next run. Every rate change is recorded in
+ * loan_actions. A checkpoint is saved after every chunk, so starting the job again for
+ * the same grid version resumes where the previous run stopped.
+ *
+ * One run across all nodes: starting takes the lease in repricing_leases (owner +
+ * expiry, taken with a conditional update), and the lease is renewed before every
+ * chunk and before its checkpoint is saved. A run that finds its lease taken over
+ * stops without touching the checkpoint, which now belongs to the other node.
+ */
+@Slf4j
+@Service
+public class RepricingJob {
+
+    static final String REPRICED = "REPRICED";
+    static final String SYSTEM_USER = "system";
+    static final String LEASE_ID = "repricing";
+
+    private final LoanRepository loanRepository;
+    private final LoanActionRepository loanActionRepository;
+    private final RepricingCheckpointRepository checkpointRepository;
+    private final MongoTemplate mongoTemplate;
+    private final PricingEngine pricingEngine;
+    private final Duration leaseDuration;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final int chunkSize;
+    private final int parallelism;
+    private final ExecutorService workers;
+    private final Executor runner;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    private final Counter scannedCounter;
+    private final Counter updatedCounter;
+    private final Timer chunkTimer;
+
+    @Autowired
+    public RepricingJob(
+            LoanRepository loanRepository,
+            LoanActionRepository loanActionRepository,
+            RepricingCheckpointRepository checkpointRepository,
+            MongoTemplate mongoTemplate,
+            PricingEngine pricingEngine,
+            @Value("${app.repricing.chunk-size:500}") int chunkSize,
+            @Value("${app.repricing.workers:4}") int workers,
+            @Value("${app.repricing.lease-ms:300000}") long leaseMs,
+            MeterRegistry meterRegistry) {
+        this(loanRepository, loanActionRepository, checkpointRepository, mongoTemplate, pricingEngine,
+                chunkSize, workers, leaseMs, meterRegistry,
+                Executors.newSingleThreadExecutor(new CustomizableThreadFactory("repricing-job-")));
+    }
+
+    RepricingJob(LoanRepository loanRepository,
+                 LoanActionRepository loanActionRepository,
+                 RepricingCheckpointRepository checkpointRepository,
+                 MongoTemplate mongoTemplate,
+                 PricingEngine pricingEngine,
+                 int chunkSize,
+                 int workers,
+                 long leaseMs,
+                 MeterRegistry meterRegistry,
+                 Executor runner) {
+
+        if (chunkSize <= 0 || workers <= 0 || leaseMs <= 0)
+            throw new IllegalArgumentException("Re-pricing chunk size, workers and lease must be positive");
+
+        this.loanRepository = loanRepository;
+        this.loanActionRepository = loanActionRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.pricingEngine = pricingEngine;
+        this.leaseDuration = Duration.ofMillis(leaseMs);
+        this.chunkSize = chunkSize;
+        this.parallelism = workers;
+        this.runner = runner;
+
+        // At most one chunk is in flight, split into `workers` slices, so the queue never fills.
+        this.workers = new ThreadPoolExecutor(
+                workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(workers),
+                new CustomizableThreadFactory("repricing-worker-"),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+
+        this.scannedCounter = Counter.builder("loan.repricing.loans")
+                .tag("result", "scanned")
+                .register(meterRegistry);
+        this.updatedCounter = Counter.builder("loan.repricing.loans")
+                .tag("result", "updated")
+                .register(meterRegistry);
+        this.chunkTimer = Timer.builder("loan.repricing.chunk")
+                .register(meterRegistry);
+        Gauge.builder("loan.repricing.running", running, r -> r.get() ? 1 : 0)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Starts (or resumes) a run for the current grid version in the background.
+     */
+    public RepricingCheckpoint start() {
+
+        if (!running.compareAndSet(false, true))
+            throw new IllegalStateException("Re-pricing job is already running");
+
+        try {
+            if (!holdLease())
+                throw new IllegalStateException("Re-pricing job is already running on another node");
+
+            RateGrid grid = pricingEngine.currentGrid();
+            Instant now = Instant.now();
+
+            RepricingCheckpoint checkpoint = checkpointRepository.findTopByOrderByStartedAtDesc()
+                    .filter(c -> c.getStatus() != RepricingStatus.COMPLETED)
+                    .filter(c -> grid.getVersion().equals(c.getGridVersion()))
+                    .orElseGet(() -> RepricingCheckpoint.builder()
+                            .gridVersion(grid.getVersion())
+                            .startedAt(now)
+                            .build());
+
+            checkpoint.setStatus(RepricingStatus.RUNNING);
+            checkpoint.setError(null);
+            checkpoint.setFinishedAt(null);
+            checkpoint.setUpdatedAt(now);
+
+            RepricingCheckpoint saved = checkpointRepository.save(checkpoint);
+            if (saved.getLastProcessedId() != null) {
+                log.info("Resuming re-pricing with grid {} after loan {}",
+                        grid.getVersion(), saved.getLastProcessedId());
+            }
+
+            runner.execute(() -> run(saved, grid));
+            return saved;
+
+        } catch (RuntimeException e) {
+            releaseLease();
+            running.set(false);
+            throw e;
+        }
+    }
+
+    public Optional<RepricingCheckpoint> latest() {
+        return checkpointRepository.findTopByOrderByStartedAtDesc();
+    }
+
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        workers.shutdownNow();
+        if (runner instanceof ExecutorService service) {
+            service.shutdownNow();
+        }
+    }
+
+    private void run(RepricingCheckpoint checkpoint, RateGrid grid) {
+
+        long started = System.nanoTime();
+        long scannedBefore = checkpoint.getScanned();
+        boolean leaseLost = false;
+
+        try {
+            List<Loan> chunk;
+            do {
+                if (!holdLease()) {
+                    leaseLost = true;
+                    break;
+                }
+
+                chunk = loanRepository.findOpenAfter(checkpoint.getLastProcessedId(), chunkSize);
+                if (chunk.isEmpty()) break;
+
+                Timer.Sample sample = Timer.start();
+                List<LoanRateUpdate> changes = price(chunk, grid);
+                long modified = write(changes, grid);
+                sample.stop(chunkTimer);
+
+                scannedCounter.increment(chunk.size());
+                updatedCounter.increment(modified);
+
+                checkpoint.setLastProcessedId(chunk.get(chunk.size() - 1).getId());
+                checkpoint.setScanned(checkpoint.getScanned() + chunk.size());
+                checkpoint.setUpdated(checkpoint.getUpdated() + modified);
+                checkpoint.setUpdatedAt(Instant.now());
+                if (!holdLease()) {
+                    leaseLost = true;
+                    break;
+                }
+                checkpointRepository.save(checkpoint);
+
+            } while (chunk.size() == chunkSize && !Thread.currentThread().isInterrupted());
+
+            checkpoint.setStatus(Thread.currentThread().isInterrupted() || leaseLost
+                    ? RepricingStatus.FAILED
+                    : RepricingStatus.COMPLETED);
+
+        } catch (RuntimeException e) {
+            log.error("Re-pricing with grid {} failed after loan {}",
+                    grid.getVersion(), checkpoint.getLastProcessedId(), e);
+            checkpoint.setStatus(RepricingStatus.FAILED);
+            checkpoint.setError(e.getMessage());
+
+        } finally {
+            Instant now = Instant.now();
+            checkpoint.setUpdatedAt(now);
+            if (checkpoint.getStatus() == RepricingStatus.COMPLETED) {
+                checkpoint.setFinishedAt(now);
+            }
+            if (leaseLost) {
+                // Another node took the lease (this one stalled past it) and owns the checkpoint now.
+                log.warn("Re-pricing with grid {} lost its lease after loan {}, stopping",
+                        grid.getVersion(), checkpoint.getLastProcessedId());
+            } else {
+                checkpointRepository.save(checkpoint);
+                releaseLease();
+            }
+            running.set(false);
+
+            long scanned = checkpoint.getScanned() - scannedBefore;
+            Duration took = Duration.ofNanos(System.nanoTime() - started);
+            log.info("Re-pricing with grid {} {}: {} loans scanned, {} updated in total, {} ms ({} loans/s)",
+                    grid.getVersion(), checkpoint.getStatus(), scanned, checkpoint.getUpdated(),
+                    took.toMillis(), scanned * 1000 / Math.max(1, took.toMillis()));
+        }
+    }
+
+    /**
+     * Takes or renews the re-pricing lease; false while another node holds it.
+     */
+    boolean holdLease() {
+        Instant now = Instant.now();
+        Query lease = new Query(Criteria.where("id").is(LEASE_ID).orOperator(
+                Criteria.where("owner").is(nodeId),
+                Criteria.where("lockedUntil").lt(now)));
+        try {
+            return mongoTemplate.findAndModify(
+                    lease,
+                    new Update().set("owner", nodeId).set("lockedUntil", now.plus(leaseDuration)),
+                    FindAndModifyOptions.options().upsert(true).returnNew(true),
+                    RepricingLease.class) != null;
+        } catch (DuplicateKeyException e) {
+            return false; // held by another node: the upsert collided with its lease
+        }
+    }
+
+    private void releaseLease() {
+        mongoTemplate.updateFirst(
+                new Query(Criteria.where("id").is(LEASE_ID).and("owner").is(nodeId)),
+                new Update().set("lockedUntil", Instant.EPOCH),
+                RepricingLease.class);
+    }
+
+    private long write(List<LoanRateUpdate> changes, RateGrid grid) {
+
+        if (changes.isEmpty()) {
+            return 0;
+        }
+
+        // Millisecond precision, so the action read back from Mongo compares equal.
+        LoanAction action = LoanAction.builder()
+                .by(SYSTEM_USER)
+                .action(REPRICED)
+                .comments("Re-priced with rate grid " + grid.getVersion())
+                .timestamp(Instant.now().truncatedTo(ChronoUnit.MILLIS))
+                .build();
+
+        List<LoanRateUpdate> applied = loanRepository.updateRates(changes, action);
+        if (!applied.isEmpty()) {
+            loanActionRepository.insert(applied.stream()
+                    .map(u -> action.toBuilder().loanId(u.loanId()).build())
+                    .toList());
+        }
+        return applied.size();
+    }
+
+    // Split the chunk across the workers; keep only loans whose rate actually changes.
+    private List<LoanRateUpdate> price(List<Loan> chunk, RateGrid grid) {
+
+        int slice = (chunk.size() + parallelism - 1) / parallelism;
+
+        List<Future<List<LoanRateUpdate>>> futures = new ArrayList<>();
+        for (int from = 0; from < chunk.size(); from += slice) {
+            List<Loan> part = chunk.subList(from, Math.min(chunk.size(), from + slice));
+            futures.add(workers.submit(() -> price(part, grid, new ArrayList<>())));
+        }
+
+        List<LoanRateUpdate> changes = new ArrayList<>();
+        for (Future<List<LoanRateUpdate>> future : futures) {
+            changes.addAll(await(future));
+        }
+        return changes;
+    }
+
+    private static List<LoanRateUpdate> price(List<Loan> loans, RateGrid grid, List<LoanRateUpdate> out) {
+        for (Loan loan : loans) {
+            double rate = grid.rate(loan);
+            Double current = loan.getProposedInterestRate();
+            if (current == null || Double.compare(current, rate) != 0) {
+                out.add(new LoanRateUpdate(loan.getId(), loan.getVersion(), rate));
+            }
+        }
+        return out;
+    }
+
+    private static <T> T await(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Re-pricing interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Re-pricing worker failed", e.getCause());
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.bank.loan.service;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.function.Supplier;
+
+/**
+ * Runs a block in its own transaction. Used where the transaction must be narrower
+ * than the calling method, e.g. one transaction per optimistic-locking retry attempt
+ * (a retry inside one transaction would keep reading the same snapshot).
+ */
+@Component
+public class TransactionalRunner {
+
+    @Transactional
+    public <T> T run(Supplier<T> work) {
+        return work.get();
+    }
+}
@@ -4,8 +4,11 @@ import com.bank.loan.dto.*;
 import com.bank.loan.model.Role;
 import com.bank.loan.model.User;
 import com.bank.loan.repository.UserRepository;
+import com.bank.loan.security.PrincipalCache;
+import com.bank.loan.security.RevokedAccountRegistry;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import java.time.Instant;
@@ -16,7 +19,9 @@ import java.util.List;
 public class UserService {
 
     private final UserRepository userRepository;
-    private final BCryptPasswordEncoder passwordEncoder;
+    private final PasswordEncoder passwordEncoder;
+    private final PrincipalCache principalCache;
+    private final RevokedAccountRegistry revokedAccounts;
 
     public UserResponseDto getCurrentUser(String email) {
         var user = userRepository.findByEmail(email)
@@ -43,15 +48,35 @@ public class UserService {
                 .createdAt(Instant.now())
                 .updatedAt(Instant.now())
                 .build();
-        return toDto(userRepository.save(user));
+        try {
+            return toDto(userRepository.save(user));
+        } catch (DuplicateKeyException e) {
+            // Lost a race with a concurrent create; the unique index on email caught it.
+            throw new IllegalArgumentException("Email already exists");
+        }
     }
 
     public UserResponseDto updateUserStatus(String id, UserStatusUpdateRequest request) {
         var user = userRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("User not found"));
         user.setActive(request.getActive());
+        user.setAccountVersion(user.getAccountVersion() + 1);
         user.setUpdatedAt(Instant.now());
-        return toDto(userRepository.save(user));
+        User saved = userRepository.save(user);
+        principalCache.evict(saved.getEmail());
+        revokedAccounts.revokeBefore(saved.getId(), saved.getAccountVersion());
+        return toDto(saved);
+    }
+
+    /**
+     * Re-encodes a user's password with the current encoder settings (prefix and
+     * BCrypt cost), given the raw password from a login that just verified against
+     * {@code currentHash}. Returns false if the stored hash changed in the meantime,
+     * e.g. a concurrent rehash or password change; nothing is written then.
+     */
+    public boolean upgradePassword(String userId, String currentHash, String rawPassword) {
+        return userRepository.updatePasswordIfUnchanged(
+                userId, currentHash, passwordEncoder.encode(rawPassword)) > 0;
     }
 
     public User findByEmail(String email) {
@@ -0,0 +1,96 @@
+package com.bank.loan.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TtlCacheTest {
+
+    private final MutableClock clock = new MutableClock();
+
+    @Test
+    void get_countsHitsAndMisses() {
+        TtlCache<String, String> cache = new TtlCache<>(10, clock);
+
+        assertNull(cache.get("a"));
+        cache.put("a", "A", Duration.ofSeconds(10));
+        assertEquals("A", cache.get("a"));
+
+        assertEquals(1, cache.hitCount());
+        assertEquals(1, cache.missCount());
+    }
+
+    @Test
+    void get_dropsExpiredEntries() {
+        TtlCache<String, String> cache = new TtlCache<>(10, clock);
+        cache.put("a", "A", Duration.ofSeconds(10));
+
+        clock.advance(Duration.ofSeconds(11));
+
+        assertNull(cache.get("a"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void loader_isCalledOnlyOnMiss() {
+        TtlCache<String, String> cache = new TtlCache<>(10, clock);
+        int[] loads = {0};
+
+        cache.get("a", k -> { loads[0]++; return "A"; }, Duration.ofSeconds(10));
+        cache.get("a", k -> { loads[0]++; return "A"; }, Duration.ofSeconds(10));
+
+        assertEquals(1, loads[0]);
+    }
+
+    @Test
+    void put_staysBounded() {
+        TtlCache<Integer, Integer> cache = new TtlCache<>(100, clock);
+
+        for (int i = 0; i < 1_000; i++) {
+            cache.put(i, i, Duration.ofMinutes(1));
+        }
+
+        assertTrue(cache.size() <= 100);
+        assertTrue(cache.evictionCount() > 0);
+    }
+
+    @Test
+    void invalidate_removesEntry() {
+        TtlCache<String, String> cache = new TtlCache<>(10, clock);
+        cache.put("a", "A", Duration.ofSeconds(10));
+
+        cache.invalidate("a");
+
+        assertNull(cache.get("a"));
+    }
+
+    private static class MutableClock extends Clock {
+
+        private Instant now = Instant.parse("2024-01-01T00:00:00Z");
+
+        void advance(Duration d) {
+            now = now.plus(d);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.bank.loan.config;
+
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.ServerAddress;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.junit.jupiter.api.*;
+import org.mockito.*;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class LoanDocumentMigrationsTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private BulkOperations bulk;
+
+    @InjectMocks
+    private LoanDocumentMigrations migrations;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, "loan_actions")).thenReturn(bulk);
+        when(bulk.insert(anyList())).thenReturn(bulk);
+        when(mongoTemplate.stream(any(Query.class), eq(Document.class), eq("loans")))
+                .thenAnswer(i -> Stream.of(new Document("_id", "L1").append("actions", List.of(
+                        new Document("action", "SAVED_DRAFT"),
+                        new Document("action", "SUBMITTED")))));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void splitEmbeddedActions_givesEachActionADeterministicId() {
+        migrations.splitEmbeddedActions();
+
+        ArgumentCaptor<List<Document>> inserted = ArgumentCaptor.forClass(List.class);
+        verify(bulk).insert(inserted.capture());
+        assertEquals(List.of("L1:0", "L1:1"), inserted.getValue().stream().map(d -> d.get("_id")).toList());
+        assertEquals("L1", inserted.getValue().get(0).get("loanId"));
+
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).updateFirst(any(Query.class), update.capture(), eq("loans"));
+        assertEquals(2L, update.getValue().getUpdateObject().get("$set", Document.class).get("actionCount"));
+    }
+
+    @Test
+    void splitEmbeddedActions_rerunAfterInterruptionSkipsAlreadyMovedActions() {
+        when(bulk.execute()).thenThrow(bulkFailure(11000));
+
+        migrations.splitEmbeddedActions();
+
+        verify(mongoTemplate).updateFirst(any(Query.class), any(Update.class), eq("loans"));
+    }
+
+    @Test
+    void splitEmbeddedActions_otherWriteErrorsAbortTheMigration() {
+        when(bulk.execute()).thenThrow(bulkFailure(2));
+
+        assertThrows(BulkOperationException.class, () -> migrations.splitEmbeddedActions());
+        verify(mongoTemplate, never()).updateFirst(any(Query.class), any(Update.class), eq("loans"));
+    }
+
+    private static BulkOperationException bulkFailure(int code) {
+        return new BulkOperationException("bulk write failed", new MongoBulkWriteException(
+                BulkWriteResult.unacknowledged(),
+                List.of(new BulkWriteError(code, "error " + code, new BsonDocument(), 0)),
+                null, new ServerAddress(), Set.of()));
+    }
+}
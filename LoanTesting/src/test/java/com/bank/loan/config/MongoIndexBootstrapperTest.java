@@ -0,0 +1,166 @@
+package com.bank.loan.config;
+
+import com.bank.loan.config.MongoIndexBootstrapper.QueryShape;
+import com.bank.loan.model.User;
+import org.bson.Document;
+import org.junit.jupiter.api.*;
+import org.mockito.*;
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.core.type.filter.AssignableTypeFilter;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.index.IndexField;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.repository.Repository;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class MongoIndexBootstrapperTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    private MongoIndexBootstrapper bootstrapper;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        bootstrapper = new MongoIndexBootstrapper(mongoTemplate, new MongoMappingContext());
+    }
+
+    @Test
+    void declaredIndexesServeEveryQueryShape() {
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(new MongoCustomConversions(List.of()).getSimpleTypeHolder());
+        MongoPersistentEntityIndexResolver resolver = new MongoPersistentEntityIndexResolver(mappingContext);
+
+        for (QueryShape shape : MongoIndexBootstrapper.QUERY_SHAPES) {
+            List<IndexInfo> declared = new ArrayList<>();
+            resolver.resolveIndexFor(shape.type()).forEach(def -> declared.add(indexOn(def.getIndexKeys())));
+
+            assertTrue(declared.stream().anyMatch(shape::isServedBy),
+                    "no declared index serves " + shape.name());
+        }
+    }
+
+    @Test
+    void everyDerivedRepositoryQueryHasAShape() {
+        Set<String> shapes = MongoIndexBootstrapper.QUERY_SHAPES.stream()
+                .map(QueryShape::name)
+                .collect(Collectors.toSet());
+
+        var scanner = new ClassPathScanningCandidateComponentProvider(false) {
+            @Override
+            protected boolean isCandidateComponent(AnnotatedBeanDefinition beanDefinition) {
+                return beanDefinition.getMetadata().isInterface();
+            }
+        };
+        scanner.addIncludeFilter(new AssignableTypeFilter(Repository.class));
+
+        List<String> missing = new ArrayList<>();
+        for (BeanDefinition candidate : scanner.findCandidateComponents("com.bank.loan.repository")) {
+            Class<?> repository = load(candidate.getBeanClassName());
+            for (Method method : repository.getDeclaredMethods()) {
+                boolean derived = !method.isDefault()
+                        && !Modifier.isStatic(method.getModifiers())
+                        && !method.isAnnotationPresent(Query.class);
+                String name = repository.getSimpleName() + "." + method.getName();
+                if (derived && !shapes.contains(name)) {
+                    missing.add(name);
+                }
+            }
+        }
+
+        assertEquals(List.of(), missing);
+    }
+
+    @Test
+    void verifyQueryShapes_failModeRejectsMissingIndex() {
+        stubIndexesExcept("UserRepository.findByUpdatedAtAfter");
+        ReflectionTestUtils.setField(bootstrapper, "indexCheck", "fail");
+
+        IllegalStateException e = assertThrows(IllegalStateException.class, bootstrapper::verifyQueryShapes);
+        assertTrue(e.getMessage().contains("UserRepository.findByUpdatedAtAfter"));
+    }
+
+    @Test
+    void verifyQueryShapes_warnModeOnlyLogs() {
+        stubIndexesExcept("UserRepository.findByUpdatedAtAfter");
+        ReflectionTestUtils.setField(bootstrapper, "indexCheck", "warn");
+
+        assertDoesNotThrow(bootstrapper::verifyQueryShapes);
+    }
+
+    @Test
+    void verifyQueryShapes_passesWhenEveryShapeIsServed() {
+        stubIndexesExcept(null);
+        ReflectionTestUtils.setField(bootstrapper, "indexCheck", "fail");
+
+        assertDoesNotThrow(bootstrapper::verifyQueryShapes);
+    }
+
+    @Test
+    void isServedBy_requiresEqualityPrefixThenSortField() {
+        QueryShape shape = new QueryShape(User.class, "shape", List.of("a", "b"), "c");
+
+        assertTrue(shape.isServedBy(indexOn(new Document("b", 1).append("a", 1).append("c", -1))));
+        assertTrue(shape.isServedBy(indexOn(new Document("a", 1).append("b", 1).append("c", 1).append("d", 1))));
+        assertFalse(shape.isServedBy(indexOn(new Document("a", 1).append("c", 1).append("b", 1))));
+        assertFalse(shape.isServedBy(indexOn(new Document("a", 1).append("b", 1))));
+    }
+
+    // Every type reports exactly the indexes its shapes need, minus the excluded shape's.
+    private void stubIndexesExcept(String excludedShape) {
+        when(mongoTemplate.indexOps(any(Class.class))).thenAnswer(i -> {
+            Class<?> type = i.getArgument(0);
+            List<IndexInfo> indexes = MongoIndexBootstrapper.QUERY_SHAPES.stream()
+                    .filter(s -> s.type() == type && !s.name().equals(excludedShape))
+                    .map(MongoIndexBootstrapperTest::indexFor)
+                    .toList();
+            IndexOperations ops = mock(IndexOperations.class);
+            when(ops.getIndexInfo()).thenReturn(indexes);
+            return ops;
+        });
+    }
+
+    private static IndexInfo indexFor(QueryShape shape) {
+        Document keys = new Document();
+        shape.equality().forEach(f -> keys.append(f, 1));
+        if (shape.sort() != null) {
+            keys.append(shape.sort(), 1);
+        }
+        return indexOn(keys);
+    }
+
+    private static IndexInfo indexOn(Document keys) {
+        List<IndexField> fields = keys.keySet().stream()
+                .map(k -> IndexField.create(k, Sort.Direction.ASC))
+                .toList();
+        return new IndexInfo(fields, String.join("_", keys.keySet()), false, false, null);
+    }
+
+    private static Class<?> load(String className) {
+        try {
+            return Class.forName(className);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.bank.loan.config;
+
+import com.bank.loan.repository.ReactiveLoanRepository;
+import com.mongodb.reactivestreams.client.MongoClient;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurationPackage;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReactiveMongoConfigTest {
+
+    private final ApplicationContextRunner runner = new ApplicationContextRunner()
+            .withUserConfiguration(RepositoryPackage.class, ReactiveMongoConfig.class)
+            .withPropertyValues("spring.data.mongodb.uri=mongodb://localhost:27017/loans");
+
+    @Test
+    void reactiveDriverIsNotStartedByDefault() {
+        runner.run(context -> {
+            assertNull(context.getStartupFailure());
+            assertTrue(context.getBeansOfType(MongoClient.class).isEmpty());
+            assertTrue(context.getBeansOfType(ReactiveMongoTemplate.class).isEmpty());
+            assertTrue(context.getBeansOfType(ReactiveLoanRepository.class).isEmpty());
+        });
+    }
+
+    @Test
+    void reactiveDriverAndRepositoriesWhenEnabled() {
+        runner.withPropertyValues("app.reactive.enabled=true").run(context -> {
+            assertNull(context.getStartupFailure());
+            assertEquals(1, context.getBeansOfType(MongoClient.class).size());
+            assertEquals(1, context.getBeansOfType(ReactiveMongoTemplate.class).size());
+            assertEquals(1, context.getBeansOfType(ReactiveLoanRepository.class).size());
+        });
+    }
+
+    // What @SpringBootApplication registers for the repository scan
+    @Configuration
+    @AutoConfigurationPackage(basePackageClasses = ReactiveLoanRepository.class)
+    static class RepositoryPackage {
+    }
+}
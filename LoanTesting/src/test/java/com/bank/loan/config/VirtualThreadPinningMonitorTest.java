@@ -0,0 +1,79 @@
+package com.bank.loan.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.health.Status;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VirtualThreadPinningMonitorTest {
+
+    private final MutableClock clock = new MutableClock();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private void pin(VirtualThreadPinningMonitor monitor) {
+        monitor.record(clock.instant(), Duration.ofMillis(50), "\tat Example.blocking:1");
+    }
+
+    @Test
+    void health_isDownOnlyWhileRecentPinsExceedTheLimit() {
+        VirtualThreadPinningMonitor monitor =
+                new VirtualThreadPinningMonitor(20, true, 60_000, 2, meterRegistry, clock);
+        assertEquals(Status.UP, monitor.health().getStatus());
+
+        pin(monitor);
+        pin(monitor);
+        assertEquals(Status.UP, monitor.health().getStatus());
+
+        pin(monitor);
+        assertEquals(Status.DOWN, monitor.health().getStatus());
+
+        // the pins age out of the window; the counter keeps them
+        clock.advance(Duration.ofSeconds(61));
+        assertEquals(Status.UP, monitor.health().getStatus());
+        assertEquals(3L, monitor.health().getDetails().get("pinnedCount"));
+        assertEquals(0, monitor.health().getDetails().get("recentPinnedCount"));
+        assertEquals(3.0, meterRegistry.get("jvm.threads.virtual.pinned").counter().count());
+    }
+
+    @Test
+    void health_staysUpWhenFailHealthIsOff() {
+        VirtualThreadPinningMonitor monitor =
+                new VirtualThreadPinningMonitor(20, false, 60_000, 0, meterRegistry, clock);
+
+        pin(monitor);
+
+        assertEquals(Status.UP, monitor.health().getStatus());
+        assertEquals(1, monitor.health().getDetails().get("recentPinnedCount"));
+    }
+
+    private static class MutableClock extends Clock {
+
+        private Instant now = Instant.parse("2024-01-01T00:00:00Z");
+
+        void advance(Duration d) {
+            now = now.plus(d);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
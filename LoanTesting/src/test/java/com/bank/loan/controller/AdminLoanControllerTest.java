@@ -5,6 +5,7 @@ import com.bank.loan.model.Role;
 import com.bank.loan.model.User;
 import com.bank.loan.security.CustomUserDetails;
 import com.bank.loan.service.LoanService;
+import com.bank.loan.service.LoanSummaryService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
@@ -22,6 +23,9 @@ class AdminLoanControllerTest {
     @Mock
     private LoanService loanService;
 
+    @Mock
+    private LoanSummaryService loanSummaryService;
+
     @InjectMocks
     private AdminLoanController adminLoanController;
 
@@ -3,9 +3,14 @@ package com.bank.loan.controller;
 import com.bank.loan.dto.AuthRequest;
 import com.bank.loan.dto.UserResponseDto;
 import com.bank.loan.exception.GlobalExceptionHandler;
+import com.bank.loan.exception.InvalidTokenException;
+import com.bank.loan.exception.TooManyRequestsException;
 import com.bank.loan.model.Role;
 import com.bank.loan.model.User;
+import com.bank.loan.security.CustomUserDetails;
 import com.bank.loan.security.JwtTokenProvider;
+import com.bank.loan.security.LoginAuthenticator;
+import com.bank.loan.security.RefreshTokenService;
 import com.bank.loan.service.UserService;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -17,9 +22,12 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
 
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -28,11 +36,14 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 class AuthControllerTest {
 
     @Mock
-    private AuthenticationManager authenticationManager;
+    private LoginAuthenticator loginAuthenticator;
 
     @Mock
     private JwtTokenProvider tokenProvider;
 
+    @Mock
+    private RefreshTokenService refreshTokenService;
+
     @Mock
     private UserService userService;
 
@@ -60,21 +71,135 @@ class AuthControllerTest {
         Authentication auth = new UsernamePasswordAuthenticationToken(
                 "rm@bank.com", "pass",
                 List.of(new SimpleGrantedAuthority("ROLE_USER")));
-        when(authenticationManager.authenticate(any())).thenReturn(auth);
+        when(loginAuthenticator.authenticate("rm@bank.com", "pass", "127.0.0.1"))
+                .thenReturn(CompletableFuture.completedFuture(auth));
         when(tokenProvider.generateToken(eq("rm@bank.com"), eq("USER"))).thenReturn("TOKEN");
 
         String json = """
                 {"email":"rm@bank.com","password":"pass"}
                 """;
 
-        mockMvc.perform(post("/api/auth/login")
+        MvcResult pending = mockMvc.perform(post("/api/auth/login")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(json))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(pending))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.accessToken").value("TOKEN"))
                 .andExpect(jsonPath("$.tokenType").value("Bearer"));
 
-        verify(authenticationManager).authenticate(any());
+        verify(loginAuthenticator).authenticate("rm@bank.com", "pass", "127.0.0.1");
+    }
+
+    @Test
+    void login_badCredentialsIs401() throws Exception {
+        when(loginAuthenticator.authenticate("rm@bank.com", "wrong", "127.0.0.1"))
+                .thenReturn(CompletableFuture.failedFuture(new BadCredentialsException("Bad credentials")));
+
+        MvcResult pending = mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"email":"rm@bank.com","password":"wrong"}
+                                """))
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(pending))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void login_rateLimitedIs429WithRetryAfter() throws Exception {
+        when(loginAuthenticator.authenticate(any(), any(), any()))
+                .thenThrow(new TooManyRequestsException("Too many login attempts for this account", 42));
+
+        mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"email":"rm@bank.com","password":"pass"}
+                                """))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "42"));
+    }
+
+    @Test
+    void login_saturatedPoolIs503() throws Exception {
+        when(loginAuthenticator.authenticate(any(), any(), any()))
+                .thenThrow(new RejectedExecutionException("Login capacity exhausted, try again shortly"));
+
+        mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"email":"rm@bank.com","password":"pass"}
+                                """))
+                .andExpect(status().isServiceUnavailable());
+    }
+
+    @Test
+    void login_withPrincipalReturnsRefreshToken() throws Exception {
+        CustomUserDetails user = principal();
+        Authentication auth = new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities());
+        when(loginAuthenticator.authenticate("rm@bank.com", "pass", "127.0.0.1"))
+                .thenReturn(CompletableFuture.completedFuture(auth));
+        when(tokenProvider.generateToken(user)).thenReturn("TOKEN");
+        when(refreshTokenService.issue(user)).thenReturn("REFRESH");
+
+        MvcResult pending = mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"email":"rm@bank.com","password":"pass"}
+                                """))
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(pending))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accessToken").value("TOKEN"))
+                .andExpect(jsonPath("$.refreshToken").value("REFRESH"));
+    }
+
+    @Test
+    void refresh_issuesAccessTokenWithoutAuthenticating() throws Exception {
+        CustomUserDetails user = principal();
+        when(refreshTokenService.refresh("REFRESH")).thenReturn(user);
+        when(tokenProvider.generateToken(user)).thenReturn("TOKEN");
+
+        mockMvc.perform(post("/api/auth/refresh")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"refreshToken":"REFRESH"}
+                                """))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accessToken").value("TOKEN"))
+                .andExpect(jsonPath("$.role").value("USER"))
+                .andExpect(jsonPath("$.refreshToken").value("REFRESH"));
+
+        verifyNoInteractions(loginAuthenticator);
+    }
+
+    @Test
+    void refresh_revokedTokenIs401() throws Exception {
+        when(refreshTokenService.refresh("REFRESH"))
+                .thenThrow(new InvalidTokenException("Refresh token has been revoked"));
+
+        mockMvc.perform(post("/api/auth/refresh")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"refreshToken":"REFRESH"}
+                                """))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void logout_revokesRefreshToken() throws Exception {
+        mockMvc.perform(post("/api/auth/logout")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"refreshToken":"REFRESH"}
+                                """))
+                .andExpect(status().isNoContent());
+
+        verify(refreshTokenService).revoke("REFRESH");
     }
 
     @Test
@@ -96,6 +221,12 @@ class AuthControllerTest {
     }
 
 
+    private static CustomUserDetails principal() {
+        return new CustomUserDetails(User.builder()
+                .id("u1").email("rm@bank.com").role(Role.USER).active(true)
+                .build());
+    }
+
     @AfterEach
     void clearContext() {
         SecurityContextHolder.clearContext();
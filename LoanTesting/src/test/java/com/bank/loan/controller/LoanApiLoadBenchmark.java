@@ -0,0 +1,137 @@
+package com.bank.loan.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Closed-loop HTTP load against a running instance's loan read endpoints, to compare
+ * platform-thread and virtual-thread request handling (spring.threads.virtual.enabled).
+ *
+ * Each client thread keeps one request in flight, alternating an offset page and a
+ * cursor page of GET /api/loans. Reports throughput, p50/p99/max latency and
+ * non-2xx/failed requests. Run the same settings against both modes, e.g.
+ * with Tomcat's default 200 workers and concurrency 500 to oversubscribe them:
+ *
+ * {@code java -cp target/test-classes:<test classpath> com.bank.loan.controller.LoanApiLoadBenchmark
+ *   http://localhost:8081 rm@bank.com <password> 500 60}
+ */
+public class LoanApiLoadBenchmark {
+
+    private static final int INITIAL_SAMPLES_PER_CLIENT = 4_096;
+
+    public static void main(String[] args) throws Exception {
+
+        String baseUrl = args.length > 0 ? args[0] : "http://localhost:8081";
+        String email = args.length > 1 ? args[1] : "rm@bank.com";
+        String password = args.length > 2 ? args[2] : "password";
+        int concurrency = args.length > 3 ? Integer.parseInt(args[3]) : 500;
+        int seconds = args.length > 4 ? Integer.parseInt(args[4]) : 60;
+
+        HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newFixedThreadPool(8))
+                .build();
+
+        String token = login(client, baseUrl, email, password);
+        URI[] targets = {
+                URI.create(baseUrl + "/api/loans?page=0&size=20"),
+                URI.create(baseUrl + "/api/loans?cursor=&size=20")
+        };
+
+        long[][] latencies = new long[concurrency][];
+        int[] counts = new int[concurrency];
+        LongAdder errors = new LongAdder();
+
+        // warm-up, then the measured run
+        run(client, token, targets, concurrency, Math.min(10, seconds), latencies, counts, errors);
+        errors.reset();
+        long started = System.nanoTime();
+        run(client, token, targets, concurrency, seconds, latencies, counts, errors);
+        double elapsed = (System.nanoTime() - started) / 1e9;
+
+        int total = Arrays.stream(counts).sum();
+        long[] samples = new long[total];
+        int offset = 0;
+        for (int c = 0; c < concurrency; c++) {
+            System.arraycopy(latencies[c], 0, samples, offset, counts[c]);
+            offset += counts[c];
+        }
+        Arrays.sort(samples);
+
+        System.out.printf("concurrency=%d duration=%.1fs requests=%d errors=%d%n",
+                concurrency, elapsed, total, errors.sum());
+        System.out.printf("throughput=%.0f req/s p50=%.1fms p99=%.1fms max=%.1fms%n",
+                total / elapsed, percentile(samples, 50), percentile(samples, 99),
+                samples.length > 0 ? samples[samples.length - 1] / 1e6 : 0.0);
+        System.exit(0);
+    }
+
+    private static void run(HttpClient client, String token, URI[] targets, int concurrency, int seconds,
+                            long[][] latencies, int[] counts, LongAdder errors) throws InterruptedException {
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        ExecutorService clients = Executors.newFixedThreadPool(concurrency);
+
+        for (int c = 0; c < concurrency; c++) {
+            int id = c;
+            clients.execute(() -> {
+                long[] samples = new long[INITIAL_SAMPLES_PER_CLIENT];
+                int n = 0;
+                while (System.nanoTime() < deadline) {
+                    HttpRequest request = HttpRequest.newBuilder(targets[n % targets.length])
+                            .header("Authorization", "Bearer " + token)
+                            .timeout(Duration.ofSeconds(30))
+                            .GET()
+                            .build();
+                    long start = System.nanoTime();
+                    try {
+                        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() / 100 != 2) errors.increment();
+                    } catch (Exception e) {
+                        errors.increment();
+                    }
+                    if (n == samples.length) samples = Arrays.copyOf(samples, n * 2);
+                    samples[n++] = System.nanoTime() - start;
+                }
+                latencies[id] = samples;
+                counts[id] = n;
+            });
+        }
+
+        clients.shutdown();
+        clients.awaitTermination(seconds + 60L, TimeUnit.SECONDS);
+    }
+
+    private static String login(HttpClient client, String baseUrl, String email, String password) throws Exception {
+
+        ObjectMapper mapper = new ObjectMapper();
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(
+                        mapper.writeValueAsString(Map.of("email", email, "password", password))))
+                .build();
+
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200)
+            throw new IllegalStateException("Login failed: " + response.statusCode() + " " + response.body());
+
+        return mapper.readTree(response.body()).get("accessToken").asText();
+    }
+
+    private static double percentile(long[] sorted, int p) {
+        if (sorted.length == 0) return 0.0;
+        int index = (int) Math.ceil(p / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+}
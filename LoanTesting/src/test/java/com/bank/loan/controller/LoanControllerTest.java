@@ -2,10 +2,15 @@ package com.bank.loan.controller;
 
 import com.bank.loan.dto.*;
 import com.bank.loan.exception.GlobalExceptionHandler;
+import com.bank.loan.model.LoanCreateAction;
 import com.bank.loan.model.LoanStatus;
 import com.bank.loan.model.Role;
+import com.bank.loan.repository.LoanSearchCriteria;
 import com.bank.loan.security.CustomUserDetails;
+import com.bank.loan.service.LoanBulkImportService;
+import com.bank.loan.service.LoanQuoteService;
 import com.bank.loan.service.LoanService;
+import com.bank.loan.service.LoanSummaryService;
 import com.bank.loan.service.UserService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.*;
@@ -13,10 +18,14 @@ import org.mockito.*;
 import org.springframework.http.MediaType;
 import org.springframework.security.core.Authentication;
 import org.springframework.test.web.servlet.*;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import java.io.InputStream;
 import java.util.List;
+import java.util.Map;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -29,6 +38,15 @@ class LoanControllerTest {
     @Mock
     private UserService userService;
 
+    @Mock
+    private LoanQuoteService loanQuoteService;
+
+    @Mock
+    private LoanSummaryService loanSummaryService;
+
+    @Mock
+    private LoanBulkImportService loanBulkImportService;
+
     @InjectMocks
     private LoanController loanController;
 
@@ -65,11 +83,9 @@ class LoanControllerTest {
         req.setRequestedAmount(10_000L);
         req.setProposedInterestRate(0.0);
         req.setTenureMonths(12);
-        FinancialsDto fin = new FinancialsDto();
-        fin.setRevenue(1L);
-        fin.setEbitda(1L);
-        fin.setRating("A");
+        FinancialsDto fin = FinancialsDto.builder().revenue(1L).ebitda(1L).rating("A").build();
         req.setFinancials(fin);
+        req.setAction(LoanCreateAction.SAVE);
 
         LoanResponseDto dto = LoanResponseDto.builder()
                 .id("1")
@@ -92,6 +108,54 @@ class LoanControllerTest {
         verify(loanService).createLoan(any(), eq("user1"));
     }
 
+    @Test
+    void bulkCreate_raisesAsyncTimeoutForTheStreamedResults() throws Exception {
+        ReflectionTestUtils.setField(loanController, "bulkRequestTimeoutMs", 600_000L);
+        Authentication auth = mock(Authentication.class);
+        when(auth.getPrincipal()).thenReturn(samplePrincipal());
+
+        MvcResult result = mockMvc.perform(post("/api/loans/bulk")
+                        .principal(auth)
+                        .contentType("application/x-ndjson")
+                        .content("{}\n"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        assertEquals(600_000L, result.getRequest().getAsyncContext().getTimeout());
+    }
+
+    @Test
+    void quoteBatch_returnsQuotesInOrder() throws Exception {
+        LoanCreateRequest req = new LoanCreateRequest();
+        req.setClientName("Client");
+
+        when(loanQuoteService.quoteBatch(any(InputStream.class))).thenReturn(List.of(
+                LoanQuoteDto.builder().proposedInterestRate(10.0).gridVersion("v1").build(),
+                LoanQuoteDto.builder().gridVersion("v1").error("Tenure required").build()));
+
+        mockMvc.perform(post("/api/loans/quote/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(List.of(req, req))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].proposedInterestRate").value(10.0))
+                .andExpect(jsonPath("$[1].error").value("Tenure required"));
+    }
+
+    @Test
+    void summary_withMy_passesCallerId() throws Exception {
+        Authentication auth = mock(Authentication.class);
+        when(auth.getPrincipal()).thenReturn(samplePrincipal());
+        when(loanSummaryService.summary("user1")).thenReturn(LoanSummaryDto.builder()
+                .byStatus(Map.of("SUBMITTED", new LoanSummaryDto.Totals(2, 300, 0)))
+                .mine(new LoanSummaryDto.Totals(1, 100, 0))
+                .build());
+
+        mockMvc.perform(get("/api/loans/summary").param("my", "true").principal(auth))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.byStatus.SUBMITTED.count").value(2))
+                .andExpect(jsonPath("$.mine.requestedAmount").value(100));
+    }
+
     @Test
     void getLoan_returnsDto() throws Exception {
         LoanResponseDto dto = LoanResponseDto.builder()
@@ -114,10 +178,7 @@ class LoanControllerTest {
         req.setRequestedAmount(10_000L);
         req.setProposedInterestRate(11.0);
         req.setTenureMonths(12);
-        FinancialsDto fin = new FinancialsDto();
-        fin.setRevenue(1L);
-        fin.setEbitda(1L);
-        fin.setRating("A");
+        FinancialsDto fin = FinancialsDto.builder().revenue(1L).ebitda(1L).rating("A").build();
         req.setFinancials(fin);
 
         LoanResponseDto dto = LoanResponseDto.builder()
@@ -169,13 +230,26 @@ class LoanControllerTest {
         verify(loanService).changeStatus(eq("1"), any(), eq("user1"), eq(Role.USER));
     }
 
+    @Test
+    void getLoanActions_returnsPagedHistory() throws Exception {
+        PagedResponse<LoanActionDto> res = PagedResponse.<LoanActionDto>builder()
+                .content(List.of(LoanActionDto.builder().action("UPDATED").build()))
+                .page(0).size(20).totalElements(1).totalPages(1)
+                .build();
+        when(loanService.getLoanActions("1", 0, 20)).thenReturn(res);
+
+        mockMvc.perform(get("/api/loans/1/actions"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].action").value("UPDATED"));
+    }
+
     @Test
     void listLoans_returnsPaged() throws Exception {
         PagedResponse<LoanResponseDto> res = PagedResponse.<LoanResponseDto>builder()
                 .content(List.of(LoanResponseDto.builder().id("1").build()))
                 .page(0).size(10).totalElements(1).totalPages(1)
                 .build();
-        when(loanService.listLoans(0, 10, null, null)).thenReturn(res);
+        when(loanService.listLoans(any(LoanSearchCriteria.class), eq(0), eq(10))).thenReturn(res);
 
         mockMvc.perform(get("/api/loans")
                         .param("page", "0")
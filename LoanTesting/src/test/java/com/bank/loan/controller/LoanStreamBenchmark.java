@@ -0,0 +1,155 @@
+package com.bank.loan.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Holds many slow-reading streaming connections open against a running instance and
+ * reports what that costs the server, to compare the blocking export
+ * (/api/loans/export) with the reactive list (/api/reactive/loans, app.reactive.enabled=true).
+ *
+ * Every client opens the stream and then reads one line per {@code readDelayMs}, so the
+ * server is held back by the client rather than by Mongo. While all connections are
+ * open, the server's live threads, heap used and Tomcat busy threads are read from
+ * /actuator/metrics (admin credentials needed). Run once per path with the same settings:
+ *
+ * {@code java -cp target/test-classes:<test classpath> com.bank.loan.controller.LoanStreamBenchmark
+ *   http://localhost:8081 admin@bank.com <password> /api/reactive/loans 2000 50 60}
+ */
+public class LoanStreamBenchmark {
+
+    public static void main(String[] args) throws Exception {
+
+        String baseUrl = args.length > 0 ? args[0] : "http://localhost:8081";
+        String email = args.length > 1 ? args[1] : "admin@bank.com";
+        String password = args.length > 2 ? args[2] : "password";
+        String path = args.length > 3 ? args[3] : "/api/reactive/loans";
+        int connections = args.length > 4 ? Integer.parseInt(args[4]) : 2_000;
+        long readDelayMs = args.length > 5 ? Long.parseLong(args[5]) : 50;
+        int seconds = args.length > 6 ? Integer.parseInt(args[6]) : 60;
+
+        ObjectMapper mapper = new ObjectMapper();
+        HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        String token = login(client, mapper, baseUrl, email, password);
+
+        Map<String, Double> idle = serverMetrics(client, mapper, baseUrl, token);
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        CountDownLatch opened = new CountDownLatch(connections);
+        AtomicInteger open = new AtomicInteger();
+        LongAdder lines = new LongAdder();
+        LongAdder failures = new LongAdder();
+
+        ExecutorService readers = Executors.newFixedThreadPool(connections);
+        for (int c = 0; c < connections; c++) {
+            readers.execute(() -> {
+                HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                        .header("Authorization", "Bearer " + token)
+                        .GET()
+                        .build();
+                boolean streaming = false;
+                try {
+                    HttpResponse<InputStream> response = client.send(request, HttpResponse.BodyHandlers.ofInputStream());
+                    if (response.statusCode() != 200) {
+                        failures.increment();
+                        response.body().close();
+                        return;
+                    }
+                    streaming = true;
+                    open.incrementAndGet();
+                    opened.countDown();
+                    try (BufferedReader reader = new BufferedReader(
+                            new InputStreamReader(response.body(), StandardCharsets.UTF_8))) {
+                        while (System.nanoTime() < deadline && reader.readLine() != null) {
+                            lines.increment();
+                            Thread.sleep(readDelayMs);
+                        }
+                    }
+                } catch (Exception e) {
+                    failures.increment();
+                } finally {
+                    if (streaming) {
+                        open.decrementAndGet();
+                    } else {
+                        opened.countDown();
+                    }
+                }
+            });
+        }
+
+        opened.await(seconds, TimeUnit.SECONDS);
+        Thread.sleep(Math.min(10_000, TimeUnit.SECONDS.toMillis(seconds) / 2));
+        int openUnderLoad = open.get();
+        Map<String, Double> loaded = serverMetrics(client, mapper, baseUrl, token);
+
+        readers.shutdown();
+        readers.awaitTermination(seconds + 30L, TimeUnit.SECONDS);
+
+        System.out.printf("path=%s connections=%d open=%d failed=%d lines=%d%n",
+                path, connections, openUnderLoad, failures.sum(), lines.sum());
+        for (String metric : idle.keySet()) {
+            System.out.printf("%-22s idle=%.0f loaded=%.0f%n", metric, idle.get(metric), loaded.get(metric));
+        }
+        System.exit(0);
+    }
+
+    private static Map<String, Double> serverMetrics(HttpClient client, ObjectMapper mapper,
+                                                     String baseUrl, String token) throws Exception {
+        return new TreeMap<>(Map.of(
+                "jvm.threads.live", metric(client, mapper, baseUrl, token, "jvm.threads.live", null),
+                "jvm.memory.used[heap]", metric(client, mapper, baseUrl, token, "jvm.memory.used", "area:heap"),
+                "tomcat.threads.busy", metric(client, mapper, baseUrl, token, "tomcat.threads.busy", null)));
+    }
+
+    private static double metric(HttpClient client, ObjectMapper mapper, String baseUrl, String token,
+                                 String name, String tag) throws Exception {
+
+        String url = baseUrl + "/actuator/metrics/" + name + (tag != null ? "?tag=" + tag : "");
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                .header("Authorization", "Bearer " + token)
+                .build();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            return Double.NaN;
+        }
+
+        JsonNode measurements = mapper.readTree(response.body()).path("measurements");
+        return measurements.isEmpty() ? Double.NaN : measurements.get(0).path("value").asDouble();
+    }
+
+    private static String login(HttpClient client, ObjectMapper mapper,
+                                String baseUrl, String email, String password) throws Exception {
+
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(
+                        mapper.writeValueAsString(Map.of("email", email, "password", password))))
+                .build();
+
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200)
+            throw new IllegalStateException("Login failed: " + response.statusCode() + " " + response.body());
+
+        return mapper.readTree(response.body()).get("accessToken").asText();
+    }
+}
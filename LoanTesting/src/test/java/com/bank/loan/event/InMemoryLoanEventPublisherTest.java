@@ -0,0 +1,78 @@
+package com.bank.loan.event;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InMemoryLoanEventPublisherTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final InMemoryLoanEventPublisher publisher =
+            new InMemoryLoanEventPublisher(4, 10, meterRegistry);
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        publisher.stop();
+    }
+
+    private LoanEvent event(String loanId) {
+        return LoanEvent.of(LoanEventType.CREATED, loanId, "user1", null, LoanSnapshot.builder().build());
+    }
+
+    @Test
+    void publish_deliversInOrderOffTheCallingThread() throws Exception {
+        List<String> delivered = new CopyOnWriteArrayList<>();
+        List<Thread> threads = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(3);
+        publisher.subscribe(batch -> batch.forEach(e -> {
+            delivered.add(e.getLoanId());
+            threads.add(Thread.currentThread());
+            done.countDown();
+        }));
+        publisher.start();
+
+        publisher.publish(event("1"));
+        publisher.publish(event("2"));
+        publisher.publish(event("3"));
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of("1", "2", "3"), delivered);
+        assertNotSame(Thread.currentThread(), threads.get(0));
+    }
+
+    @Test
+    void publish_dropsInsteadOfBlockingWhenSubscriberIsStuck() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        publisher.subscribe(batch -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        publisher.start();
+
+        publisher.publish(event("0"));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        long begin = System.nanoTime();
+        for (int i = 1; i <= 20; i++) {
+            publisher.publish(event(String.valueOf(i)));
+        }
+        long tookMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - begin);
+
+        assertTrue(tookMs < 1_000);
+        assertEquals(16.0, meterRegistry.get("loan.events").tag("result", "dropped").counter().count());
+        release.countDown();
+    }
+}
@@ -0,0 +1,165 @@
+package com.bank.loan.event;
+
+import com.bank.loan.model.ProcessedEvent;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.ServerAddress;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.junit.jupiter.api.*;
+import org.mockito.*;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class LoanEventDispatcherTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private BulkOperations bulkOps;
+
+    @Mock
+    private ObjectProvider<InMemoryLoanEventPublisher> inMemoryPublisher;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final List<LoanEvent> handled = Collections.synchronizedList(new ArrayList<>());
+
+    private LoanEventDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(mongoTemplate.bulkOps(any(BulkOperations.BulkMode.class), eq(ProcessedEvent.class))).thenReturn(bulkOps);
+        when(mongoTemplate.find(any(Query.class), eq(ProcessedEvent.class))).thenReturn(List.of());
+    }
+
+    @AfterEach
+    void tearDown() {
+        dispatcher.shutdown();
+    }
+
+    private LoanEventDispatcher dispatcher(LoanEventHandler handler) {
+        return new LoanEventDispatcher(List.of(handler), mongoTemplate, inMemoryPublisher, 4, 100, false, meterRegistry);
+    }
+
+    private LoanEvent event(String loanId) {
+        return LoanEvent.of(LoanEventType.UPDATED, loanId, "user1",
+                LoanSnapshot.builder().build(), LoanSnapshot.builder().build());
+    }
+
+    @Test
+    void dispatch_keepsOrderPerLoan() {
+        dispatcher = dispatcher(handled::add);
+        List<LoanEvent> batch = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            batch.add(event(String.valueOf(i % 5)));
+        }
+
+        dispatcher.dispatch(batch);
+
+        assertEquals(50, handled.size());
+        for (int loan = 0; loan < 5; loan++) {
+            String loanId = String.valueOf(loan);
+            assertEquals(
+                    batch.stream().filter(e -> e.getLoanId().equals(loanId)).toList(),
+                    handled.stream().filter(e -> e.getLoanId().equals(loanId)).toList());
+        }
+        verify(bulkOps, times(50)).insert(any(ProcessedEvent.class));
+    }
+
+    @Test
+    void dispatch_skipsRedeliveredEvents() {
+        dispatcher = dispatcher(handled::add);
+        LoanEvent first = event("1");
+        LoanEvent second = event("2");
+
+        dispatcher.dispatch(List.of(first));
+        // second was recorded by another consumer instance
+        when(mongoTemplate.find(any(Query.class), eq(ProcessedEvent.class)))
+                .thenReturn(List.of(new ProcessedEvent(second.getEventId(), null)));
+        dispatcher.dispatch(List.of(first, second));
+
+        assertEquals(List.of(first), handled);
+        assertEquals(2.0, meterRegistry.get("loan.events.consumed").tag("result", "duplicate").counter().count());
+    }
+
+    @Test
+    void dispatch_releasesOnlyTheFailedEventWhenAnotherLoanFails() {
+        LoanEvent ok = event("1");
+        LoanEvent bad = event("2");
+        dispatcher = dispatcher(e -> {
+            if (e == bad) throw new IllegalStateException("read model down");
+            handled.add(e);
+        });
+
+        assertThrows(IllegalStateException.class, () -> dispatcher.dispatch(List.of(ok, bad)));
+
+        // both were claimed before the handlers ran; only the failed one is given back
+        verify(bulkOps, times(2)).insert(any(ProcessedEvent.class));
+        assertEquals(List.of(bad.getEventId()), releasedIds());
+
+        // redelivery only re-runs the failed event
+        dispatcher.dispatch(List.of(ok));
+        assertEquals(List.of(ok), handled);
+        assertEquals(1.0, meterRegistry.get("loan.events.consumed").tag("result", "failed").counter().count());
+    }
+
+    @Test
+    void dispatch_handlerFailingPartwayThroughALoanReleasesTheRestOfItsEvents() {
+        LoanEvent first = event("1");
+        LoanEvent second = event("1");
+        LoanEvent third = event("1");
+        boolean[] down = {true};
+        dispatcher = dispatcher(e -> {
+            if (e == second && down[0]) throw new IllegalStateException("read model down");
+            handled.add(e);
+        });
+
+        assertThrows(IllegalStateException.class, () -> dispatcher.dispatch(List.of(first, second, third)));
+
+        assertEquals(List.of(first), handled);
+        assertEquals(List.of(second.getEventId(), third.getEventId()), releasedIds());
+        assertEquals(2.0, meterRegistry.get("loan.events.consumed").tag("result", "failed").counter().count());
+
+        // the redelivered batch applies the first event once and resumes at the second
+        down[0] = false;
+        dispatcher.dispatch(List.of(first, second, third));
+        assertEquals(List.of(first, second, third), handled);
+    }
+
+    @Test
+    void dispatch_skipsEventsClaimedByAnotherConsumer() {
+        LoanEvent mine = event("1");
+        LoanEvent theirs = event("2");
+        when(bulkOps.execute()).thenThrow(new BulkOperationException("bulk write failed", new MongoBulkWriteException(
+                BulkWriteResult.unacknowledged(),
+                List.of(new BulkWriteError(11000, "E11000 duplicate key", new BsonDocument(), 1)),
+                null, new ServerAddress(), Set.of())));
+        dispatcher = dispatcher(handled::add);
+
+        dispatcher.dispatch(List.of(mine, theirs));
+
+        assertEquals(List.of(mine), handled);
+        assertEquals(1.0, meterRegistry.get("loan.events.consumed").tag("result", "duplicate").counter().count());
+        verify(mongoTemplate, never()).remove(any(Query.class), eq(ProcessedEvent.class));
+    }
+
+    private List<Object> releasedIds() {
+        ArgumentCaptor<Query> released = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).remove(released.capture(), eq(ProcessedEvent.class));
+        return new ArrayList<>(released.getValue().getQueryObject().get("eventId", Document.class).getList("$in", Object.class));
+    }
+}
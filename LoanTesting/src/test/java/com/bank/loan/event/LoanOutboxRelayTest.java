@@ -0,0 +1,139 @@
+package com.bank.loan.event;
+
+import com.bank.loan.model.OutboxEvent;
+import com.bank.loan.model.OutboxRelayLease;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.Document;
+import org.junit.jupiter.api.*;
+import org.mockito.*;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class LoanOutboxRelayTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private LoanEventSender sender;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private LoanOutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        relay = new LoanOutboxRelay(mongoTemplate, sender, 10, 1_000, 5_000, 3, meterRegistry);
+    }
+
+    private OutboxEvent pending(String id, String loanId, int attempts) {
+        return OutboxEvent.builder()
+                .id(id)
+                .event(LoanEvent.of(LoanEventType.CREATED, loanId, "user1", null, LoanSnapshot.builder().build()))
+                .createdAt(Instant.now().minusSeconds(5))
+                .attempts(attempts)
+                .build();
+    }
+
+    @Test
+    void relayBatch_marksOnlyAcknowledgedEventsPublished() {
+        OutboxEvent ok = pending("o1", "1", 0);
+        OutboxEvent bad = pending("o2", "2", 1);
+        when(mongoTemplate.find(any(Query.class), eq(OutboxEvent.class))).thenReturn(List.of(ok, bad));
+        when(sender.send(ok.getEvent())).thenReturn(CompletableFuture.completedFuture(null));
+        when(sender.send(bad.getEvent())).thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker down")));
+
+        int relayed = relay.relayBatch();
+
+        assertEquals(1, relayed);
+
+        ArgumentCaptor<Query> queries = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> updates = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate, times(2)).updateMulti(queries.capture(), updates.capture(), eq(OutboxEvent.class));
+
+        assertTrue(queries.getAllValues().get(0).toString().contains("o1"));
+        assertTrue(updates.getAllValues().get(0).getUpdateObject().containsKey("$set"));
+        assertTrue(queries.getAllValues().get(1).toString().contains("o2"));
+        assertTrue(updates.getAllValues().get(1).getUpdateObject().containsKey("$inc"));
+
+        assertEquals(1.0, meterRegistry.get("loan.outbox.retries").counter().count());
+        assertTrue(meterRegistry.get("loan.outbox.lag").gauge().value() >= 5_000);
+    }
+
+    @Test
+    void relayBatch_emptyOutboxResetsLag() {
+        when(mongoTemplate.find(any(Query.class), eq(OutboxEvent.class))).thenReturn(List.of());
+
+        assertEquals(0, relay.relayBatch());
+        assertEquals(0.0, meterRegistry.get("loan.outbox.lag").gauge().value());
+        verifyNoInteractions(sender);
+    }
+
+    @Test
+    void relayBatch_skipsParkedEvents() {
+        when(mongoTemplate.find(any(Query.class), eq(OutboxEvent.class))).thenReturn(List.of());
+
+        relay.relayBatch();
+
+        ArgumentCaptor<Query> pending = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).find(pending.capture(), eq(OutboxEvent.class));
+        assertTrue(pending.getValue().getQueryObject().containsKey("parkedAt"));
+        assertNull(pending.getValue().getQueryObject().get("parkedAt"));
+        assertEquals("pending_unparked", pending.getValue().getHint());
+    }
+
+    @Test
+    void relayBatch_parksEventOnItsLastAttempt() {
+        OutboxEvent last = pending("o3", "3", 2);
+        when(mongoTemplate.find(any(Query.class), eq(OutboxEvent.class))).thenReturn(List.of(last));
+        when(sender.send(last.getEvent())).thenReturn(CompletableFuture.failedFuture(new IllegalStateException("bad payload")));
+
+        assertEquals(0, relay.relayBatch());
+
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).updateMulti(any(Query.class), update.capture(), eq(OutboxEvent.class));
+        Document set = (Document) update.getValue().getUpdateObject().get("$set");
+        assertNotNull(set.get("parkedAt"));
+        assertEquals(1.0, meterRegistry.get("loan.outbox.events").tag("result", "parked").counter().count());
+    }
+
+    @Test
+    void drain_doesNothingWhileAnotherNodeHoldsTheLease() {
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(OutboxRelayLease.class))).thenThrow(new DuplicateKeyException("E11000"));
+
+        relay.drain();
+
+        verify(mongoTemplate, never()).find(any(Query.class), eq(OutboxEvent.class));
+        verifyNoInteractions(sender);
+    }
+
+    @Test
+    void drain_relaysWhileHoldingTheLease() {
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(OutboxRelayLease.class))).thenReturn(OutboxRelayLease.builder().id(LoanOutboxRelay.LEASE_ID).build());
+        when(mongoTemplate.find(any(Query.class), eq(OutboxEvent.class))).thenReturn(List.of());
+
+        relay.drain();
+
+        verify(mongoTemplate).find(any(Query.class), eq(OutboxEvent.class));
+    }
+
+    @Test
+    void constructor_rejectsLeaseShorterThanSendTimeout() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new LoanOutboxRelay(mongoTemplate, sender, 10, 1_000, 1_000, 3, meterRegistry));
+    }
+}
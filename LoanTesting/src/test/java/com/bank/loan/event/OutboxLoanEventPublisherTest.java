@@ -0,0 +1,31 @@
+package com.bank.loan.event;
+
+import com.bank.loan.model.OutboxEvent;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class OutboxLoanEventPublisherTest {
+
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+
+    @Test
+    void refusesToStartWithoutTransactions() {
+        IllegalStateException e = assertThrows(IllegalStateException.class,
+                () -> new OutboxLoanEventPublisher(mongoTemplate, false));
+        assertTrue(e.getMessage().contains("app.mongo.transactions.enabled"));
+    }
+
+    @Test
+    void publish_insertsIntoTheOutbox() {
+        OutboxLoanEventPublisher publisher = new OutboxLoanEventPublisher(mongoTemplate, true);
+        LoanEvent event = LoanEvent.of(LoanEventType.CREATED, "1", "user1", null, LoanSnapshot.builder().build());
+
+        publisher.publish(event);
+
+        verify(mongoTemplate).insert(argThat((OutboxEvent o) -> o.getEvent() == event));
+    }
+}
@@ -0,0 +1,69 @@
+package com.bank.loan.pricing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.io.ClassPathResource;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of a single quote evaluation.
+ *
+ * <ul>
+ *   <li>legacySwitch - the old hard-coded calculatePricing</li>
+ *   <li>engine - grid lookup through {@link PricingEngine}</li>
+ * </ul>
+ *
+ * Add {@code -prof gc} to confirm the engine path allocates nothing per call.
+ * Run after {@code mvn test-compile} with
+ * {@code java -cp target/test-classes:<test classpath> org.openjdk.jmh.Main PricingEngineBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PricingEngineBenchmark {
+
+    private static final String[] RATINGS = {"AAA", "AA", "A", "BBB", "BB", "CCC"};
+    private static final String[] TYPES = {"TERM", "WORKING_CAPITAL", "EQUIPMENT"};
+    private static final long[] AMOUNTS = {1_000_000L, 25_000_000L, 75_000_000L};
+
+    private PricingEngine engine;
+    private int i;
+
+    @Setup
+    public void setup() {
+        engine = new PricingEngine(new ObjectMapper(), new ClassPathResource("pricing/rate-grid.json"));
+    }
+
+    @Benchmark
+    public double legacySwitch() {
+        int n = i++;
+        String rating = RATINGS[n % RATINGS.length];
+        long amount = AMOUNTS[n % AMOUNTS.length];
+
+        double ratingFactor = switch (rating) {
+            case "AAA", "AA" -> -1.0;
+            case "A" -> 0.0;
+            case "BBB" -> 1.0;
+            default -> 2.0;
+        };
+        return 10.0 + ratingFactor + (amount > 50_000_000L ? -0.5 : 0.0);
+    }
+
+    @Benchmark
+    public double engine() {
+        int n = i++;
+        return engine.price(
+                TYPES[n % TYPES.length],
+                RATINGS[n % RATINGS.length],
+                AMOUNTS[n % AMOUNTS.length],
+                12 + n % 48);
+    }
+
+    public static void main(String[] args) throws Exception {
+        org.openjdk.jmh.Main.main(new String[]{PricingEngineBenchmark.class.getSimpleName()});
+    }
+}
@@ -0,0 +1,74 @@
+package com.bank.loan.pricing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PricingEngineTest {
+
+    private final PricingEngine engine =
+            new PricingEngine(new ObjectMapper(), new ClassPathResource("pricing/rate-grid.json"));
+
+    @Test
+    void defaultGrid_matchesLegacyPricing() {
+        assertEquals(9.0, engine.price("TERM", "AAA", 1_000_000L, 12));
+        assertEquals(9.0, engine.price("TERM", "AA", 1_000_000L, 12));
+        assertEquals(10.0, engine.price("TERM", "A", 1_000_000L, 12));
+        assertEquals(11.0, engine.price("TERM", "BBB", 1_000_000L, 12));
+        assertEquals(12.0, engine.price("TERM", "CCC", 1_000_000L, 12));
+        assertEquals(12.0, engine.price("TERM", null, 1_000_000L, 12));
+    }
+
+    @Test
+    void defaultGrid_sizeDiscountStartsAbove50M() {
+        assertEquals(10.0, engine.price("TERM", "A", 50_000_000L, 12));
+        assertEquals(9.5, engine.price("TERM", "A", 50_000_001L, 12));
+    }
+
+    @Test
+    void publish_swapsGridForSubsequentQuotes() {
+        RateGridDefinition def = engine.currentGrid().getDefinition();
+        RateGridDefinition next = new RateGridDefinition(
+                "v2", def.getBaseRate(),
+                List.of(new RateGridDefinition.LoanTypeRow("*", 0.0),
+                        new RateGridDefinition.LoanTypeRow("EQUIPMENT", 0.25)),
+                def.getRatingBands(), def.getUnratedAdjustment(),
+                def.getAmountTiers(),
+                List.of(new RateGridDefinition.Tier(0, 0.0),
+                        new RateGridDefinition.Tier(60, 0.5)));
+
+        engine.publish(next);
+
+        assertEquals("v2", engine.currentGrid().getVersion());
+        assertEquals(10.0, engine.price("TERM", "A", 1_000_000L, 12));
+        assertEquals(10.25, engine.price("EQUIPMENT", "A", 1_000_000L, 12));
+        assertEquals(10.75, engine.price("EQUIPMENT", "A", 1_000_000L, 60));
+    }
+
+    @Test
+    void compile_rejectsGridWithoutFallbackLoanType() {
+        RateGridDefinition def = engine.currentGrid().getDefinition();
+        RateGridDefinition bad = new RateGridDefinition(
+                "bad", 10.0,
+                List.of(new RateGridDefinition.LoanTypeRow("TERM", 0.0)),
+                def.getRatingBands(), 2.0, def.getAmountTiers(), def.getTenureBuckets());
+
+        assertThrows(IllegalArgumentException.class, () -> engine.publish(bad));
+        assertEquals("v1", engine.currentGrid().getVersion());
+    }
+
+    @Test
+    void compile_rejectsGridWithMissingListsInsteadOfFailingWithNpe() {
+        RateGridDefinition def = engine.currentGrid().getDefinition();
+        RateGridDefinition bad = new RateGridDefinition(
+                "bad", 10.0, null, null, 2.0, def.getAmountTiers(), def.getTenureBuckets());
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> engine.publish(bad));
+        assertTrue(e.getMessage().endsWith("required"));
+        assertEquals("v1", engine.currentGrid().getVersion());
+    }
+}
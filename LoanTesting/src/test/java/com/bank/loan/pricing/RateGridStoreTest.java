@@ -0,0 +1,91 @@
+package com.bank.loan.pricing;
+
+import com.bank.loan.model.PublishedRateGrid;
+import com.bank.loan.repository.PublishedRateGridRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.core.io.ClassPathResource;
+
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class RateGridStoreTest {
+
+    @Mock
+    private PublishedRateGridRepository repository;
+
+    private final PricingEngine engine =
+            new PricingEngine(new ObjectMapper(), new ClassPathResource("pricing/rate-grid.json"));
+
+    private RateGridStore store;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(repository.save(any(PublishedRateGrid.class))).thenAnswer(i -> i.getArgument(0));
+        store = new RateGridStore(engine, repository);
+    }
+
+    @Test
+    void publish_storesGridAndAppliesItHere() {
+        store.publish(grid("v2"), "admin1");
+
+        ArgumentCaptor<PublishedRateGrid> saved = ArgumentCaptor.forClass(PublishedRateGrid.class);
+        verify(repository).save(saved.capture());
+        assertEquals("v2", saved.getValue().getVersion());
+        assertEquals("admin1", saved.getValue().getPublishedBy());
+        assertEquals("v2", engine.currentGrid().getVersion());
+    }
+
+    @Test
+    void publish_rejectsInvalidGridWithoutStoringIt() {
+        RateGridDefinition def = engine.currentGrid().getDefinition();
+        RateGridDefinition bad = new RateGridDefinition(
+                "bad", 10.0, null, def.getRatingBands(), 2.0, def.getAmountTiers(), def.getTenureBuckets());
+
+        assertThrows(IllegalArgumentException.class, () -> store.publish(bad, "admin1"));
+        verify(repository, never()).save(any());
+        assertEquals("v1", engine.currentGrid().getVersion());
+    }
+
+    @Test
+    void sync_appliesGridPublishedOnAnotherNode() {
+        when(repository.findTopByOrderByPublishedAtDesc()).thenReturn(Optional.of(stored("v3", Instant.now())));
+
+        store.sync();
+
+        assertEquals("v3", engine.currentGrid().getVersion());
+    }
+
+    @Test
+    void sync_doesNotReplaceANewerLocalPublish() {
+        Instant older = Instant.now().minusSeconds(60);
+        store.publish(grid("v2"), "admin1");
+        when(repository.findTopByOrderByPublishedAtDesc()).thenReturn(Optional.of(stored("v0", older)));
+
+        store.sync();
+
+        assertEquals("v2", engine.currentGrid().getVersion());
+    }
+
+    private RateGridDefinition grid(String version) {
+        RateGridDefinition def = engine.currentGrid().getDefinition();
+        return new RateGridDefinition(
+                version, def.getBaseRate(), def.getLoanTypes(), def.getRatingBands(),
+                def.getUnratedAdjustment(), def.getAmountTiers(), def.getTenureBuckets());
+    }
+
+    private PublishedRateGrid stored(String version, Instant publishedAt) {
+        return PublishedRateGrid.builder()
+                .id(version).version(version).definition(grid(version)).publishedAt(publishedAt)
+                .build();
+    }
+}
@@ -0,0 +1,142 @@
+package com.bank.loan.repository;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Indexes;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.Sorts;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.conversions.Bson;
+import org.openjdk.jmh.annotations.*;
+import org.testcontainers.containers.MongoDBContainer;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One list page of loans, full documents vs. the LIST_FIELDS projection, over a
+ * seeded collection in the current (post-migration) shape: the audit trail lives in
+ * loan_actions and a loan keeps only actionCount, lastAction and its audit fields.
+ * Prints bytes transferred per page at the end of the run.
+ *
+ * Needs Docker (Testcontainers). Run after {@code mvn test-compile} with
+ * {@code java -cp target/test-classes:<test classpath> org.openjdk.jmh.Main LoanListProjectionBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoanListProjectionBenchmark {
+
+    private static final int LOANS = 20_000;
+    private static final int PAGE_SIZE = 50;
+
+    // Length of the free-text comment on lastAction, the largest field the projection keeps
+    @Param({"0", "500"})
+    public int commentLength;
+
+    private MongoDBContainer mongo;
+    private MongoClient client;
+    private MongoCollection<RawBsonDocument> loans;
+
+    private final Bson filter = Filters.eq("deleted", false);
+    private final Bson sort = Sorts.descending("createdAt", "_id");
+    private final Bson projection = Projections.include(LoanRepositoryCustomImpl.LIST_FIELDS);
+
+    private long fullBytes;
+    private long projectedBytes;
+
+    @Setup(Level.Trial)
+    public void seed() {
+        mongo = new MongoDBContainer("mongo:7");
+        mongo.start();
+        client = MongoClients.create(mongo.getConnectionString());
+
+        MongoCollection<Document> raw = client.getDatabase("bench").getCollection("loans");
+        raw.drop();
+        raw.createIndex(Indexes.compoundIndex(
+                Indexes.ascending("deleted"), Indexes.descending("createdAt", "_id")));
+
+        List<Document> batch = new ArrayList<>();
+        for (int i = 0; i < LOANS; i++) {
+            batch.add(loan(i));
+            if (batch.size() == 1_000) {
+                raw.insertMany(batch);
+                batch.clear();
+            }
+        }
+
+        loans = client.getDatabase("bench").getCollection("loans", RawBsonDocument.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void report() {
+        System.out.printf("%ncomment=%d chars  bytes/page: full=%d projected=%d%n",
+                commentLength, fullBytes, projectedBytes);
+        client.close();
+        mongo.stop();
+    }
+
+    @Benchmark
+    public long fullDocuments() {
+        fullBytes = page(null);
+        return fullBytes;
+    }
+
+    @Benchmark
+    public long projected() {
+        projectedBytes = page(projection);
+        return projectedBytes;
+    }
+
+    private long page(Bson fields) {
+        long bytes = 0;
+        var find = loans.find(filter).sort(sort).limit(PAGE_SIZE);
+        if (fields != null) {
+            find = find.projection(fields);
+        }
+        for (RawBsonDocument doc : find) {
+            bytes += doc.getByteBuffer().remaining();
+        }
+        return bytes;
+    }
+
+    private Document loan(int i) {
+        String user = "user" + (i % 100);
+        Document lastAction = new Document("by", user)
+                .append("action", "STATUS_SUBMITTED")
+                .append("comments", "x".repeat(commentLength))
+                .append("timestamp", new Date());
+
+        return new Document("clientName", "Client " + i)
+                .append("loanType", "TermLoan")
+                .append("requestedAmount", 10_000_000L + i)
+                .append("proposedInterestRate", 10.5)
+                .append("tenureMonths", 36)
+                .append("financials", new Document("revenue", 100_000_000L)
+                        .append("ebitda", 10_000_000L)
+                        .append("rating", "A"))
+                .append("status", "SUBMITTED")
+                .append("createdBy", user)
+                .append("updatedBy", user)
+                .append("createdAt", new Date(1_700_000_000_000L + i * 1_000L))
+                .append("updatedAt", new Date())
+                .append("deleted", false)
+                .append("deletedAt", null)
+                .append("version", 3L)
+                .append("actionCount", 12L)
+                .append("lastAction", lastAction)
+                .append("_class", "com.bank.loan.model.Loan");
+    }
+
+    public static void main(String[] args) throws Exception {
+        org.openjdk.jmh.Main.main(new String[]{LoanListProjectionBenchmark.class.getSimpleName()});
+    }
+}
@@ -0,0 +1,110 @@
+package com.bank.loan.repository;
+
+import com.bank.loan.model.Loan;
+import com.bank.loan.model.LoanAction;
+import com.bank.loan.model.LoanStatus;
+import com.mongodb.bulk.BulkWriteResult;
+import org.bson.Document;
+import org.junit.jupiter.api.*;
+import org.mockito.*;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class LoanRepositoryCustomImplTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @InjectMocks
+    private LoanRepositoryCustomImpl repository;
+
+    private final LoanSearchCriteria filter = LoanSearchCriteria.of(LoanStatus.SUBMITTED, null);
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(mongoTemplate.find(any(Query.class), eq(Loan.class))).thenReturn(List.of());
+        when(mongoTemplate.stream(any(Query.class), eq(Loan.class))).thenReturn(Stream.empty());
+    }
+
+    @Test
+    void search_projectsListFields() {
+        repository.search(filter, PageRequest.of(0, 10));
+
+        assertListProjection(capturedFind());
+    }
+
+    @Test
+    void searchAfter_projectsListFields() {
+        repository.searchAfter(filter, new LoanCursor(Instant.now(), "l1"), 10);
+
+        Query query = capturedFind();
+        assertListProjection(query);
+        assertEquals(10, query.getLimit());
+    }
+
+    @Test
+    void stream_projectsListFields() {
+        repository.stream(filter);
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).stream(query.capture(), eq(Loan.class));
+        assertListProjection(query.getValue());
+    }
+
+    @Test
+    void findOpenAfter_readsVersionForTheConditionalRateUpdate() {
+        repository.findOpenAfter("l1", 10);
+
+        assertTrue(capturedFind().getFieldsObject().containsKey("version"));
+    }
+
+    @Test
+    void updateRates_matchesReadVersionAndReturnsOnlyAppliedUpdates() {
+        LoanAction action = LoanAction.builder().action("REPRICED").timestamp(Instant.now()).build();
+        BulkOperations bulk = mock(BulkOperations.class);
+        BulkWriteResult result = mock(BulkWriteResult.class);
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Loan.class)).thenReturn(bulk);
+        when(bulk.execute()).thenReturn(result);
+        when(result.getModifiedCount()).thenReturn(1);
+        // l2 was edited concurrently, so it still carries that edit's action
+        when(mongoTemplate.find(any(Query.class), eq(Loan.class))).thenReturn(List.of(
+                Loan.builder().id("l1").lastAction(action).build(),
+                Loan.builder().id("l2").lastAction(LoanAction.builder().action("UPDATED").build()).build()));
+
+        List<LoanRateUpdate> applied = repository.updateRates(List.of(
+                new LoanRateUpdate("l1", 3L, 9.5),
+                new LoanRateUpdate("l2", 7L, 11.0)), action);
+
+        assertEquals(List.of(new LoanRateUpdate("l1", 3L, 9.5)), applied);
+        ArgumentCaptor<Query> filters = ArgumentCaptor.forClass(Query.class);
+        verify(bulk, times(2)).updateOne(filters.capture(), any(Update.class));
+        assertEquals(3L, filters.getAllValues().get(0).getQueryObject().get("version"));
+        assertEquals(7L, filters.getAllValues().get(1).getQueryObject().get("version"));
+    }
+
+    private Query capturedFind() {
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).find(query.capture(), eq(Loan.class));
+        return query.getValue();
+    }
+
+    private static void assertListProjection(Query query) {
+        Document fields = query.getFieldsObject();
+        assertEquals(Set.of(LoanRepositoryCustomImpl.LIST_FIELDS), fields.keySet());
+        assertFalse(fields.containsKey("updatedBy"));
+        assertEquals("deleted_status_createdAt_id", query.getHint());
+    }
+}
@@ -0,0 +1,120 @@
+package com.bank.loan.repository;
+
+import com.bank.loan.model.Loan;
+import com.bank.loan.model.LoanStatus;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.time.Instant;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoanSearchCriteriaTest {
+
+    @Test
+    void toCriteria_combinesAllFilters() {
+        LoanSearchCriteria filter = LoanSearchCriteria.builder()
+                .status(LoanStatus.SUBMITTED)
+                .createdBy("user1")
+                .rating("A")
+                .minAmount(100L)
+                .maxAmount(500L)
+                .build();
+
+        Document query = filter.toCriteria().getCriteriaObject();
+
+        assertEquals(false, query.get("deleted"));
+        assertEquals(LoanStatus.SUBMITTED, query.get("status"));
+        assertEquals("user1", query.get("createdBy"));
+        assertEquals("A", query.get("financials.rating"));
+        Document amount = (Document) query.get("requestedAmount");
+        assertEquals(100L, amount.get("$gte"));
+        assertEquals(500L, amount.get("$lte"));
+    }
+
+    @Test
+    void indexHint_prefersMostSelectiveEquality() {
+        assertEquals("deleted_createdBy_createdAt_id",
+                LoanSearchCriteria.of(LoanStatus.SUBMITTED, "user1").indexHint());
+        assertEquals("deleted_status_createdAt_id",
+                LoanSearchCriteria.of(LoanStatus.SUBMITTED, null).indexHint());
+        assertEquals("deleted_createdAt_id",
+                LoanSearchCriteria.builder().minAmount(1L).build().indexHint());
+    }
+
+    // A hint naming an index that does not exist fails the query outright.
+    @Test
+    void indexHint_alwaysNamesADeclaredLoanIndex() {
+        Map<String, List<String>> declared = declaredLoanIndexes();
+
+        List<LoanSearchCriteria> filters = List.of(
+                LoanSearchCriteria.builder().build(),
+                LoanSearchCriteria.builder().status(LoanStatus.DRAFT).build(),
+                LoanSearchCriteria.builder().createdBy("user1").build(),
+                LoanSearchCriteria.builder().loanType("TermLoan").build(),
+                LoanSearchCriteria.builder().rating("A").build());
+
+        filters.forEach(f -> assertTrue(declared.containsKey(f.indexHint()), f.indexHint()));
+    }
+
+    // Which filters the hinted index bounds, and which Mongo checks on every loan fetched.
+    @Test
+    void indexHint_boundsTheDrivingEqualityAndCreatedAtOnly() {
+        Map<String, List<String>> declared = declaredLoanIndexes();
+        Instant from = Instant.parse("2024-01-01T00:00:00Z");
+        Instant to = Instant.parse("2024-02-01T00:00:00Z");
+
+        // one equality and a date range: fully bounded
+        assertBounds(declared, LoanSearchCriteria.builder().status(LoanStatus.SUBMITTED)
+                        .createdFrom(from).createdTo(to).build(),
+                Set.of("deleted", "status", "createdAt"), Set.of());
+        assertBounds(declared, LoanSearchCriteria.builder().createdFrom(from).build(),
+                Set.of("deleted", "createdAt"), Set.of());
+
+        // a second equality is scanned within the first one's range
+        assertBounds(declared, LoanSearchCriteria.of(LoanStatus.SUBMITTED, "user1"),
+                Set.of("deleted", "createdBy"), Set.of("status"));
+        assertBounds(declared, LoanSearchCriteria.builder().loanType("TermLoan").rating("A")
+                        .createdFrom(from).build(),
+                Set.of("deleted", "loanType", "createdAt"), Set.of("financials.rating"));
+
+        // the amount range is never bounded: amount-only searches read every live loan in the date range
+        assertBounds(declared, LoanSearchCriteria.builder().minAmount(100L).maxAmount(500L).build(),
+                Set.of("deleted"), Set.of("requestedAmount"));
+        assertBounds(declared, LoanSearchCriteria.builder().rating("A").minAmount(100L)
+                        .createdTo(to).build(),
+                Set.of("deleted", "financials.rating", "createdAt"), Set.of("requestedAmount"));
+    }
+
+    private static void assertBounds(Map<String, List<String>> declared, LoanSearchCriteria filter,
+                                     Set<String> bounded, Set<String> scanned) {
+
+        Set<String> filtered = filter.toCriteria().getCriteriaObject().keySet();
+
+        // the index bounds its leading keys as long as each one is filtered on
+        Set<String> actualBounded = new HashSet<>();
+        for (String key : declared.get(filter.indexHint())) {
+            if (!filtered.contains(key)) break;
+            actualBounded.add(key);
+        }
+        Set<String> actualScanned = new HashSet<>(filtered);
+        actualScanned.removeAll(actualBounded);
+
+        assertEquals(bounded, actualBounded, filter.indexHint());
+        assertEquals(scanned, actualScanned, filter.indexHint());
+    }
+
+    private static Map<String, List<String>> declaredLoanIndexes() {
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(new MongoCustomConversions(List.of()).getSimpleTypeHolder());
+        Map<String, List<String>> declared = new HashMap<>();
+        new MongoPersistentEntityIndexResolver(mappingContext).resolveIndexFor(Loan.class)
+                .forEach(def -> declared.put((String) def.getIndexOptions().get("name"),
+                        new ArrayList<>(def.getIndexKeys().keySet())));
+        return declared;
+    }
+}
@@ -0,0 +1,67 @@
+package com.bank.loan.security;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.security.Key;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request token handling cost in the JWT filter.
+ *
+ * <ul>
+ *   <li>legacyValidateThenGetUsername - old path: two parser builds, two HMAC checks</li>
+ *   <li>verifyOnce - shared parser, single verification</li>
+ *   <li>verifyCached - verified-token cache hit</li>
+ * </ul>
+ *
+ * Run after {@code mvn test-compile} with
+ * {@code java -cp target/test-classes:<test classpath> org.openjdk.jmh.Main JwtAuthBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtAuthBenchmark {
+
+    private static final String SECRET = "very-strong-secret-change-in-prod-1234567890";
+
+    private Key key;
+    private JwtTokenProvider uncached;
+    private JwtTokenProvider cached;
+    private String token;
+
+    @Setup
+    public void setup() {
+        key = Keys.hmacShaKeyFor(SECRET.getBytes());
+        uncached = new JwtTokenProvider(SECRET, 3_600_000L, 0, new SimpleMeterRegistry());
+        cached = new JwtTokenProvider(SECRET, 3_600_000L, 1_000, new SimpleMeterRegistry());
+        token = uncached.generateToken("rm@bank.com", "USER");
+        cached.verify(token);
+    }
+
+    @Benchmark
+    public String legacyValidateThenGetUsername() {
+        Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token);
+        return Jwts.parserBuilder().setSigningKey(key).build()
+                .parseClaimsJws(token).getBody().getSubject();
+    }
+
+    @Benchmark
+    public String verifyOnce() {
+        return uncached.verify(token).orElseThrow().getSubject();
+    }
+
+    @Benchmark
+    public String verifyCached() {
+        return cached.verify(token).orElseThrow().getSubject();
+    }
+
+    public static void main(String[] args) throws Exception {
+        org.openjdk.jmh.Main.main(new String[]{JwtAuthBenchmark.class.getSimpleName()});
+    }
+}
@@ -0,0 +1,112 @@
+package com.bank.loan.security;
+
+import com.bank.loan.model.Role;
+import com.bank.loan.model.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.*;
+import org.mockito.*;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class JwtAuthenticationFilterTest {
+
+    private static final String SECRET = "very-strong-secret-change-in-prod-1234567890";
+
+    @Mock
+    private CustomUserDetailsService userDetailsService;
+
+    @Mock
+    private RevokedAccountRegistry revokedAccounts;
+
+    private final JwtTokenProvider tokenProvider =
+            new JwtTokenProvider(SECRET, 60_000L, 100, new SimpleMeterRegistry());
+
+    private JwtAuthenticationFilter filter;
+
+    private final User user = User.builder()
+            .id("u1").email("rm@bank.com").password("ENC").role(Role.ADMIN).active(true).accountVersion(3)
+            .build();
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        filter = new JwtAuthenticationFilter(
+                tokenProvider, userDetailsService,
+                new PrincipalCache(30_000, 100, new SimpleMeterRegistry()),
+                revokedAccounts, true);
+    }
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void validToken_buildsPrincipalFromClaimsWithoutUserLookup() throws Exception {
+        String token = tokenProvider.generateToken(new CustomUserDetails(user));
+
+        MockFilterChain chain = filter(token);
+
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        assertNotNull(auth);
+        CustomUserDetails principal = (CustomUserDetails) auth.getPrincipal();
+        assertEquals("u1", principal.getId());
+        assertEquals(3, principal.getAccountVersion());
+        assertTrue(auth.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN")));
+        assertNotNull(chain.getRequest());
+        verifyNoInteractions(userDetailsService);
+    }
+
+    @Test
+    void revokedAccountVersion_leavesRequestUnauthenticated() throws Exception {
+        String token = tokenProvider.generateToken(new CustomUserDetails(user));
+        when(revokedAccounts.isRevoked("u1", 3)).thenReturn(true);
+
+        MockFilterChain chain = filter(token);
+
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        assertNotNull(chain.getRequest());
+        verifyNoInteractions(userDetailsService);
+    }
+
+    @Test
+    void tokenWithoutPrincipalClaims_loadsUserOnceThenUsesCache() throws Exception {
+        String token = tokenProvider.generateToken("rm@bank.com", "ADMIN");
+        when(userDetailsService.loadUserByUsername("rm@bank.com")).thenReturn(new CustomUserDetails(user));
+
+        filter(token);
+        SecurityContextHolder.clearContext();
+        filter(token);
+
+        CustomUserDetails principal =
+                (CustomUserDetails) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        assertEquals("u1", principal.getId());
+        verify(userDetailsService, times(1)).loadUserByUsername("rm@bank.com");
+        verifyNoInteractions(revokedAccounts);
+    }
+
+    @Test
+    void tokenWithoutPrincipalClaims_deactivatedUserIsNotAuthenticated() throws Exception {
+        String token = tokenProvider.generateToken("rm@bank.com", "ADMIN");
+        user.setActive(false);
+        when(userDetailsService.loadUserByUsername("rm@bank.com")).thenReturn(new CustomUserDetails(user));
+
+        filter(token);
+
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    private MockFilterChain filter(String token) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/loans");
+        request.addHeader("Authorization", "Bearer " + token);
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+        return chain;
+    }
+}
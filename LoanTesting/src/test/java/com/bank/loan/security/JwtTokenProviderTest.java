@@ -0,0 +1,88 @@
+package com.bank.loan.security;
+
+import com.bank.loan.model.Role;
+import com.bank.loan.model.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtTokenProviderTest {
+
+    private static final String SECRET = "very-strong-secret-change-in-prod-1234567890";
+
+    private final JwtTokenProvider provider =
+            new JwtTokenProvider(SECRET, 60_000L, 100, new SimpleMeterRegistry());
+
+    @Test
+    void verify_returnsSubjectRolesAndExpiry() {
+        String token = provider.generateToken("rm@bank.com", "USER");
+
+        VerifiedToken verified = provider.verify(token).orElseThrow();
+
+        assertEquals("rm@bank.com", verified.getSubject());
+        assertEquals(List.of("ROLE_USER"), verified.getRoles());
+        assertNotNull(verified.getExpiresAt());
+    }
+
+    @Test
+    void generateToken_forPrincipalCarriesIdRoleAndVersion() {
+        User user = User.builder()
+                .id("u1").email("rm@bank.com").role(Role.ADMIN).active(true).accountVersion(3)
+                .build();
+
+        String token = provider.generateToken(new CustomUserDetails(user));
+        CustomUserDetails principal = CustomUserDetails.fromToken(provider.verify(token).orElseThrow());
+
+        assertEquals("u1", principal.getId());
+        assertEquals("rm@bank.com", principal.getUsername());
+        assertEquals(Role.ADMIN, principal.getRole());
+        assertEquals(3, principal.getAccountVersion());
+    }
+
+    @Test
+    void verify_rejectsTamperedToken() {
+        String token = provider.generateToken("rm@bank.com", "USER");
+        String tampered = token.substring(0, token.length() - 2) + "xx";
+
+        assertTrue(provider.verify(tampered).isEmpty());
+    }
+
+    @Test
+    void verify_rejectsExpiredToken() {
+        JwtTokenProvider shortLived =
+                new JwtTokenProvider(SECRET, -1_000L, 100, new SimpleMeterRegistry());
+        String token = shortLived.generateToken("rm@bank.com", "USER");
+
+        assertTrue(shortLived.verify(token).isEmpty());
+    }
+
+    @Test
+    void refreshToken_isRejectedAsBearerToken() {
+        String refresh = provider.generateRefreshToken(principal(), "jti-1", Instant.now().plusSeconds(60));
+
+        assertTrue(provider.verify(refresh).isEmpty());
+
+        VerifiedToken verified = provider.verifyRefresh(refresh).orElseThrow();
+        assertEquals("jti-1", verified.getTokenId());
+        assertEquals("u1", verified.getUserId());
+        assertEquals(3, verified.getAccountVersion());
+        assertTrue(verified.getRoles().isEmpty());
+    }
+
+    @Test
+    void verifyRefresh_rejectsAccessToken() {
+        String access = provider.generateToken(principal());
+
+        assertTrue(provider.verifyRefresh(access).isEmpty());
+    }
+
+    private static CustomUserDetails principal() {
+        return new CustomUserDetails(User.builder()
+                .id("u1").email("rm@bank.com").role(Role.USER).active(true).accountVersion(3)
+                .build());
+    }
+}
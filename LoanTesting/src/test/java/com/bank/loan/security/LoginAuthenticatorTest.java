@@ -0,0 +1,145 @@
+package com.bank.loan.security;
+
+import com.bank.loan.model.Role;
+import com.bank.loan.model.User;
+import com.bank.loan.service.UserService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.*;
+import org.mockito.*;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class LoginAuthenticatorTest {
+
+    private static final String IP = "10.0.0.7";
+
+    @Mock
+    private AuthenticationManager authenticationManager;
+
+    @Mock
+    private LoginRateLimiter rateLimiter;
+
+    @Mock
+    private PasswordEncoder passwordEncoder;
+
+    @Mock
+    private UserService userService;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private LoginAuthenticator authenticator;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        authenticator = new LoginAuthenticator(authenticationManager, rateLimiter, passwordEncoder, userService,
+                1, 1, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        authenticator.shutdown();
+    }
+
+    @Test
+    void authenticate_runsOffTheCallingThread() throws Exception {
+        Thread caller = Thread.currentThread();
+        Thread[] ranOn = new Thread[1];
+        Authentication auth = new UsernamePasswordAuthenticationToken("rm@bank.com", null, List.of());
+        when(authenticationManager.authenticate(any())).thenAnswer(inv -> {
+            ranOn[0] = Thread.currentThread();
+            return auth;
+        });
+
+        assertSame(auth, authenticator.authenticate("rm@bank.com", "pass", IP).get(5, TimeUnit.SECONDS));
+
+        assertNotSame(caller, ranOn[0]);
+        verify(rateLimiter).acquire("rm@bank.com", IP);
+        verify(rateLimiter).recordSuccess("rm@bank.com", IP);
+        verify(rateLimiter, never()).recordFailure(any(), any());
+        assertEquals(1, meterRegistry.get("auth.login.hash").timer().count());
+    }
+
+    @Test
+    void authenticate_badCredentialsFailTheFuture() {
+        when(authenticationManager.authenticate(any())).thenThrow(new BadCredentialsException("Bad credentials"));
+
+        CompletableFuture<Authentication> result = authenticator.authenticate("rm@bank.com", "wrong", IP);
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(BadCredentialsException.class, e.getCause());
+        verify(rateLimiter).recordFailure("rm@bank.com", IP);
+        verify(rateLimiter, never()).recordSuccess(any(), any());
+    }
+
+    @Test
+    void authenticate_rejectsImmediatelyWhenPoolAndQueueAreFull() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(authenticationManager.authenticate(any())).thenAnswer(inv -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return new UsernamePasswordAuthenticationToken("a@bank.com", null, List.of());
+        });
+
+        CompletableFuture<Authentication> running = authenticator.authenticate("a@bank.com", "p", IP);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Authentication> queued = authenticator.authenticate("b@bank.com", "p", IP);
+
+        assertThrows(RejectedExecutionException.class, () -> authenticator.authenticate("c@bank.com", "p", IP));
+        assertEquals(1.0, meterRegistry.get("auth.login.rejected").tag("reason", "saturated").counter().count());
+        verify(rateLimiter).release("c@bank.com", IP);
+
+        release.countDown();
+        running.get(5, TimeUnit.SECONDS);
+        queued.get(5, TimeUnit.SECONDS);
+    }
+
+    private Authentication loginWithHash(String hash) {
+        CustomUserDetails user = new CustomUserDetails(User.builder()
+                .id("u1")
+                .email("rm@bank.com")
+                .password(hash)
+                .role(Role.USER)
+                .active(true)
+                .build());
+        return new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities());
+    }
+
+    @Test
+    void authenticate_rehashesOutdatedHashInBackground() throws Exception {
+        Authentication auth = loginWithHash("$2a$04$legacy");
+        when(authenticationManager.authenticate(any())).thenReturn(auth);
+        when(passwordEncoder.upgradeEncoding("$2a$04$legacy")).thenReturn(true);
+        CountDownLatch rehashed = new CountDownLatch(1);
+        when(userService.upgradePassword("u1", "$2a$04$legacy", "pass")).thenAnswer(inv -> {
+            rehashed.countDown();
+            return true;
+        });
+
+        assertSame(auth, authenticator.authenticate("rm@bank.com", "pass", IP).get(5, TimeUnit.SECONDS));
+
+        assertTrue(rehashed.await(5, TimeUnit.SECONDS));
+        verify(userService).upgradePassword("u1", "$2a$04$legacy", "pass");
+    }
+
+    @Test
+    void authenticate_currentHashIsLeftAlone() throws Exception {
+        when(authenticationManager.authenticate(any())).thenReturn(loginWithHash("{bcrypt}$2a$10$current"));
+        when(passwordEncoder.upgradeEncoding(any())).thenReturn(false);
+
+        authenticator.authenticate("rm@bank.com", "pass", IP).get(5, TimeUnit.SECONDS);
+
+        verifyNoInteractions(userService);
+    }
+}
@@ -0,0 +1,152 @@
+package com.bank.loan.security;
+
+import com.bank.loan.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoginRateLimiterTest {
+
+    private static final String IP = "10.0.0.7";
+
+    private final MutableClock clock = new MutableClock();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void acquire_refusesAfterTooManyFailuresWithinWindow() {
+        LoginRateLimiter limiter = new LoginRateLimiter(3, 100, 60_000, 1_000, 1_000, meterRegistry, clock);
+
+        for (int i = 0; i < 3; i++) {
+            limiter.acquire("rm@bank.com", IP);
+            limiter.recordFailure("rm@bank.com", IP);
+        }
+        TooManyRequestsException e = assertThrows(TooManyRequestsException.class,
+                () -> limiter.acquire("RM@bank.com", IP));
+        assertEquals(60, e.getRetryAfterSeconds());
+
+        // the account is limited whatever address the guesses come from; other accounts are not
+        assertThrows(TooManyRequestsException.class, () -> limiter.acquire("rm@bank.com", "10.0.0.8"));
+        limiter.acquire("other@bank.com", IP);
+
+        clock.advance(Duration.ofSeconds(61));
+        limiter.acquire("rm@bank.com", IP);
+
+        assertEquals(2.0, meterRegistry.get("auth.login.rejected").tag("reason", "account").counter().count());
+    }
+
+    @Test
+    void acquire_countsAttemptsStillInFlight() {
+        LoginRateLimiter limiter = new LoginRateLimiter(3, 100, 60_000, 1_000, 1_000, meterRegistry, clock);
+
+        for (int i = 0; i < 3; i++) {
+            limiter.acquire("rm@bank.com", "10.0.0." + i);
+        }
+        assertThrows(TooManyRequestsException.class, () -> limiter.acquire("rm@bank.com", "10.0.0.9"));
+
+        // an attempt that ends without a verdict frees its slot, a failure keeps it
+        limiter.release("rm@bank.com", "10.0.0.0");
+        limiter.recordFailure("rm@bank.com", "10.0.0.1");
+        limiter.acquire("rm@bank.com", "10.0.0.9");
+        assertThrows(TooManyRequestsException.class, () -> limiter.acquire("rm@bank.com", "10.0.0.9"));
+    }
+
+    @Test
+    void acquire_successfulLoginsAreNotCountedAndClearFailures() {
+        LoginRateLimiter limiter = new LoginRateLimiter(2, 100, 60_000, 1_000, 1_000, meterRegistry, clock);
+
+        for (int i = 0; i < 5; i++) {
+            limiter.acquire("rm@bank.com", IP);
+            limiter.recordSuccess("rm@bank.com", IP);
+        }
+
+        limiter.acquire("rm@bank.com", IP);
+        limiter.recordFailure("rm@bank.com", IP);
+        limiter.acquire("rm@bank.com", IP);
+        limiter.recordSuccess("rm@bank.com", IP);
+        limiter.acquire("rm@bank.com", IP);
+        limiter.recordFailure("rm@bank.com", IP);
+        limiter.acquire("rm@bank.com", IP);
+    }
+
+    @Test
+    void acquire_limitsOneAddressAcrossAccountsSeparately() {
+        LoginRateLimiter limiter = new LoginRateLimiter(3, 4, 60_000, 1_000, 1_000, meterRegistry, clock);
+
+        for (int i = 0; i < 4; i++) {
+            limiter.acquire("user" + i + "@bank.com", IP);
+            limiter.recordFailure("user" + i + "@bank.com", IP);
+        }
+        assertThrows(TooManyRequestsException.class, () -> limiter.acquire("user9@bank.com", IP));
+
+        // the refused attempt did not hold a slot on the account, and other addresses are unaffected
+        limiter.acquire("user9@bank.com", "10.0.0.8");
+        limiter.acquire("user0@bank.com", "10.0.0.8");
+
+        assertEquals(1.0, meterRegistry.get("auth.login.rejected").tag("reason", "address").counter().count());
+        assertEquals(0.0, meterRegistry.get("auth.login.rejected").tag("reason", "account").counter().count());
+    }
+
+    @Test
+    void acquire_globallyRejectedAttemptDoesNotCountAgainstTheAccount() {
+        LoginRateLimiter limiter = new LoginRateLimiter(1, 100, 60_000, 10, 1, meterRegistry, clock);
+
+        limiter.acquire("rm@bank.com", IP);
+        limiter.recordSuccess("rm@bank.com", IP);
+        assertThrows(TooManyRequestsException.class, () -> limiter.acquire("rm@bank.com", IP));
+
+        clock.advance(Duration.ofMillis(100));
+        limiter.acquire("rm@bank.com", IP);
+
+        assertEquals(1.0, meterRegistry.get("auth.login.rejected").tag("reason", "global").counter().count());
+        assertEquals(0.0, meterRegistry.get("auth.login.rejected").tag("reason", "account").counter().count());
+    }
+
+    @Test
+    void acquire_globalBucketAllowsBurstThenRefills() {
+        LoginRateLimiter limiter = new LoginRateLimiter(100, 100, 60_000, 10, 5, meterRegistry, clock);
+
+        for (int i = 0; i < 5; i++) {
+            limiter.acquire("user" + i + "@bank.com", IP);
+        }
+        TooManyRequestsException e = assertThrows(TooManyRequestsException.class,
+                () -> limiter.acquire("late@bank.com", IP));
+        assertEquals(1, e.getRetryAfterSeconds());
+
+        // 10 per second: one token back after 100 ms
+        clock.advance(Duration.ofMillis(100));
+        limiter.acquire("late@bank.com", IP);
+
+        assertEquals(1.0, meterRegistry.get("auth.login.rejected").tag("reason", "global").counter().count());
+    }
+
+    private static class MutableClock extends Clock {
+
+        private Instant now = Instant.parse("2024-01-01T00:00:00Z");
+
+        void advance(Duration d) {
+            now = now.plus(d);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.bank.loan.security;
+
+import com.bank.loan.exception.InvalidTokenException;
+import com.bank.loan.model.RefreshToken;
+import com.bank.loan.model.Role;
+import com.bank.loan.model.User;
+import com.bank.loan.repository.RefreshTokenRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class RefreshTokenServiceTest {
+
+    private static final String SECRET = "very-strong-secret-change-in-prod-1234567890";
+
+    @Mock
+    private RefreshTokenRepository repository;
+
+    @Mock
+    private RevokedAccountRegistry revokedAccounts;
+
+    private final JwtTokenProvider tokenProvider =
+            new JwtTokenProvider(SECRET, 60_000L, 0, new SimpleMeterRegistry());
+
+    private RefreshTokenService service;
+
+    private final CustomUserDetails user = new CustomUserDetails(User.builder()
+            .id("u1").email("rm@bank.com").role(Role.USER).active(true).accountVersion(2)
+            .build());
+
+    @BeforeEach
+    void setup() {
+        MockitoAnnotations.openMocks(this);
+        service = new RefreshTokenService(
+                tokenProvider, repository, revokedAccounts, 3_600_000L, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void issue_storesOnlyTheHashOfTheTokenId() {
+        String token = service.issue(user);
+
+        ArgumentCaptor<RefreshToken> stored = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(repository).insert(stored.capture());
+
+        String tokenId = tokenProvider.verifyRefresh(token).orElseThrow().getTokenId();
+        assertEquals(RefreshTokenService.hash(tokenId), stored.getValue().getId());
+        assertNotEquals(tokenId, stored.getValue().getId());
+        assertEquals("u1", stored.getValue().getUserId());
+        assertTrue(stored.getValue().getExpiresAt().isAfter(Instant.now()));
+    }
+
+    @Test
+    void refresh_returnsPrincipalWithoutReadingMongo() {
+        String token = service.issue(user);
+
+        CustomUserDetails principal = service.refresh(token);
+
+        assertEquals("u1", principal.getId());
+        assertEquals(Role.USER, principal.getRole());
+        assertEquals(2, principal.getAccountVersion());
+        verify(repository, never()).findById(any());
+        verify(repository, never()).findByRevokedAtAfter(any());
+    }
+
+    @Test
+    void refresh_rejectsAccessToken() {
+        String access = tokenProvider.generateToken(user);
+
+        assertThrows(InvalidTokenException.class, () -> service.refresh(access));
+    }
+
+    @Test
+    void revoke_rejectsLaterRefreshAndPersists() {
+        String token = service.issue(user);
+
+        service.revoke(token);
+
+        assertThrows(InvalidTokenException.class, () -> service.refresh(token));
+        String id = RefreshTokenService.hash(tokenProvider.verifyRefresh(token).orElseThrow().getTokenId());
+        verify(repository).revoke(eq(id), any(Instant.class));
+    }
+
+    @Test
+    void sync_picksUpRevocationsFromOtherNodes() {
+        String token = service.issue(user);
+        String id = RefreshTokenService.hash(tokenProvider.verifyRefresh(token).orElseThrow().getTokenId());
+        when(repository.findByRevokedAtAfter(any())).thenReturn(List.of(RefreshToken.builder()
+                .id(id).userId("u1")
+                .expiresAt(Instant.now().plusSeconds(3_600))
+                .revokedAt(Instant.now())
+                .build()));
+
+        service.sync();
+
+        assertThrows(InvalidTokenException.class, () -> service.refresh(token));
+    }
+
+    @Test
+    void refresh_rejectsTokenIssuedBeforeAccountChange() {
+        String token = service.issue(user);
+        when(revokedAccounts.isRevoked("u1", 2L)).thenReturn(true);
+
+        assertThrows(InvalidTokenException.class, () -> service.refresh(token));
+    }
+}
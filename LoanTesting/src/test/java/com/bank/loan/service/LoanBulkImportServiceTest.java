@@ -0,0 +1,147 @@
+package com.bank.loan.service;
+
+import com.bank.loan.event.LoanEvent;
+import com.bank.loan.event.LoanEventPublisher;
+import com.bank.loan.model.Loan;
+import com.bank.loan.model.LoanAction;
+import com.bank.loan.pricing.PricingEngine;
+import com.bank.loan.repository.LoanActionRepository;
+import com.bank.loan.repository.LoanRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.*;
+import org.mockito.*;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class LoanBulkImportServiceTest {
+
+    private static final String SUBMIT =
+            "{\"clientName\":\"C\",\"loanType\":\"TERM\",\"requestedAmount\":1000,\"tenureMonths\":12,"
+                    + "\"financials\":{\"revenue\":1,\"ebitda\":1,\"rating\":\"A\"},\"action\":\"SUBMIT\"}";
+
+    private static final String DRAFT = "{\"clientName\":\"C\",\"action\":\"SAVE\"}";
+
+    private static final String INVALID_SUBMIT = "{\"clientName\":\"C\",\"action\":\"SUBMIT\"}";
+
+    @Mock
+    private LoanRepository loanRepository;
+
+    @Mock
+    private LoanActionRepository loanActionRepository;
+
+    @Mock
+    private LoanEventPublisher eventPublisher;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private LoanBulkImportService importService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        LoanService loanService = new LoanService(
+                loanRepository,
+                loanActionRepository,
+                new OptimisticRetryExecutor(3, 0, 0, new SimpleMeterRegistry()),
+                new PricingEngine(mapper, new ClassPathResource("pricing/rate-grid.json")),
+                eventPublisher,
+                new TransactionalRunner());
+        importService = new LoanBulkImportService(
+                loanService, loanRepository, loanActionRepository, eventPublisher, mapper, 2, 2,
+                new SimpleMeterRegistry());
+    }
+
+    private List<JsonNode> run(String input) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        importService.importLoans(
+                new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)), out, "user1");
+
+        List<JsonNode> lines = new ArrayList<>();
+        for (String line : out.toString(StandardCharsets.UTF_8).split("\n")) {
+            lines.add(mapper.readTree(line));
+        }
+        return lines;
+    }
+
+    @Test
+    void importLoans_jsonArrayReportsEachItemInOrder() throws Exception {
+        List<JsonNode> results = run("[" + SUBMIT + "," + INVALID_SUBMIT + "," + DRAFT + "]");
+
+        assertEquals(3, results.size());
+        assertEquals("SUBMITTED", results.get(0).get("status").asText());
+        assertTrue(results.get(0).hasNonNull("id"));
+        assertEquals(1, results.get(1).get("index").asInt());
+        assertEquals("Loan type required", results.get(1).get("error").asText());
+        assertEquals("DRAFT", results.get(2).get("status").asText());
+
+        verify(loanActionRepository, times(2)).insert(anyList());
+    }
+
+    @Test
+    void importLoans_ndjsonInsertsInChunks() throws Exception {
+        List<JsonNode> results = run(SUBMIT + "\n" + SUBMIT + "\n" + DRAFT + "\n");
+
+        assertEquals(3, results.size());
+        verify(loanRepository, times(2)).insertUnordered(anyList());
+    }
+
+    @Test
+    void importLoans_flushesResultsPerChunkNotPerItem() throws Exception {
+        AtomicInteger flushes = new AtomicInteger();
+        ByteArrayOutputStream out = new ByteArrayOutputStream() {
+            @Override
+            public void flush() {
+                flushes.incrementAndGet();
+            }
+        };
+
+        String input = SUBMIT + "\n" + SUBMIT + "\n" + DRAFT + "\n" + DRAFT + "\n";
+        importService.importLoans(new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)), out, "user1");
+
+        assertEquals(4, out.toString(StandardCharsets.UTF_8).split("\n").length);
+        // two chunks of two, plus the final flush
+        assertEquals(3, flushes.get());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void importLoans_reportsInsertFailuresPerItem() throws Exception {
+        when(loanRepository.insertUnordered(anyList())).thenReturn(Map.of(1, "duplicate key"));
+
+        List<JsonNode> results = run("[" + SUBMIT + "," + DRAFT + "]");
+
+        assertFalse(results.get(0).has("error"));
+        assertEquals("duplicate key", results.get(1).get("error").asText());
+
+        ArgumentCaptor<List<Loan>> inserted = ArgumentCaptor.forClass(List.class);
+        verify(loanRepository).insertUnordered(inserted.capture());
+        assertEquals(1, inserted.getValue().get(0).getActionCount());
+        ArgumentCaptor<List<LoanAction>> actions = ArgumentCaptor.forClass(List.class);
+        verify(loanActionRepository).insert(actions.capture());
+        assertEquals(1, actions.getValue().size());
+        verify(eventPublisher).publishAll(argThat((List<LoanEvent> events) -> events.size() == 1));
+    }
+
+    @Test
+    void importLoans_stopsAtMalformedInputAfterProcessingEarlierItems() throws Exception {
+        List<JsonNode> results = run(SUBMIT + "\n{\"clientName\": ");
+
+        assertEquals(2, results.size());
+        assertEquals("SUBMITTED", results.get(0).get("status").asText());
+        assertFalse(results.get(1).has("index"));
+        assertTrue(results.get(1).get("error").asText().startsWith("Malformed input at item 1"));
+    }
+}
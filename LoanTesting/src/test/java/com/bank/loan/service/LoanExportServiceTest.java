@@ -0,0 +1,145 @@
+package com.bank.loan.service;
+
+import com.bank.loan.dto.ExportFormat;
+import com.bank.loan.model.Financials;
+import com.bank.loan.model.Loan;
+import com.bank.loan.model.LoanStatus;
+import com.bank.loan.pricing.PricingEngine;
+import com.bank.loan.repository.LoanActionRepository;
+import com.bank.loan.repository.LoanRepository;
+import com.bank.loan.repository.LoanSearchCriteria;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.*;
+import org.mockito.*;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class LoanExportServiceTest {
+
+    @Mock
+    private LoanRepository loanRepository;
+
+    @Mock
+    private LoanActionRepository loanActionRepository;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private LoanService loanService;
+
+    private LoanExportService exportService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        loanService = new LoanService(
+                loanRepository,
+                loanActionRepository,
+                new OptimisticRetryExecutor(3, 0, 0, new SimpleMeterRegistry()),
+                new PricingEngine(mapper, new ClassPathResource("pricing/rate-grid.json")),
+                event -> { },
+                new TransactionalRunner());
+        exportService = new LoanExportService(loanRepository, loanService, mapper, 2, meterRegistry);
+    }
+
+    private Loan loan(String id, String clientName) {
+        return Loan.builder()
+                .id(id)
+                .clientName(clientName)
+                .loanType("TERM")
+                .requestedAmount(1_000L)
+                .financials(Financials.builder().rating("A").build())
+                .status(LoanStatus.SUBMITTED)
+                .build();
+    }
+
+    @Test
+    void export_csvEscapesCellsAndClosesCursor() throws Exception {
+        AtomicBoolean closed = new AtomicBoolean();
+        LoanSearchCriteria filter = LoanSearchCriteria.of(LoanStatus.SUBMITTED, null);
+        when(loanRepository.stream(filter)).thenReturn(
+                Stream.of(loan("1", "Acme, Inc"), loan("2", "Say \"hi\""))
+                        .onClose(() -> closed.set(true)));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long rows = exportService.export(filter, ExportFormat.CSV, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, rows);
+        assertEquals(3, lines.length);
+        assertTrue(lines[0].startsWith("id,clientName,"));
+        assertTrue(lines[1].startsWith("1,\"Acme, Inc\",TERM,1000,,,,,A,SUBMITTED,"));
+        assertTrue(lines[2].startsWith("2,\"Say \"\"hi\"\"\","));
+        assertTrue(closed.get());
+    }
+
+    @Test
+    void export_csvNeutralisesFormulasInTextCells() throws Exception {
+        LoanSearchCriteria filter = LoanSearchCriteria.of(null, null);
+        Loan negativeEbitda = loan("3", "@SUM(A1)");
+        negativeEbitda.setFinancials(Financials.builder().ebitda(-5L).rating("A").build());
+        when(loanRepository.stream(filter)).thenReturn(Stream.of(
+                loan("1", "=HYPERLINK(\"http://x\",\"y\")"), loan("2", "+1-1"), negativeEbitda, loan("4", "-2")));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.export(filter, ExportFormat.CSV, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertTrue(lines[1].startsWith("1,\"'=HYPERLINK(\"\"http://x\"\",\"\"y\"\")\",TERM,"));
+        assertTrue(lines[2].startsWith("2,'+1-1,TERM,"));
+        // numbers are not text: a negative amount stays a number
+        assertTrue(lines[3].startsWith("3,'@SUM(A1),TERM,1000,,,,-5,A,"));
+        assertTrue(lines[4].startsWith("4,'-2,TERM,"));
+    }
+
+    @Test
+    void export_ndjsonWritesOneDtoPerLine() throws Exception {
+        LoanSearchCriteria filter = LoanSearchCriteria.of(null, null);
+        when(loanRepository.stream(filter)).thenReturn(
+                Stream.of(loan("1", "A"), loan("2", "B"), loan("3", "C")));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.export(filter, ExportFormat.NDJSON, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(3, lines.length);
+        assertEquals("2", mapper.readTree(lines[1]).get("id").asText());
+        assertEquals(3.0, meterRegistry.get("loan.export.rows").tag("format", "ndjson").counter().count());
+    }
+
+    @Test
+    void export_ndjsonFlushesOnlyAtTheEndNotPerRow() throws Exception {
+        exportService = new LoanExportService(loanRepository, loanService, mapper, 1_000, meterRegistry);
+        LoanSearchCriteria filter = LoanSearchCriteria.of(null, null);
+        when(loanRepository.stream(filter)).thenReturn(
+                Stream.of(loan("1", "A"), loan("2", "B"), loan("3", "C")));
+        AtomicInteger flushes = new AtomicInteger();
+        ByteArrayOutputStream out = new ByteArrayOutputStream() {
+            @Override
+            public void flush() {
+                flushes.incrementAndGet();
+            }
+        };
+
+        exportService.export(filter, ExportFormat.NDJSON, out);
+
+        assertEquals(3, out.toString(StandardCharsets.UTF_8).split("\n").length);
+        assertEquals(1, flushes.get());
+    }
+
+    @Test
+    void exportFormat_rejectsUnknownFormat() {
+        assertEquals(ExportFormat.CSV, ExportFormat.from("csv"));
+        assertThrows(IllegalArgumentException.class, () -> ExportFormat.from("xlsx"));
+    }
+}
@@ -0,0 +1,107 @@
+package com.bank.loan.service;
+
+import com.bank.loan.dto.FinancialsDto;
+import com.bank.loan.dto.LoanCreateRequest;
+import com.bank.loan.dto.LoanQuoteDto;
+import com.bank.loan.pricing.PricingEngine;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoanQuoteServiceTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final LoanQuoteService quoteService = new LoanQuoteService(
+            new PricingEngine(new ObjectMapper(), new ClassPathResource("pricing/rate-grid.json")),
+            new ObjectMapper(),
+            3,
+            meterRegistry);
+
+    private LoanCreateRequest scenario(String rating, long amount) {
+        LoanCreateRequest req = new LoanCreateRequest();
+        req.setClientName("Client");
+        req.setLoanType("TERM");
+        req.setRequestedAmount(amount);
+        req.setTenureMonths(12);
+        FinancialsDto fin = FinancialsDto.builder().revenue(1L).ebitda(1L).rating(rating).build();
+        req.setFinancials(fin);
+        return req;
+    }
+
+    @Test
+    void quote_pricesWithoutPersisting() {
+        LoanQuoteDto quote = quoteService.quote(scenario("BBB", 1_000_000L));
+
+        assertEquals(11.0, quote.getProposedInterestRate());
+        assertEquals("v1", quote.getGridVersion());
+        assertEquals(1, meterRegistry.get("loan.quote").tag("mode", "single").timer().count());
+    }
+
+    @Test
+    void quote_rejectsInvalidScenarioAsBadRequest() {
+        LoanCreateRequest req = scenario("A", 1_000_000L);
+        req.setTenureMonths(null);
+
+        IllegalArgumentException ex =
+                assertThrows(IllegalArgumentException.class, () -> quoteService.quote(req));
+        assertEquals("Tenure required", ex.getMessage());
+    }
+
+    @Test
+    void quoteBatch_reportsErrorsPerScenarioInOrder() {
+        LoanCreateRequest invalid = scenario("A", 1_000_000L);
+        invalid.setClientName(" ");
+
+        List<LoanQuoteDto> quotes = quoteService.quoteBatch(
+                List.of(scenario("AAA", 1_000_000L), invalid, scenario("A", 75_000_000L)));
+
+        assertEquals(9.0, quotes.get(0).getProposedInterestRate());
+        assertNull(quotes.get(1).getProposedInterestRate());
+        assertEquals("Client name required", quotes.get(1).getError());
+        assertEquals(9.5, quotes.get(2).getProposedInterestRate());
+    }
+
+    @Test
+    void quoteBatch_enforcesSizeLimit() {
+        List<LoanCreateRequest> tooMany = Collections.nCopies(4, scenario("A", 1_000L));
+
+        assertThrows(IllegalArgumentException.class, () -> quoteService.quoteBatch(tooMany));
+    }
+
+    @Test
+    void quoteBatch_streamRefusesTheElementPastTheLimitBeforeReadingIt() throws Exception {
+        String scenario = new ObjectMapper().writeValueAsString(scenario("A", 1_000L));
+        // the fifth element is malformed: reaching it would fail with a different error
+        String body = "[" + String.join(",", Collections.nCopies(4, scenario)) + ",{broken";
+
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                () -> quoteService.quoteBatch(stream(body)));
+        assertEquals("At most 3 scenarios per request", ex.getMessage());
+    }
+
+    @Test
+    void quoteBatch_streamQuotesAnArrayWithinTheLimit() throws Exception {
+        String scenario = new ObjectMapper().writeValueAsString(scenario("AAA", 1_000_000L));
+
+        List<LoanQuoteDto> quotes = quoteService.quoteBatch(stream("[" + scenario + "," + scenario + "]"));
+
+        assertEquals(2, quotes.size());
+        assertEquals(9.0, quotes.get(1).getProposedInterestRate());
+        assertThrows(IllegalArgumentException.class, () -> quoteService.quoteBatch(stream(scenario)));
+        assertThrows(IllegalArgumentException.class, () -> quoteService.quoteBatch(stream("[{\"clientName\":")));
+    }
+
+    private static InputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -1,12 +1,27 @@
 package com.bank.loan.service;
 
 import com.bank.loan.dto.*;
+import com.bank.loan.event.LoanEvent;
+import com.bank.loan.event.LoanEventPublisher;
+import com.bank.loan.event.LoanEventType;
 import com.bank.loan.model.*;
+import com.bank.loan.pricing.PricingEngine;
+import com.bank.loan.repository.LoanActionRepository;
+import com.bank.loan.repository.LoanCursor;
 import com.bank.loan.repository.LoanRepository;
+import com.bank.loan.repository.LoanSearchCriteria;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.Document;
 import org.junit.jupiter.api.*;
 import org.mockito.*;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.*;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Update;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 
@@ -18,6 +33,23 @@ class LoanServiceTest {
     @Mock
     private LoanRepository loanRepository;
 
+    @Mock
+    private LoanActionRepository loanActionRepository;
+
+    @Mock
+    private LoanEventPublisher eventPublisher;
+
+    @Spy
+    private TransactionalRunner transactionalRunner = new TransactionalRunner();
+
+    @Spy
+    private OptimisticRetryExecutor retryExecutor =
+            new OptimisticRetryExecutor(3, 0, 0, new SimpleMeterRegistry());
+
+    @Spy
+    private PricingEngine pricingEngine =
+            new PricingEngine(new ObjectMapper(), new ClassPathResource("pricing/rate-grid.json"));
+
     @InjectMocks
     private LoanService loanService;
 
@@ -34,10 +66,7 @@ class LoanServiceTest {
         req.setProposedInterestRate(0.0);
         req.setTenureMonths(12);
 
-        FinancialsDto fin = new FinancialsDto();
-        fin.setRevenue(100_000_000L);
-        fin.setEbitda(10_000_000L);
-        fin.setRating("A");
+        FinancialsDto fin = FinancialsDto.builder().revenue(100_000_000L).ebitda(10_000_000L).rating("A").build();
         req.setFinancials(fin);
         return req;
     }
@@ -45,7 +74,7 @@ class LoanServiceTest {
     // ---------------- EXISTING TESTS ----------------
 
     @Test
-    void createLoan_setsDraftAndSuggestedRate() {
+    void createLoan_setsDraftWithoutRate() {
         LoanCreateRequest req = sampleCreateRequest();
 
         when(loanRepository.save(any())).thenAnswer(invocation -> {
@@ -57,10 +86,57 @@ class LoanServiceTest {
         LoanResponseDto dto = loanService.createLoan(req, "user1");
 
         assertEquals(LoanStatus.DRAFT, dto.getStatus());
-        assertNotNull(dto.getProposedInterestRate());
+        assertNull(dto.getProposedInterestRate());
         verify(loanRepository).save(any());
     }
 
+    @Test
+    void createLoan_submitSetsSuggestedRate() {
+        LoanCreateRequest req = sampleCreateRequest();
+        req.setAction(LoanCreateAction.SUBMIT);
+
+        when(loanRepository.save(any())).thenAnswer(invocation -> {
+            Loan l = invocation.getArgument(0);
+            l.setId("1");
+            return l;
+        });
+
+        LoanResponseDto dto = loanService.createLoan(req, "user1");
+
+        assertEquals(LoanStatus.SUBMITTED, dto.getStatus());
+        assertNotNull(dto.getProposedInterestRate());
+    }
+
+    @Test
+    void createLoan_appendsActionToSeparateCollection() {
+        when(loanRepository.save(any())).thenAnswer(invocation -> {
+            Loan l = invocation.getArgument(0);
+            l.setId("1");
+            return l;
+        });
+
+        LoanResponseDto dto = loanService.createLoan(sampleCreateRequest(), "user1");
+
+        assertEquals(1, dto.getActionCount());
+        assertEquals("SAVED_DRAFT", dto.getLastAction().getAction());
+        verify(loanActionRepository).save(argThat(a -> "1".equals(a.getLoanId())));
+        verify(eventPublisher).publish(argThat(e ->
+                e.getType() == LoanEventType.CREATED && e.getBefore() == null && "1".equals(e.getLoanId())));
+    }
+
+    @Test
+    void getLoanActions_pagesFromActionCollection() {
+        when(loanRepository.existsById("1")).thenReturn(true);
+        LoanAction action = LoanAction.builder().loanId("1").by("user1").action("UPDATED").build();
+        when(loanActionRepository.findByLoanId(eq("1"), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(action)));
+
+        PagedResponse<LoanActionDto> res = loanService.getLoanActions("1", 0, 20);
+
+        assertEquals(1, res.getContent().size());
+        assertEquals("UPDATED", res.getContent().get(0).getAction());
+    }
+
     @Test
     void getLoan_throwsWhenDeleted() {
         Loan loan = Loan.builder().id("1").deleted(true).build();
@@ -87,10 +163,7 @@ class LoanServiceTest {
         req.setProposedInterestRate(12.5);
         req.setTenureMonths(24);
 
-        FinancialsDto fin = new FinancialsDto();
-        fin.setRevenue(200_000_000L);
-        fin.setEbitda(20_000_000L);
-        fin.setRating("BBB");
+        FinancialsDto fin = FinancialsDto.builder().revenue(200_000_000L).ebitda(20_000_000L).rating("BBB").build();
         req.setFinancials(fin);
 
         LoanResponseDto dto = loanService.updateLoan("1", req, "user1", Role.USER);
@@ -99,6 +172,32 @@ class LoanServiceTest {
         assertNull(dto.getSanctionedAmount());
     }
 
+    @Test
+    void updateLoan_retriesOnVersionConflict() {
+        Loan loan = Loan.builder()
+                .id("1")
+                .version(1L)
+                .status(LoanStatus.DRAFT)
+                .financials(Financials.builder().revenue(1L).ebitda(1L).rating("A").build())
+                .build();
+
+        when(loanRepository.findById("1")).thenReturn(Optional.of(loan));
+        when(loanRepository.save(any()))
+                .thenThrow(new OptimisticLockingFailureException("stale"))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        LoanUpdateRequest req = new LoanUpdateRequest();
+        req.setClientName("NewClient");
+        FinancialsDto fin = FinancialsDto.builder().rating("A").build();
+        req.setFinancials(fin);
+
+        LoanResponseDto dto = loanService.updateLoan("1", req, "user1", Role.USER);
+
+        assertEquals("NewClient", dto.getClientName());
+        verify(loanRepository, times(2)).findById("1");
+        verify(loanActionRepository, times(1)).save(any());
+    }
+
     @Test
     void updateLoan_userCannotUpdateNonDraft() {
         Loan loan = Loan.builder()
@@ -116,10 +215,7 @@ class LoanServiceTest {
         req.setProposedInterestRate(1.0);
         req.setTenureMonths(1);
 
-        FinancialsDto fin = new FinancialsDto();
-        fin.setRevenue(1L);
-        fin.setEbitda(1L);
-        fin.setRating("A");
+        FinancialsDto fin = FinancialsDto.builder().revenue(1L).ebitda(1L).rating("A").build();
         req.setFinancials(fin);
 
         assertThrows(IllegalStateException.class,
@@ -130,12 +226,17 @@ class LoanServiceTest {
     void changeStatus_userDraftToSubmitted() {
         Loan loan = Loan.builder()
                 .id("1")
+                .clientName("Client")
+                .loanType("TermLoan")
+                .requestedAmount(1L)
+                .tenureMonths(12)
                 .status(LoanStatus.DRAFT)
                 .financials(Financials.builder().revenue(1L).ebitda(1L).rating("A").build())
                 .build();
 
         when(loanRepository.findById("1")).thenReturn(Optional.of(loan));
-        when(loanRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(loanRepository.updateIfMatches(eq("1"), any(), any()))
+                .thenReturn(Optional.of(Loan.builder().id("1").status(LoanStatus.SUBMITTED).build()));
 
         LoanStatusUpdateRequest req = new LoanStatusUpdateRequest();
         req.setStatus(LoanStatus.SUBMITTED);
@@ -143,26 +244,34 @@ class LoanServiceTest {
         LoanResponseDto dto = loanService.changeStatus("1", req, "user1", Role.USER);
 
         assertEquals(LoanStatus.SUBMITTED, dto.getStatus());
+        verify(loanRepository, never()).save(any());
+        verify(loanActionRepository).save(any());
     }
 
     // ---------------- NEW TESTS (IMPORTANT) ----------------
 
     @Test
-    void calculatePricing_largeLoanGetsSizeDiscount() {
+    void createLoan_submitLargeLoanGetsSizeDiscount() {
         LoanCreateRequest req = sampleCreateRequest();
         req.setRequestedAmount(100_000_000L);
 
-        double rate = loanService.calculatePricing(req);
+        req.setAction(LoanCreateAction.SUBMIT);
+        when(loanRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        double rate = loanService.createLoan(req, "user1").getProposedInterestRate();
 
         assertTrue(rate < 10.0);
     }
 
     @Test
-    void calculatePricing_unknownRatingGetsHighRisk() {
+    void createLoan_submitUnknownRatingGetsHighRisk() {
         LoanCreateRequest req = sampleCreateRequest();
         req.getFinancials().setRating("CCC");
 
-        double rate = loanService.calculatePricing(req);
+        req.setAction(LoanCreateAction.SUBMIT);
+        when(loanRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        double rate = loanService.createLoan(req, "user1").getProposedInterestRate();
 
         assertTrue(rate > 10.0);
     }
@@ -176,7 +285,11 @@ class LoanServiceTest {
                 .build();
 
         when(loanRepository.findById("1")).thenReturn(Optional.of(loan));
-        when(loanRepository.save(any())).thenAnswer(i -> i.getArgument(0));
+        when(loanRepository.updateIfMatches(eq("1"), any(), any())).thenAnswer(i -> {
+            Update update = i.getArgument(2);
+            loan.setStatus((LoanStatus) update.getUpdateObject().get("$set", Document.class).get("status"));
+            return Optional.of(loan);
+        });
 
         LoanStatusUpdateRequest req = new LoanStatusUpdateRequest();
         req.setStatus(LoanStatus.UNDER_REVIEW);
@@ -184,63 +297,207 @@ class LoanServiceTest {
         LoanResponseDto dto = loanService.changeStatus("1", req, "admin", Role.ADMIN);
 
         assertEquals(LoanStatus.UNDER_REVIEW, dto.getStatus());
+
+        ArgumentCaptor<LoanEvent> event = ArgumentCaptor.forClass(LoanEvent.class);
+        verify(eventPublisher).publish(event.capture());
+        assertEquals(LoanEventType.STATUS_CHANGED, event.getValue().getType());
+        assertEquals(LoanStatus.DRAFT, event.getValue().getBefore().getStatus());
+        assertEquals(LoanStatus.UNDER_REVIEW, event.getValue().getAfter().getStatus());
     }
 
     @Test
-    void approveLoan_success() {
+    void changeStatus_isConditionalUpdateOnTheReadStatus() {
         Loan loan = Loan.builder()
                 .id("1")
-                .status(LoanStatus.UNDER_REVIEW)
-                .financials(Financials.builder().rating("A").build())
+                .status(LoanStatus.DRAFT)
+                .version(5L)
                 .build();
 
         when(loanRepository.findById("1")).thenReturn(Optional.of(loan));
+        when(loanRepository.updateIfMatches(eq("1"), any(), any()))
+                .thenReturn(Optional.of(Loan.builder().id("1").status(LoanStatus.UNDER_REVIEW).build()));
+
+        LoanStatusUpdateRequest req = new LoanStatusUpdateRequest();
+        req.setStatus(LoanStatus.UNDER_REVIEW);
+
+        loanService.changeStatus("1", req, "admin", Role.ADMIN);
+
+        ArgumentCaptor<Criteria> precondition = ArgumentCaptor.forClass(Criteria.class);
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(loanRepository).updateIfMatches(eq("1"), precondition.capture(), update.capture());
+
+        Document filter = precondition.getValue().getCriteriaObject();
+        assertEquals(false, filter.get("deleted"));
+        assertEquals(LoanStatus.DRAFT, filter.get("status"));
+        assertEquals(5L, filter.get("version"));
+
+        Document updateObject = update.getValue().getUpdateObject();
+        assertEquals(LoanStatus.UNDER_REVIEW, updateObject.get("$set", Document.class).get("status"));
+        assertEquals(1, updateObject.get("$inc", Document.class).get("version"));
+        verify(loanRepository, never()).save(any());
+    }
+
+    @Test
+    void changeStatus_userSubmitRevalidatesWhenTheVersionChangedSinceTheRead() {
+        Loan validated = submittableDraft(3L);
+        Loan editedSinceRead = submittableDraft(4L);
+        editedSinceRead.setTenureMonths(null);
 
-        loanService.approveLoan("1", "admin1");
+        when(loanRepository.findById("1"))
+                .thenReturn(Optional.of(validated))
+                .thenReturn(Optional.of(editedSinceRead));
+        when(loanRepository.updateIfMatches(eq("1"), any(), any())).thenReturn(Optional.empty());
 
-        assertEquals(LoanStatus.APPROVED, loan.getStatus());
-        assertEquals("admin1", loan.getApprovedBy());
+        LoanStatusUpdateRequest req = new LoanStatusUpdateRequest();
+        req.setStatus(LoanStatus.SUBMITTED);
+
+        IllegalStateException ex = assertThrows(IllegalStateException.class,
+                () -> loanService.changeStatus("1", req, "user1", Role.USER));
+        assertEquals("Tenure required", ex.getMessage());
+
+        ArgumentCaptor<Criteria> precondition = ArgumentCaptor.forClass(Criteria.class);
+        verify(loanRepository).updateIfMatches(eq("1"), precondition.capture(), any());
+        assertEquals(3L, precondition.getValue().getCriteriaObject().get("version"));
+        verify(loanActionRepository, never()).save(any());
+        verify(eventPublisher, never()).publish(any());
+    }
+
+    @Test
+    void changeStatus_userSubmitGivesUpAfterRepeatedVersionConflicts() {
+        when(loanRepository.findById("1")).thenReturn(Optional.of(submittableDraft(3L)));
+        when(loanRepository.updateIfMatches(eq("1"), any(), any())).thenReturn(Optional.empty());
+
+        LoanStatusUpdateRequest req = new LoanStatusUpdateRequest();
+        req.setStatus(LoanStatus.SUBMITTED);
+
+        assertThrows(IllegalStateException.class,
+                () -> loanService.changeStatus("1", req, "user1", Role.USER));
+        verify(loanRepository, times(3)).updateIfMatches(eq("1"), any(), any());
+        verify(loanActionRepository, never()).save(any());
+    }
+
+    @Test
+    void changeStatus_adminApproveLosesRaceWhenNoLongerUnderReview() {
+        Loan alreadyApproved = Loan.builder()
+                .id("1")
+                .status(LoanStatus.APPROVED)
+                .build();
+
+        when(loanRepository.updateIfMatches(eq("1"), any(), any())).thenReturn(Optional.empty());
+        when(loanRepository.findById("1")).thenReturn(Optional.of(alreadyApproved));
+
+        LoanStatusUpdateRequest req = new LoanStatusUpdateRequest();
+        req.setStatus(LoanStatus.APPROVED);
+
+        assertThrows(IllegalStateException.class,
+                () -> loanService.changeStatus("1", req, "admin", Role.ADMIN));
+        verify(loanActionRepository, never()).save(any());
+    }
+
+    @Test
+    void softDeleteLoan_isNoOpWhenAlreadyDeleted() {
+        when(loanRepository.updateIfMatches(eq("1"), any(), any())).thenReturn(Optional.empty());
+        when(loanRepository.existsById("1")).thenReturn(true);
+
+        loanService.softDeleteLoan("1", "admin");
+
+        verify(loanActionRepository, never()).save(any());
+        verify(eventPublisher, never()).publish(any());
+    }
+
+    @Test
+    void changeStatus_adminApprovesUnderReview() {
+        Loan approved = Loan.builder()
+                .id("1")
+                .status(LoanStatus.APPROVED)
+                .approvedBy("admin1")
+                .financials(Financials.builder().rating("A").build())
+                .build();
+
+        when(loanRepository.updateIfMatches(eq("1"), any(), any())).thenReturn(Optional.of(approved));
+
+        LoanStatusUpdateRequest req = new LoanStatusUpdateRequest();
+        req.setStatus(LoanStatus.APPROVED);
+
+        LoanResponseDto dto = loanService.changeStatus("1", req, "admin1", Role.ADMIN);
+
+        assertEquals(LoanStatus.APPROVED, dto.getStatus());
+        assertEquals("admin1", dto.getApprovedBy());
     }
 
     @Test
-    void approveLoan_throwsIfNotUnderReview() {
+    void changeStatus_adminApproveThrowsIfNotUnderReview() {
         Loan loan = Loan.builder()
                 .id("1")
                 .status(LoanStatus.DRAFT)
                 .build();
 
+        when(loanRepository.updateIfMatches(eq("1"), any(), any())).thenReturn(Optional.empty());
         when(loanRepository.findById("1")).thenReturn(Optional.of(loan));
 
-        assertThrows(RuntimeException.class,
-                () -> loanService.approveLoan("1", "admin"));
+        LoanStatusUpdateRequest req = new LoanStatusUpdateRequest();
+        req.setStatus(LoanStatus.APPROVED);
+
+        assertThrows(IllegalStateException.class,
+                () -> loanService.changeStatus("1", req, "admin", Role.ADMIN));
     }
 
     @Test
-    void rejectLoan_success() {
-        Loan loan = Loan.builder()
+    void changeStatus_adminRejectsUnderReview() {
+        Loan rejected = Loan.builder()
                 .id("1")
-                .status(LoanStatus.UNDER_REVIEW)
+                .status(LoanStatus.REJECTED)
+                .approvedBy("admin")
                 .build();
 
-        when(loanRepository.findById("1")).thenReturn(Optional.of(loan));
+        when(loanRepository.updateIfMatches(eq("1"), any(), any())).thenReturn(Optional.of(rejected));
 
-        loanService.rejectLoan("1", "admin");
+        LoanStatusUpdateRequest req = new LoanStatusUpdateRequest();
+        req.setStatus(LoanStatus.REJECTED);
+
+        LoanResponseDto dto = loanService.changeStatus("1", req, "admin", Role.ADMIN);
 
-        assertEquals(LoanStatus.REJECTED, loan.getStatus());
-        assertEquals("admin", loan.getApprovedBy());
+        assertEquals(LoanStatus.REJECTED, dto.getStatus());
+        assertEquals("admin", dto.getApprovedBy());
     }
 
     @Test
-    void rejectLoan_throwsIfNotUnderReview() {
+    void changeStatus_adminRejectThrowsIfNotUnderReview() {
         Loan loan = Loan.builder()
                 .id("1")
                 .status(LoanStatus.DRAFT)
                 .build();
 
+        when(loanRepository.updateIfMatches(eq("1"), any(), any())).thenReturn(Optional.empty());
         when(loanRepository.findById("1")).thenReturn(Optional.of(loan));
 
-        assertThrows(RuntimeException.class,
-                () -> loanService.rejectLoan("1", "admin"));
+        LoanStatusUpdateRequest req = new LoanStatusUpdateRequest();
+        req.setStatus(LoanStatus.REJECTED);
+
+        assertThrows(IllegalStateException.class,
+                () -> loanService.changeStatus("1", req, "admin", Role.ADMIN));
+    }
+
+    @Test
+    void listLoansByCursor_rejectsNonPositiveSize() {
+        LoanSearchCriteria filter = LoanSearchCriteria.of(null, null);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> loanService.listLoansByCursor(null, 0, filter, false));
+        assertThrows(IllegalArgumentException.class,
+                () -> loanService.listLoansByCursor(null, -1, filter, false));
+        verify(loanRepository, never()).searchAfter(any(), any(), anyInt());
+    }
+
+    @Test
+    void listLoansByCursor_capsSize() {
+        LoanSearchCriteria filter = LoanSearchCriteria.of(null, null);
+        when(loanRepository.searchAfter(eq(filter), isNull(), anyInt())).thenReturn(List.of());
+
+        PagedResponse<LoanResponseDto> res = loanService.listLoansByCursor(null, 1_000_000, filter, false);
+
+        assertEquals(LoanService.MAX_CURSOR_PAGE_SIZE, res.getSize());
+        verify(loanRepository).searchAfter(filter, null, LoanService.MAX_CURSOR_PAGE_SIZE + 1);
     }
 
     @Test
@@ -252,10 +509,66 @@ class LoanServiceTest {
                 .build();
 
         Page<Loan> page = new PageImpl<>(List.of(loan));
-        when(loanRepository.findByDeletedFalse(any(Pageable.class))).thenReturn(page);
+        when(loanRepository.search(any(LoanSearchCriteria.class), any(Pageable.class))).thenReturn(page);
 
         PagedResponse<LoanResponseDto> res = loanService.listLoans(0, 10, null, null);
 
         assertEquals(1, res.getContent().size());
     }
+
+    @Test
+    void listLoans_combinesStatusAndOwnerFilters() {
+        when(loanRepository.search(any(LoanSearchCriteria.class), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of()));
+
+        loanService.listLoans(0, 10, LoanStatus.SUBMITTED, "user1");
+
+        verify(loanRepository).search(
+                argThat(f -> f.getStatus() == LoanStatus.SUBMITTED && "user1".equals(f.getCreatedBy())),
+                any(Pageable.class));
+    }
+
+    @Test
+    void listLoansByCursor_returnsNextCursorWithoutCounting() {
+        Instant t = Instant.parse("2024-01-01T00:00:00Z");
+        List<Loan> rows = List.of(
+                Loan.builder().id("3").createdAt(t.plusSeconds(2)).build(),
+                Loan.builder().id("2").createdAt(t.plusSeconds(1)).build(),
+                Loan.builder().id("1").createdAt(t).build());
+        LoanSearchCriteria filter = LoanSearchCriteria.builder().build();
+        when(loanRepository.searchAfter(filter, null, 3)).thenReturn(rows);
+
+        PagedResponse<LoanResponseDto> res = loanService.listLoansByCursor("", 2, filter, false);
+
+        assertEquals(2, res.getContent().size());
+        assertEquals(-1, res.getTotalElements());
+        LoanCursor next = LoanCursor.decode(res.getNextCursor());
+        assertEquals("2", next.id());
+        assertEquals(t.plusSeconds(1), next.createdAt());
+        verify(loanRepository, never()).count(any(LoanSearchCriteria.class));
+    }
+
+    @Test
+    void listLoansByCursor_lastPageHasNoCursor() {
+        when(loanRepository.searchAfter(any(), any(), anyInt()))
+                .thenReturn(List.of(Loan.builder().id("1").createdAt(Instant.now()).build()));
+
+        PagedResponse<LoanResponseDto> res =
+                loanService.listLoansByCursor("", 10, LoanSearchCriteria.builder().build(), false);
+
+        assertNull(res.getNextCursor());
+    }
+
+    private static Loan submittableDraft(long version) {
+        return Loan.builder()
+                .id("1")
+                .clientName("Client")
+                .loanType("TermLoan")
+                .requestedAmount(1L)
+                .tenureMonths(12)
+                .status(LoanStatus.DRAFT)
+                .version(version)
+                .financials(Financials.builder().revenue(1L).ebitda(1L).rating("A").build())
+                .build();
+    }
 }
@@ -0,0 +1,163 @@
+package com.bank.loan.service;
+
+import com.bank.loan.dto.LoanSummaryDto;
+import com.bank.loan.event.LoanEvent;
+import com.bank.loan.event.LoanEventType;
+import com.bank.loan.event.LoanSnapshot;
+import com.bank.loan.model.Loan;
+import com.bank.loan.model.LoanStatus;
+import com.bank.loan.model.LoanSummary;
+import com.mongodb.client.result.DeleteResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.Document;
+import org.junit.jupiter.api.*;
+import org.mockito.*;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class LoanSummaryServiceTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private BulkOperations bulkOps;
+
+    private LoanSummaryService service;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(mongoTemplate.bulkOps(any(BulkOperations.BulkMode.class), eq(LoanSummary.class))).thenReturn(bulkOps);
+        when(mongoTemplate.getCollectionName(LoanSummary.class)).thenReturn("loan_summaries");
+        service = new LoanSummaryService(mongoTemplate, 60_000, 100, new SimpleMeterRegistry());
+    }
+
+    private LoanSnapshot submitted() {
+        return LoanSnapshot.builder()
+                .status(LoanStatus.SUBMITTED)
+                .loanType("TermLoan")
+                .createdBy("user1")
+                .requestedAmount(1_000L)
+                .build();
+    }
+
+    private Map<String, LoanSummaryService.Delta> deltas(LoanEvent event) {
+        return LoanSummaryService.deltas(event).stream()
+                .collect(Collectors.toMap(d -> LoanSummary.id(d.dimension(), d.key()), Function.identity()));
+    }
+
+    @Test
+    void deltas_created_addsToEveryDimension() {
+        var deltas = deltas(LoanEvent.of(LoanEventType.CREATED, "1", "user1", null, submitted()));
+
+        assertEquals(3, deltas.size());
+        assertEquals(new LoanSummaryService.Delta("status", "SUBMITTED", 1, 1_000, 0), deltas.get("status:SUBMITTED"));
+        assertEquals(1, deltas.get("createdBy:user1").count());
+        assertEquals(1_000, deltas.get("loanType:TermLoan").requestedAmount());
+    }
+
+    @Test
+    void deltas_statusChange_movesBetweenStatusesOnly() {
+        LoanSnapshot approved = submitted().toBuilder()
+                .status(LoanStatus.APPROVED)
+                .sanctionedAmount(800L)
+                .build();
+
+        var deltas = deltas(LoanEvent.of(LoanEventType.STATUS_CHANGED, "1", "admin", submitted(), approved));
+
+        assertEquals(new LoanSummaryService.Delta("status", "SUBMITTED", -1, -1_000, 0), deltas.get("status:SUBMITTED"));
+        assertEquals(new LoanSummaryService.Delta("status", "APPROVED", 1, 1_000, 800), deltas.get("status:APPROVED"));
+        // count and requested amount net out; only the sanctioned amount moves
+        assertEquals(new LoanSummaryService.Delta("createdBy", "user1", 0, 0, 800), deltas.get("createdBy:user1"));
+        assertEquals(800, deltas.get("loanType:TermLoan").sanctionedAmount());
+    }
+
+    @Test
+    void deltas_deleted_removesContribution() {
+        LoanSnapshot deleted = submitted().toBuilder().deleted(true).build();
+
+        var deltas = deltas(LoanEvent.of(LoanEventType.DELETED, "1", "admin", submitted(), deleted));
+
+        assertEquals(-1, deltas.get("status:SUBMITTED").count());
+        assertEquals(-1_000, deltas.get("createdBy:user1").requestedAmount());
+    }
+
+    @Test
+    void handle_noOpUpdateWritesNothing() {
+        service.handle(LoanEvent.of(LoanEventType.UPDATED, "1", "user1", submitted(), submitted()));
+
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    @Test
+    void handle_invalidatesCachedSummary() {
+        when(mongoTemplate.find(any(Query.class), eq(LoanSummary.class))).thenReturn(List.of(
+                LoanSummary.builder().dimension("status").key("SUBMITTED").count(1).build()));
+
+        service.summary(null);
+        service.summary(null);
+        verify(mongoTemplate, times(1)).find(any(Query.class), eq(LoanSummary.class));
+
+        service.handle(LoanEvent.of(LoanEventType.CREATED, "2", "user1", null, submitted()));
+        verify(bulkOps, times(3)).upsert(any(Query.class), any(Update.class));
+
+        LoanSummaryDto summary = service.summary(null);
+        verify(mongoTemplate, times(2)).find(any(Query.class), eq(LoanSummary.class));
+        assertEquals(1, summary.getByStatus().get("SUBMITTED").getCount());
+    }
+
+    @Test
+    void summary_userWithoutLoansGetsZeroTotals() {
+        when(mongoTemplate.find(any(Query.class), eq(LoanSummary.class))).thenReturn(List.of());
+
+        LoanSummaryDto summary = service.summary("nobody");
+
+        assertEquals(new LoanSummaryDto.Totals(0, 0, 0), summary.getMine());
+    }
+
+    @Test
+    void rebuild_mergesEveryDimensionThenRemovesOnlyStaleRows() {
+        when(mongoTemplate.remove(any(Query.class), eq(LoanSummary.class))).thenReturn(DeleteResult.acknowledged(1));
+        when(mongoTemplate.count(any(Query.class), eq(LoanSummary.class))).thenReturn(7L);
+
+        assertEquals(7, service.rebuild());
+
+        ArgumentCaptor<Aggregation> aggregations = ArgumentCaptor.forClass(Aggregation.class);
+        verify(mongoTemplate, times(3)).aggregate(aggregations.capture(), eq(Loan.class), eq(Document.class));
+        for (Aggregation aggregation : aggregations.getAllValues()) {
+            List<Document> pipeline = aggregation.toPipeline(Aggregation.DEFAULT_CONTEXT);
+            Document merge = (Document) pipeline.get(pipeline.size() - 1).get("$merge");
+            assertEquals("loan_summaries", merge.get("into"));
+            assertTrue(aggregation.getOptions().isSkipResults());
+        }
+
+        ArgumentCaptor<Query> removed = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).remove(removed.capture(), eq(LoanSummary.class));
+        assertTrue(removed.getValue().getQueryObject().containsKey("updatedAt"));
+    }
+
+    @Test
+    void run_buildsSummariesOnlyWhenCollectionIsEmpty() {
+        when(mongoTemplate.exists(any(Query.class), eq(LoanSummary.class))).thenReturn(true);
+        service.run(null);
+        verify(mongoTemplate, never()).aggregate(any(Aggregation.class), eq(Loan.class), eq(Document.class));
+
+        when(mongoTemplate.exists(any(Query.class), eq(LoanSummary.class))).thenReturn(false);
+        when(mongoTemplate.remove(any(Query.class), eq(LoanSummary.class))).thenReturn(DeleteResult.acknowledged(0));
+        service.run(null);
+        verify(mongoTemplate, times(3)).aggregate(any(Aggregation.class), eq(Loan.class), eq(Document.class));
+    }
+}
@@ -0,0 +1,49 @@
+package com.bank.loan.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OptimisticRetryExecutorTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private final OptimisticRetryExecutor executor =
+            new OptimisticRetryExecutor(3, 0, 0, registry);
+
+    @Test
+    void execute_retriesUntilSuccess() {
+        int[] calls = {0};
+
+        String result = executor.execute("op", () -> {
+            if (++calls[0] < 3) throw new OptimisticLockingFailureException("stale");
+            return "ok";
+        });
+
+        assertEquals("ok", result);
+        assertEquals(2, registry.counter("loan.update.conflicts", "operation", "op").count());
+    }
+
+    @Test
+    void execute_givesUpAfterMaxAttempts() {
+        assertThrows(IllegalStateException.class, () -> executor.execute("op", () -> {
+            throw new OptimisticLockingFailureException("stale");
+        }));
+
+        assertEquals(1, registry.counter("loan.update.exhausted", "operation", "op").count());
+    }
+
+    @Test
+    void execute_doesNotRetryOtherErrors() {
+        int[] calls = {0};
+
+        assertThrows(IllegalArgumentException.class, () -> executor.execute("op", () -> {
+            calls[0]++;
+            throw new IllegalArgumentException("Loan not found");
+        }));
+
+        assertEquals(1, calls[0]);
+    }
+}
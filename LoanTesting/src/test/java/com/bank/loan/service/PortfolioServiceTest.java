@@ -0,0 +1,60 @@
+package com.bank.loan.service;
+
+import com.bank.loan.repository.LoanRepository;
+import com.bank.loan.repository.PortfolioGroup;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.*;
+import org.mockito.*;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.AdditionalMatchers.aryEq;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class PortfolioServiceTest {
+
+    @Mock
+    private LoanRepository loanRepository;
+
+    private PortfolioService service;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        service = new PortfolioService(loanRepository, new long[]{0, 1_000, 10_000}, 60_000, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void exposureByRating_isCached() {
+        List<PortfolioGroup> rows = List.of(new PortfolioGroup("AAA", 2, 5_000L, null));
+        when(loanRepository.exposureByRating()).thenReturn(rows);
+
+        assertEquals(rows, service.exposureByRating());
+        assertEquals(rows, service.exposureByRating());
+
+        verify(loanRepository, times(1)).exposureByRating();
+    }
+
+    @Test
+    void amountHistogram_cachesPerParameterSet() {
+        when(loanRepository.requestedAmountHistogram(any(), any())).thenReturn(List.of());
+
+        service.amountHistogram(null, null);
+        service.amountHistogram(null, null);
+        service.amountHistogram(null, "TermLoan");
+        service.amountHistogram(new long[]{0, 500}, null);
+
+        verify(loanRepository, times(1)).requestedAmountHistogram(aryEq(new long[]{0, 1_000, 10_000}), isNull());
+        verify(loanRepository, times(1)).requestedAmountHistogram(aryEq(new long[]{0, 1_000, 10_000}), eq("TermLoan"));
+        verify(loanRepository, times(1)).requestedAmountHistogram(aryEq(new long[]{0, 500}), isNull());
+    }
+
+    @Test
+    void amountHistogram_rejectsBadBoundaries() {
+        assertThrows(IllegalArgumentException.class, () -> service.amountHistogram(new long[]{100}, null));
+        assertThrows(IllegalArgumentException.class, () -> service.amountHistogram(new long[]{0, 100, 100}, null));
+        verifyNoInteractions(loanRepository);
+    }
+}
@@ -0,0 +1,75 @@
+package com.bank.loan.service;
+
+import com.bank.loan.dto.LoanResponseDto;
+import com.bank.loan.model.Loan;
+import com.bank.loan.model.LoanStatus;
+import com.bank.loan.repository.LoanSearchCriteria;
+import com.bank.loan.repository.ReactiveLoanRepository;
+import org.junit.jupiter.api.*;
+import org.mockito.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ReactiveLoanServiceTest {
+
+    @Mock
+    private ReactiveLoanRepository reactiveLoanRepository;
+
+    @Mock
+    private LoanService loanService;
+
+    @InjectMocks
+    private ReactiveLoanService reactiveLoanService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(loanService.toDto(any(Loan.class))).thenAnswer(inv -> {
+            Loan loan = inv.getArgument(0);
+            return LoanResponseDto.builder().id(loan.getId()).status(loan.getStatus()).build();
+        });
+    }
+
+    @Test
+    void getLoan_mapsToDto() {
+        when(reactiveLoanRepository.findById("1"))
+                .thenReturn(Mono.just(Loan.builder().id("1").status(LoanStatus.DRAFT).build()));
+
+        assertEquals("1", reactiveLoanService.getLoan("1").block().getId());
+    }
+
+    @Test
+    void getLoan_missingOrDeletedFailsLikeBlockingPath() {
+        when(reactiveLoanRepository.findById("missing")).thenReturn(Mono.empty());
+        when(reactiveLoanRepository.findById("gone"))
+                .thenReturn(Mono.just(Loan.builder().id("gone").deleted(true).build()));
+
+        assertThrows(IllegalArgumentException.class, () -> reactiveLoanService.getLoan("missing").block());
+        assertThrows(IllegalStateException.class, () -> reactiveLoanService.getLoan("gone").block());
+    }
+
+    @Test
+    void search_streamsMappedLoansInOrder() {
+        LoanSearchCriteria filter = LoanSearchCriteria.builder().status(LoanStatus.SUBMITTED).build();
+        when(reactiveLoanRepository.search(filter, 2)).thenReturn(Flux.just(
+                Loan.builder().id("2").status(LoanStatus.SUBMITTED).build(),
+                Loan.builder().id("1").status(LoanStatus.SUBMITTED).build()));
+
+        List<LoanResponseDto> result = reactiveLoanService.search(filter, 2).collectList().block();
+
+        assertEquals(List.of("2", "1"), result.stream().map(LoanResponseDto::getId).toList());
+    }
+
+    @Test
+    void search_rejectsNegativeLimit() {
+        assertThrows(IllegalArgumentException.class,
+                () -> reactiveLoanService.search(LoanSearchCriteria.builder().build(), -1));
+        verifyNoInteractions(reactiveLoanRepository);
+    }
+}
@@ -0,0 +1,178 @@
+package com.bank.loan.service;
+
+import com.bank.loan.model.*;
+import com.bank.loan.pricing.PricingEngine;
+import com.bank.loan.repository.LoanActionRepository;
+import com.bank.loan.repository.LoanRateUpdate;
+import com.bank.loan.repository.LoanRepository;
+import com.bank.loan.repository.RepricingCheckpointRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.*;
+import org.mockito.*;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class RepricingJobTest {
+
+    @Mock
+    private LoanRepository loanRepository;
+
+    @Mock
+    private LoanActionRepository loanActionRepository;
+
+    @Mock
+    private RepricingCheckpointRepository checkpointRepository;
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    private final PricingEngine pricingEngine =
+            new PricingEngine(new ObjectMapper(), new ClassPathResource("pricing/rate-grid.json"));
+
+    private RepricingJob job;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(checkpointRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(RepricingLease.class))).thenReturn(new RepricingLease());
+        // run the job on the calling thread
+        job = new RepricingJob(loanRepository, loanActionRepository, checkpointRepository, mongoTemplate,
+                pricingEngine, 2, 2, 60_000, new SimpleMeterRegistry(), Runnable::run);
+    }
+
+    private Loan loan(String id, String rating, Double rate) {
+        return Loan.builder()
+                .id(id)
+                .version(4L)
+                .loanType("TERM")
+                .requestedAmount(1_000_000L)
+                .tenureMonths(12)
+                .financials(Financials.builder().rating(rating).build())
+                .proposedInterestRate(rate)
+                .build();
+    }
+
+    @Test
+    void start_refusesWhileAnotherNodeHoldsTheLease() {
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(RepricingLease.class))).thenThrow(new DuplicateKeyException("E11000"));
+
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> job.start());
+
+        assertTrue(e.getMessage().contains("another node"));
+        assertFalse(job.isRunning());
+        verify(checkpointRepository, never()).save(any());
+        verify(loanRepository, never()).findOpenAfter(any(), anyInt());
+    }
+
+    @Test
+    void start_stopsWithoutSavingTheCheckpointWhenTheLeaseIsTakenOver() {
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(RepricingLease.class)))
+                .thenReturn(new RepricingLease(), new RepricingLease(), new RepricingLease())
+                .thenReturn(null);
+        when(checkpointRepository.findTopByOrderByStartedAtDesc()).thenReturn(Optional.empty());
+        when(loanRepository.findOpenAfter(null, 2))
+                .thenReturn(List.of(loan("1", "A", 10.0), loan("2", "BBB", 10.0)));
+        when(loanRepository.updateRates(anyList(), any())).thenAnswer(inv -> inv.getArgument(0));
+
+        job.start();
+
+        // saved on start and after the first chunk, which was checkpointed under the lease
+        verify(checkpointRepository, times(2)).save(any());
+        verify(loanRepository, times(1)).findOpenAfter(any(), anyInt());
+        verify(mongoTemplate, never()).updateFirst(any(Query.class), any(Update.class), eq(RepricingLease.class));
+        assertFalse(job.isRunning());
+    }
+
+    @Test
+    void start_pricesInChunksAndWritesOnlyChangedRates() {
+        when(checkpointRepository.findTopByOrderByStartedAtDesc()).thenReturn(Optional.empty());
+        when(loanRepository.findOpenAfter(null, 2))
+                .thenReturn(List.of(loan("1", "A", 10.0), loan("2", "BBB", 10.0)));
+        when(loanRepository.findOpenAfter("2", 2))
+                .thenReturn(List.of(loan("3", "AAA", 10.0)));
+        when(loanRepository.updateRates(anyList(), any())).thenAnswer(inv -> inv.getArgument(0));
+
+        RepricingCheckpoint result = job.start();
+
+        verify(loanRepository).updateRates(eq(List.of(new LoanRateUpdate("2", 4L, 11.0))), any());
+        verify(loanRepository).updateRates(eq(List.of(new LoanRateUpdate("3", 4L, 9.0))), any());
+        assertEquals(RepricingStatus.COMPLETED, result.getStatus());
+        assertEquals("3", result.getLastProcessedId());
+        assertEquals(3, result.getScanned());
+        assertEquals(2, result.getUpdated());
+        assertFalse(job.isRunning());
+    }
+
+    @Test
+    void start_resumesUnfinishedRunForSameGridVersion() {
+        RepricingCheckpoint previous = RepricingCheckpoint.builder()
+                .gridVersion(pricingEngine.currentGrid().getVersion())
+                .status(RepricingStatus.FAILED)
+                .lastProcessedId("7")
+                .scanned(7)
+                .startedAt(Instant.now())
+                .build();
+        when(checkpointRepository.findTopByOrderByStartedAtDesc()).thenReturn(Optional.of(previous));
+        when(loanRepository.findOpenAfter("7", 2)).thenReturn(List.of());
+
+        RepricingCheckpoint result = job.start();
+
+        verify(loanRepository, never()).findOpenAfter(isNull(), anyInt());
+        assertEquals(RepricingStatus.COMPLETED, result.getStatus());
+        assertEquals(7, result.getScanned());
+    }
+
+    @Test
+    void start_recordsFailureAndAllowsRestart() {
+        when(checkpointRepository.findTopByOrderByStartedAtDesc()).thenReturn(Optional.empty());
+        when(loanRepository.findOpenAfter(null, 2)).thenThrow(new IllegalStateException("mongo down"));
+
+        RepricingCheckpoint result = job.start();
+
+        assertEquals(RepricingStatus.FAILED, result.getStatus());
+        assertEquals("mongo down", result.getError());
+        assertFalse(job.isRunning());
+    }
+
+    @Test
+    void start_auditsOnlyTheRateChangesThatWereApplied() {
+        when(checkpointRepository.findTopByOrderByStartedAtDesc()).thenReturn(Optional.empty());
+        when(loanRepository.findOpenAfter(null, 2))
+                .thenReturn(List.of(loan("1", "BBB", 10.0), loan("2", "AAA", 10.0)));
+        // loan 2 was edited after it was read
+        when(loanRepository.updateRates(anyList(), any()))
+                .thenReturn(List.of(new LoanRateUpdate("1", 4L, 11.0)));
+        when(loanRepository.findOpenAfter("2", 2)).thenReturn(List.of());
+
+        RepricingCheckpoint result = job.start();
+
+        ArgumentCaptor<LoanAction> lastAction = ArgumentCaptor.forClass(LoanAction.class);
+        verify(loanRepository).updateRates(anyList(), lastAction.capture());
+        assertEquals(RepricingJob.REPRICED, lastAction.getValue().getAction());
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<LoanAction>> audited = ArgumentCaptor.forClass(List.class);
+        verify(loanActionRepository).insert(audited.capture());
+        assertEquals(1, audited.getValue().size());
+        assertEquals("1", audited.getValue().get(0).getLoanId());
+        assertEquals(RepricingJob.REPRICED, audited.getValue().get(0).getAction());
+        assertEquals(1, result.getUpdated());
+    }
+}
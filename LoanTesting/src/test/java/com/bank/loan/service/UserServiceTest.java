@@ -6,10 +6,12 @@ import com.bank.loan.dto.UserStatusUpdateRequest;
 import com.bank.loan.model.Role;
 import com.bank.loan.model.User;
 import com.bank.loan.repository.UserRepository;
+import com.bank.loan.security.PrincipalCache;
+import com.bank.loan.security.RevokedAccountRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
 
 import java.time.Instant;
 import java.util.List;
@@ -24,7 +26,13 @@ class UserServiceTest {
     private UserRepository userRepository;
 
     @Mock
-    private BCryptPasswordEncoder passwordEncoder;
+    private PasswordEncoder passwordEncoder;
+
+    @Mock
+    private PrincipalCache principalCache;
+
+    @Mock
+    private RevokedAccountRegistry revokedAccounts;
 
     @InjectMocks
     private UserService userService;
@@ -124,6 +132,8 @@ class UserServiceTest {
 
         assertFalse(dto.isActive());
         verify(userRepository).save(any(User.class));
+        verify(principalCache).evict("rm@bank.com");
+        verify(revokedAccounts).revokeBefore("1", 1L);
     }
 
 
@@ -137,4 +147,15 @@ class UserServiceTest {
         assertThrows(IllegalArgumentException.class,
                 () -> userService.updateUserStatus("99", req));
     }
+
+    @Test
+    void upgradePassword_writesOnlyIfHashUnchanged() {
+        when(passwordEncoder.encode("pass")).thenReturn("{bcrypt}NEW");
+        when(userRepository.updatePasswordIfUnchanged("1", "OLD", "{bcrypt}NEW")).thenReturn(1L);
+        when(userRepository.updatePasswordIfUnchanged("2", "OLD", "{bcrypt}NEW")).thenReturn(0L);
+
+        assertTrue(userService.upgradePassword("1", "OLD", "pass"));
+        assertFalse(userService.upgradePassword("2", "OLD", "pass"));
+        verify(userRepository, never()).save(any());
+    }
 }